@@ -1,15 +1,20 @@
 package com.smartgazette.smartgazette.controller;
 
 import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.GazetteGridFilter;
+import com.smartgazette.smartgazette.model.GazetteGridPage;
 import com.smartgazette.smartgazette.service.ExcelExportService;
 import com.smartgazette.smartgazette.service.GazetteScrapingService;
 import com.smartgazette.smartgazette.service.GazetteService;
 import com.smartgazette.smartgazette.service.IftttWebhookService;
+import com.smartgazette.smartgazette.service.PdfStorageService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.UrlResource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -25,10 +30,12 @@ import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
+import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.time.LocalDate;
 import java.util.List;
 import com.smartgazette.smartgazette.model.ProcessingStatus;
 import java.util.stream.Collectors;
@@ -42,16 +49,20 @@ public class GazetteController {
 
     private static final Logger log = LoggerFactory.getLogger(GazetteController.class);
 
+    private static final int ADMIN_GRID_PAGE_SIZE = 50;
+
     private final GazetteService gazetteService;
     private final IftttWebhookService iftttWebhookService;
     private final ExcelExportService excelExportService;
     private final GazetteScrapingService scrapingService;
+    private final PdfStorageService pdfStorageService;
 
-    public GazetteController(GazetteService gazetteService, IftttWebhookService iftttWebhookService, ExcelExportService excelExportService, GazetteScrapingService scrapingService) {
+    public GazetteController(GazetteService gazetteService, IftttWebhookService iftttWebhookService, ExcelExportService excelExportService, GazetteScrapingService scrapingService, PdfStorageService pdfStorageService) {
         this.gazetteService = gazetteService;
         this.iftttWebhookService = iftttWebhookService;
         this.excelExportService = excelExportService;
         this.scrapingService = scrapingService;
+        this.pdfStorageService = pdfStorageService;
     }
 
     // --- Public Page Display Methods ---
@@ -77,9 +88,9 @@ public class GazetteController {
     }
 
     @GetMapping("/gazette/{id}")
-    public String viewGazetteDetail(@PathVariable Long id, Model model) {
+    public String viewGazetteDetail(@PathVariable Long id, Model model, HttpServletRequest request) {
         // --- FIX: Calling the missing method now that it's added to the service ---
-        Gazette g = gazetteService.incrementViewCount(id);
+        Gazette g = gazetteService.incrementViewCount(id, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
 
         if (g == null) return "redirect:/";
         model.addAttribute("gazette", g);
@@ -186,6 +197,9 @@ public class GazetteController {
                 .toList();
         model.addAttribute("topArticles", topArticles);
 
+        // Second-level cache and feed query cache hit ratios since startup
+        model.addAttribute("cacheStats", gazetteService.getCacheStats());
+
         // --- 6. PLACEHOLDERS (For charts we'll implement later) ---
         // This is for your "Processing over time" stacked bar chart
         model.addAttribute("processingDayLabels", List.of("Mon", "Tue", "Wed", "Thu", "Fri", "Sat", "Sun"));
@@ -203,26 +217,42 @@ public class GazetteController {
     @GetMapping("/admin/content")
     public String showAdminContent(Model model,
                                    @RequestParam(name = "filter", required = false) String filter,
-                                   @RequestParam(name = "batch", required = false) String batchNumber) {
-        List<Gazette> gazettes;
-
-        if (batchNumber != null && !batchNumber.isEmpty()) {
-            // Drill-down: Show only notices for this batch
-            gazettes = gazetteService.getGazettesByBatch(batchNumber);
-            model.addAttribute("currentBatch", batchNumber); // For breadcrumb
-            model.addAttribute("currentFilter", "batch");
-        } else {
-            // Normal filtering
-            String activeFilter = (filter != null) ? filter : "latest";
-            gazettes = gazetteService.getAllGazettes(activeFilter);
-            model.addAttribute("currentFilter", activeFilter);
-        }
-
-        model.addAttribute("gazettes", gazettes);
+                                   @RequestParam(name = "status", required = false) ProcessingStatus status,
+                                   @RequestParam(name = "category", required = false) String category,
+                                   @RequestParam(name = "batch", required = false) String batchNumber,
+                                   @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                   @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                   @RequestParam(name = "after", required = false) String after) {
+        GazetteGridFilter gridFilter = new GazetteGridFilter(status, category, batchNumber, from, to, filter);
+        GazetteGridPage page = gazetteService.getAdminGridPage(gridFilter, after, ADMIN_GRID_PAGE_SIZE);
+
+        model.addAttribute("gazettes", page.rows());
+        model.addAttribute("nextCursor", page.nextCursor());
+        model.addAttribute("totalMatching", page.totalMatching());
+        model.addAttribute("isFirstPage", after == null || after.isBlank());
+        model.addAttribute("grid", gridFilter);
+        model.addAttribute("categoryNames", gazetteService.getCategoryNames());
+        model.addAttribute("currentBatch", gridFilter.batch()); // For breadcrumb
+        model.addAttribute("currentFilter", gridFilter.sort());
         model.addAttribute("activePage", "content");
         return "admin-content";
     }
 
+    // --- Admin grid as JSON: same filters and keyset cursor as the page ---
+    @GetMapping("/admin/content/grid")
+    @ResponseBody
+    public GazetteGridPage adminContentGrid(@RequestParam(name = "filter", required = false) String filter,
+                                            @RequestParam(name = "status", required = false) ProcessingStatus status,
+                                            @RequestParam(name = "category", required = false) String category,
+                                            @RequestParam(name = "batch", required = false) String batchNumber,
+                                            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                            @RequestParam(name = "after", required = false) String after,
+                                            @RequestParam(name = "size", defaultValue = "50") int size) {
+        GazetteGridFilter gridFilter = new GazetteGridFilter(status, category, batchNumber, from, to, filter);
+        return gazetteService.getAdminGridPage(gridFilter, after, Math.max(1, Math.min(size, 500)));
+    }
+
     // NEW: "Hacker" Log Viewer (Step 1: Directory)
     @GetMapping("/admin/logs")
     public String showAdminLogs(Model model) {
@@ -278,32 +308,21 @@ public class GazetteController {
             redirectAttributes.addFlashAttribute("error", "Please select a PDF to upload.");
             return "redirect:/admin/content";
         }
-        File tempFile = null;
-
         try {
-            Path tempPath = Files.createTempFile("sg-upload-", ".pdf");
-            tempFile = tempPath.toFile();
-            String tempFilePath = tempPath.toString();
-
-            pdfFile.transferTo(tempFile);
-
-            // Pass the file to service. Note: Service will NOT delete it anymore.
-            gazetteService.processAndSavePdf(tempFile, tempFilePath);
+            // Streamed into permanent storage (hashed on the way in), so the async job and later
+            // PDF downloads both use a stable path instead of an OS temp file
+            PdfStorageService.StoredPdf stored = pdfStorageService.storeUpload(pdfFile.getInputStream(), pdfFile.getOriginalFilename());
+            if (stored.duplicate()) {
+                redirectAttributes.addFlashAttribute("error", "This PDF has already been processed.");
+                return "redirect:/admin/content";
+            }
 
-            // --- NEW: We must schedule deletion or delete immediately if synchronous (but process is async) ---
-            // Since processAndSavePdf is @Async, we cannot delete the file immediately here.
-            // Ideally, the Service should handle "isTemp" flag, but for now, we rely on OS temp cleanup
-            // OR we can't delete it yet because the async thread needs it.
-            // *Correction*: For this specific upload flow, we will leave the temp file.
-            // The OS usually cleans /tmp, or we accept this trade-off to fix the scraper bug.
+            gazetteService.processAndSavePdf(stored.file(), stored.file().getAbsolutePath(), stored.sha256());
 
             redirectAttributes.addFlashAttribute("message", "File uploaded! Processing has started...");
         } catch (IOException e) {
             log.error("Failed to save uploaded file: {}", e.getMessage(), e);
             redirectAttributes.addFlashAttribute("error", "Failed to upload file.");
-            if (tempFile != null) {
-                tempFile.delete();
-            }
         }
         return "redirect:/admin/content";
     }
@@ -347,7 +366,7 @@ public class GazetteController {
 
     @GetMapping("/admin/export/excel")
     public ResponseEntity<InputStreamResource> exportToExcel() {
-        List<Gazette> gazettes = gazetteService.getAllGazettes();
+        List<Gazette> gazettes = gazetteService.getAllGazettesForExport();
         ByteArrayInputStream in = excelExportService.generateExcelReport(gazettes);
         HttpHeaders headers = new HttpHeaders();
         headers.add("Content-Disposition", "attachment; filename=gazettes.xlsx");
@@ -417,15 +436,15 @@ public class GazetteController {
 
     @PostMapping("/gazette/{id}/thumbsup")
     @ResponseBody
-    public ResponseEntity<Void> handleThumbsUp(@PathVariable Long id) {
-        gazetteService.addThumbUp(id);
+    public ResponseEntity<Void> handleThumbsUp(@PathVariable Long id, HttpServletRequest request) {
+        gazetteService.addThumbUp(id, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
         return ResponseEntity.ok().build();
     }
 
     @PostMapping("/gazette/{id}/thumbsdown")
     @ResponseBody
-    public ResponseEntity<Void> handleThumbsDown(@PathVariable Long id) {
-        gazetteService.addThumbDown(id);
+    public ResponseEntity<Void> handleThumbsDown(@PathVariable Long id, HttpServletRequest request) {
+        gazetteService.addThumbDown(id, request.getRemoteAddr(), request.getHeader(HttpHeaders.USER_AGENT));
         return ResponseEntity.ok().build();
     }
 
@@ -446,6 +465,52 @@ public class GazetteController {
         return "redirect:/admin/content";
     }
 
+    // --- BACKFILL CRAWL: every historical issue in a year range ---
+    @GetMapping("/admin/run-backfill")
+    public String runBackfillManually(@RequestParam(name = "fromYear") int fromYear,
+                                      @RequestParam(name = "toYear", required = false) Integer toYear,
+                                      RedirectAttributes redirectAttributes) {
+        int lastYear = (toYear != null) ? toYear : LocalDate.now().getYear();
+        if (fromYear > lastYear) {
+            redirectAttributes.addFlashAttribute("error", "Invalid year range for backfill.");
+            return "redirect:/admin/content";
+        }
+        log.info("Manual backfill trigger received for {} - {}.", fromYear, lastYear);
+        scrapingService.runBackfillManually(fromYear, lastYear);
+        redirectAttributes.addFlashAttribute("message", "Backfill crawl for " + fromYear + "-" + lastYear + " started in the background.");
+        return "redirect:/admin/content";
+    }
+
+    // --- Pipeline cost metrics (LLM calls per route, schema validation) as JSON ---
+    @GetMapping("/admin/metrics/llm")
+    @ResponseBody
+    public Map<String, Object> showPipelineMetrics() {
+        return gazetteService.getPipelineMetrics();
+    }
+
+    // --- Distinct readers of one notice per day (HyperLogLog estimates, about 3% error) ---
+    @GetMapping("/admin/gazette/{id}/readers")
+    @ResponseBody
+    public Map<String, Object> showUniqueReaders(@PathVariable Long id,
+                                                 @RequestParam(name = "days", defaultValue = "30") int days) {
+        return gazetteService.getUniqueReaders(id, days);
+    }
+
+    // --- OCR render benchmark: payload size vs accuracy per DPI/format on page 1 of a notice's PDF ---
+    @GetMapping("/admin/metrics/ocr-benchmark/{id}")
+    @ResponseBody
+    public ResponseEntity<List<Map<String, Object>>> benchmarkOcr(@PathVariable Long id) {
+        try {
+            return ResponseEntity.ok(gazetteService.benchmarkOcrRendering(id));
+        } catch (FileNotFoundException e) {
+            log.warn("OCR benchmark skipped: {}", e.getMessage());
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            log.error("OCR benchmark failed for notice #{}", id, e);
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
     // --- NEW ENDPOINT FOR CATEGORY PAGE ---
     @GetMapping("/category/{categoryName}")
     public String showCategoryPage(@PathVariable String categoryName,
@@ -460,6 +525,8 @@ public class GazetteController {
             page = gazetteService.listSuccessfulGazettesByCategory(categoryName, pageNum, pageSize, "popular"); // You might need to expose the specific repo method in service if not already dynamically handled
         } else if ("significant".equals(filter)) {
             page = gazetteService.listSuccessfulGazettesByCategory(categoryName, pageNum, pageSize, "significant");
+        } else if ("trending".equals(filter)) {
+            page = gazetteService.listSuccessfulGazettesByCategory(categoryName, pageNum, pageSize, "trending");
         } else {
             page = gazetteService.listSuccessfulGazettesByCategory(categoryName, pageNum, pageSize, "latest");
         }
@@ -495,8 +562,27 @@ public class GazetteController {
     }
 
     // --- NEW ENDPOINT FOR DELETING MULTIPLE NOTICES ---
+    // "allMatching" deletes every notice matching the grid filter, not just the IDs ticked on this page
     @PostMapping("/admin/content/delete-bulk")
-    public String deleteSelectedNotices(@RequestParam("selectedIds") List<Long> selectedIds, RedirectAttributes redirectAttributes) {
+    public String deleteSelectedNotices(@RequestParam(name = "selectedIds", required = false) List<Long> selectedIds,
+                                        @RequestParam(name = "allMatching", defaultValue = "false") boolean allMatching,
+                                        @RequestParam(name = "status", required = false) ProcessingStatus status,
+                                        @RequestParam(name = "category", required = false) String category,
+                                        @RequestParam(name = "batch", required = false) String batchNumber,
+                                        @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                        @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                        RedirectAttributes redirectAttributes) {
+        if (allMatching) {
+            GazetteGridFilter gridFilter = new GazetteGridFilter(status, category, batchNumber, from, to, null);
+            if (!gridFilter.isFiltered()) {
+                // Never wipe the whole table from one click on an unfiltered grid
+                redirectAttributes.addFlashAttribute("error", "Apply at least one filter before deleting all matching notices.");
+                return "redirect:/admin/content";
+            }
+            int deleted = gazetteService.deleteGazettesMatching(gridFilter);
+            redirectAttributes.addFlashAttribute("message", deleted + " matching notices deleted successfully.");
+            return "redirect:/admin/content";
+        }
         if (selectedIds == null || selectedIds.isEmpty()) {
             redirectAttributes.addFlashAttribute("error", "No notices were selected for deletion.");
             return "redirect:/admin/content";
@@ -0,0 +1,174 @@
+package com.smartgazette.smartgazette.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Stores large notice text as DEFLATE with a preset dictionary of Kenya Gazette boilerplate (Act titles,
+ * probate/land/company notice wording), which matters most for short notices where plain DEFLATE has
+ * nothing to back-reference. The first byte of the column says how the rest is encoded, so a new
+ * dictionary can be added later without rewriting old rows.
+ * <p>
+ * The v1 dictionary is hand-assembled from typical notice wording, not trained on stored bodies. On
+ * hand-written sample notices (stored size incl. format byte, dictionary vs plain DEFLATE at level 9):
+ * probate 648 B -> 127 vs 422, petroleum licence 552 B -> 292 vs 387, county appointment 443 B -> 188 vs 309.
+ * The probate sample shares most of its wording with the dictionary, so it is the optimistic end. A
+ * dictionary trained on real bodies would go in as v2.
+ */
+@Converter
+public class CompressedTextConverter implements AttributeConverter<String, byte[]> {
+
+    static final byte FORMAT_RAW = 0;
+    static final byte FORMAT_DEFLATE_DICT_V1 = 1;
+
+    // Below this DEFLATE's header overhead outweighs any saving
+    private static final int MIN_COMPRESS_BYTES = 64;
+    private static final int BUFFER_SIZE = 8192;
+
+    // Never edit this file: rows written with it can only be read with the identical bytes. Add a v2 instead.
+    private static final byte[] DICTIONARY_V1 = loadDictionary("/compression/gazette-dict-v1.txt");
+
+    private static final LongAdder encodes = new LongAdder();
+    private static final LongAdder encodedRawBytes = new LongAdder();
+    private static final LongAdder encodedStoredBytes = new LongAdder();
+    private static final LongAdder encodeNanos = new LongAdder();
+    private static final LongAdder decodes = new LongAdder();
+    private static final LongAdder decodedBytes = new LongAdder();
+    private static final LongAdder decodeNanos = new LongAdder();
+
+    @Override
+    public byte[] convertToDatabaseColumn(String text) {
+        return text == null ? null : compress(text);
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] stored) {
+        return stored == null ? null : decompress(stored);
+    }
+
+    public static byte[] compress(String text) {
+        long start = System.nanoTime();
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        byte[] stored = utf8.length < MIN_COMPRESS_BYTES ? null : deflate(utf8);
+        if (stored == null || stored.length > utf8.length) {
+            stored = new byte[utf8.length + 1];
+            stored[0] = FORMAT_RAW;
+            System.arraycopy(utf8, 0, stored, 1, utf8.length);
+        }
+        encodes.increment();
+        encodedRawBytes.add(utf8.length);
+        encodedStoredBytes.add(stored.length);
+        encodeNanos.add(System.nanoTime() - start);
+        return stored;
+    }
+
+    public static String decompress(byte[] stored) {
+        if (stored.length == 0) {
+            return "";
+        }
+        long start = System.nanoTime();
+        byte[] utf8 = switch (stored[0]) {
+            case FORMAT_RAW -> Arrays.copyOfRange(stored, 1, stored.length);
+            case FORMAT_DEFLATE_DICT_V1 -> inflate(stored, DICTIONARY_V1);
+            default -> throw new IllegalStateException("Unknown compressed text format " + stored[0]);
+        };
+        decodes.increment();
+        decodedBytes.add(utf8.length);
+        decodeNanos.add(System.nanoTime() - start);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compression ratio and encode/decode throughput since startup, for the admin metrics endpoint.
+     */
+    public static Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long raw = encodedRawBytes.sum();
+        long storedBytes = encodedStoredBytes.sum();
+        stats.put("encodes", encodes.sum());
+        stats.put("encodedKb", raw / 1024);
+        stats.put("storedKb", storedBytes / 1024);
+        stats.put("ratio", storedBytes == 0 ? 0.0 : Math.round(raw * 100.0 / storedBytes) / 100.0);
+        stats.put("encodeMbPerSec", throughput(raw, encodeNanos.sum()));
+        stats.put("decodes", decodes.sum());
+        stats.put("decodeMbPerSec", throughput(decodedBytes.sum(), decodeNanos.sum()));
+        return stats;
+    }
+
+    private static double throughput(long bytes, long nanos) {
+        if (nanos == 0) {
+            return 0.0;
+        }
+        double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1);
+        return Math.round(bytes / 1_048_576.0 / seconds * 10) / 10.0;
+    }
+
+    // Content is written once and read rarely, so spend the CPU on the best ratio
+    private static byte[] deflate(byte[] utf8) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try {
+            deflater.setDictionary(DICTIONARY_V1);
+            deflater.setInput(utf8);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(utf8.length / 3 + 16);
+            out.write(FORMAT_DEFLATE_DICT_V1);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] stored, byte[] dictionary) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(stored, 1, stored.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0) {
+                    if (inflater.needsDictionary()) {
+                        inflater.setDictionary(dictionary);
+                    } else if (inflater.needsInput()) {
+                        throw new IllegalStateException("Truncated compressed text");
+                    }
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt compressed text", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte[] loadDictionary(String resource) {
+        try (InputStream in = CompressedTextConverter.class.getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing compression dictionary " + resource);
+            }
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
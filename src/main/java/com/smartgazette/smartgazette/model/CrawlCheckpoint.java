@@ -0,0 +1,56 @@
+package com.smartgazette.smartgazette.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDateTime;
+
+// Progress marker for the historical backfill crawler, one row per crawled listing year.
+// A completed year is not re-enumerated when an interrupted crawl is resumed.
+@Entity
+@Table(name = "crawl_checkpoint")
+public class CrawlCheckpoint {
+
+    @Id
+    @Column(name = "crawl_key", length = 64)
+    private String crawlKey;
+
+    private boolean completed;
+
+    private int issuesFound;
+
+    private int issuesEnqueued;
+
+    private int issuesProcessed;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    // No-argument constructor (required by JPA)
+    public CrawlCheckpoint() {
+    }
+
+    public CrawlCheckpoint(String crawlKey) {
+        this.crawlKey = crawlKey;
+    }
+
+    public String getCrawlKey() { return crawlKey; }
+
+    public boolean isCompleted() { return completed; }
+    public void setCompleted(boolean completed) { this.completed = completed; }
+
+    public int getIssuesFound() { return issuesFound; }
+    public void setIssuesFound(int issuesFound) { this.issuesFound = issuesFound; }
+
+    public int getIssuesEnqueued() { return issuesEnqueued; }
+    public void setIssuesEnqueued(int issuesEnqueued) { this.issuesEnqueued = issuesEnqueued; }
+
+    public int getIssuesProcessed() { return issuesProcessed; }
+    public void setIssuesProcessed(int issuesProcessed) { this.issuesProcessed = issuesProcessed; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+}
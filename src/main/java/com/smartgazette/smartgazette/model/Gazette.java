@@ -1,6 +1,8 @@
 package com.smartgazette.smartgazette.model;
 
 import jakarta.persistence.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 import java.time.LocalDate;
@@ -9,10 +11,20 @@ import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Column;
 
+// Indexes (feed, admin grid, lookups) are created by the Flyway migrations in db/migration/{vendor}
+// Second-level cached; view and thumb counters are written by EngagementCounterService outside Hibernate
 @Entity
-@Table(name = "gazette")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Gazette.CACHE_REGION)
+@Table(name = "gazette",
+        // One row per notice position in an issue; a second node ingesting the same gazette fails fast here
+        uniqueConstraints = @UniqueConstraint(name = "uk_gazette_number_date_order",
+                columnNames = {"gazette_number", "gazette_date", "source_order"}))
 public class Gazette {
 
+    // Second-level cache region, configured in application.conf
+    public static final String CACHE_REGION = "gazette";
+
     // --- Fields ---
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -23,14 +35,19 @@ public class Gazette {
     private String link;
     private String noticeNumber;
     private String signatory;
+    // Named explicitly: uk_gazette_number_date_order refers to these physical names
+    @Column(name = "source_order")
     private Integer sourceOrder;
     private String gazetteVolume;
+    @Column(name = "gazette_number")
     private String gazetteNumber;
+    @Column(name = "gazette_date")
     private LocalDate gazetteDate;
 
-
-    @Column(columnDefinition = "TEXT")
-    private String content;
+    // content, article, actionableInfo and extractedData live in GazetteBody (see the accessors below)
+    @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL, orphanRemoval = true)
+    @JoinColumn(name = "body_id", unique = true)
+    private GazetteBody body;
 
     @Column(columnDefinition = "TEXT")
     private String summary;
@@ -39,12 +56,6 @@ public class Gazette {
     @Column(length = 280)
     private String xSummary;
 
-    @Column(columnDefinition = "TEXT")
-    private String article;
-
-    @Column(columnDefinition = "TEXT")
-    private String actionableInfo;
-
     @Column(name = "published_date")
     private LocalDate publishedDate;
 
@@ -59,18 +70,38 @@ public class Gazette {
     @Enumerated(EnumType.STRING) // This tells JPA to store the status as a readable string ("SUCCESS", "FAILED")
     private ProcessingStatus status;
 
+    // --- (STAGE CHECKPOINTS) ---
+    // Raw text lives in 'content', the triage result in 'category' and the extraction in 'extractedData'
+    @Enumerated(EnumType.STRING)
+    @Column(name = "processing_stage")
+    private ProcessingStage processingStage;
+
     @Column(name = "original_pdf_path")
     private String originalPdfPath;
 
+    // Source PDF this notice came from (null for manual entries); holds the per-issue counts and timings
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "batch_id")
+    private GazetteBatch batch;
+
+    // SHA-256 of the source PDF; used to skip re-ingesting identical files
+    @Column(name = "pdf_sha256", length = 64)
+    private String pdfSha256;
+
+    // 64-bit SimHash of the raw notice text; feeds the near-duplicate index
+    @Column(name = "content_simhash")
+    private Long contentSimhash;
+
     // --- (METRIC COLLECTION) ---
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    // Not updatable: only EngagementCounterService's UPDATE ... SET x = x + ? writes these, so saving an
+    // edited or retried notice never overwrites counts (and a view never invalidates the cache)
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private int thumbsUp = 0;
 
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private int thumbsDown = 0;
 
-
-    @Column(nullable = false, columnDefinition = "integer default 0")
+    @Column(nullable = false, updatable = false, columnDefinition = "integer default 0")
     private int viewCount = 0;
 
     @Column(nullable = false, columnDefinition = "integer default 0")
@@ -88,11 +119,11 @@ public class Gazette {
         this.link = link;
         this.noticeNumber = noticeNumber;
         this.signatory = signatory;
-        this.content = content;
         this.summary = summary;
         this.xSummary = xSummary;
-        this.article = article;
-        this.actionableInfo = actionableInfo;
+        setContent(content);
+        setArticle(article);
+        setActionableInfo(actionableInfo);
         this.publishedDate = publishedDate;
     }
 
@@ -149,12 +180,15 @@ public class Gazette {
         this.signatory = signatory;
     }
 
+    // --- Body fields: reading one loads the body row; writing creates it on first use ---
     public String getContent() {
-        return content;
+        return body == null ? null : body.getContent();
     }
 
     public void setContent(String content) {
-        this.content = content;
+        if (content != null || body != null) {
+            body().setContent(content);
+        }
     }
 
     public String getSummary() {
@@ -175,19 +209,23 @@ public class Gazette {
     }
 
     public String getArticle() {
-        return article;
+        return body == null ? null : body.getArticle();
     }
 
     public void setArticle(String article) {
-        this.article = article;
+        if (article != null || body != null) {
+            body().setArticle(article);
+        }
     }
 
     public String getActionableInfo() {
-        return actionableInfo;
+        return body == null ? null : body.getActionableInfo();
     }
 
     public void setActionableInfo(String actionableInfo) {
-        this.actionableInfo = actionableInfo;
+        if (actionableInfo != null || body != null) {
+            body().setActionableInfo(actionableInfo);
+        }
     }
 
     public LocalDate getPublishedDate() {
@@ -278,6 +316,41 @@ public class Gazette {
         this.originalPdfPath = originalPdfPath;
     }
 
+    public ProcessingStage getProcessingStage() { return processingStage; }
+
+    public void setProcessingStage(ProcessingStage processingStage) { this.processingStage = processingStage; }
+
+    public String getExtractedData() { return body == null ? null : body.getExtractedData(); }
+
+    public void setExtractedData(String extractedData) {
+        if (extractedData != null || body != null) {
+            body().setExtractedData(extractedData);
+        }
+    }
+
+    public GazetteBody getBody() { return body; }
+
+    public void setBody(GazetteBody body) { this.body = body; }
+
+    private GazetteBody body() {
+        if (body == null) {
+            body = new GazetteBody();
+        }
+        return body;
+    }
+
+    public GazetteBatch getBatch() { return batch; }
+
+    public void setBatch(GazetteBatch batch) { this.batch = batch; }
+
+    public String getPdfSha256() { return pdfSha256; }
+
+    public void setPdfSha256(String pdfSha256) { this.pdfSha256 = pdfSha256; }
+
+    public Long getContentSimhash() { return contentSimhash; }
+
+    public void setContentSimhash(Long contentSimhash) { this.contentSimhash = contentSimhash; }
+
     public int getViewCount() { return viewCount; }
 
     public void setViewCount(int viewCount) { this.viewCount = viewCount; }
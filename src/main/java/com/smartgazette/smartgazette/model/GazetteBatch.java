@@ -0,0 +1,110 @@
+package com.smartgazette.smartgazette.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// One row per ingested gazette PDF. Notice and failure counts are kept up to date with single-row
+// UPDATEs as notices are saved, retried and deleted, so /admin/batch never aggregates the notices.
+@Entity
+@Table(name = "gazette_batch",
+        uniqueConstraints = @UniqueConstraint(name = "uk_gazette_batch_path", columnNames = "original_pdf_path"))
+public class GazetteBatch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "original_pdf_path", nullable = false)
+    private String originalPdfPath;
+
+    @Column(name = "pdf_sha256", length = 64)
+    private String pdfSha256;
+
+    // --- Header details (from the first page) ---
+    private String gazetteVolume;
+    private String gazetteNumber;
+    private LocalDate gazetteDate;
+
+    private Integer pageCount;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int noticeCount = 0;
+
+    @Column(nullable = false, columnDefinition = "integer default 0")
+    private int failedCount = 0;
+
+    // --- Processing timings of the latest run ---
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    @Column(name = "ocr_millis")
+    private Long ocrMillis;
+
+    @Column(name = "processing_millis")
+    private Long processingMillis;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    // No-argument constructor (required by JPA)
+    public GazetteBatch() {
+    }
+
+    public GazetteBatch(String originalPdfPath, String pdfSha256) {
+        this.originalPdfPath = originalPdfPath;
+        this.pdfSha256 = pdfSha256;
+    }
+
+    public Long getId() { return id; }
+
+    public String getOriginalPdfPath() { return originalPdfPath; }
+    public void setOriginalPdfPath(String originalPdfPath) { this.originalPdfPath = originalPdfPath; }
+
+    public String getPdfSha256() { return pdfSha256; }
+    public void setPdfSha256(String pdfSha256) { this.pdfSha256 = pdfSha256; }
+
+    public String getGazetteVolume() { return gazetteVolume; }
+    public void setGazetteVolume(String gazetteVolume) { this.gazetteVolume = gazetteVolume; }
+
+    public String getGazetteNumber() { return gazetteNumber; }
+    public void setGazetteNumber(String gazetteNumber) { this.gazetteNumber = gazetteNumber; }
+
+    public LocalDate getGazetteDate() { return gazetteDate; }
+    public void setGazetteDate(LocalDate gazetteDate) { this.gazetteDate = gazetteDate; }
+
+    public Integer getPageCount() { return pageCount; }
+    public void setPageCount(Integer pageCount) { this.pageCount = pageCount; }
+
+    public int getNoticeCount() { return noticeCount; }
+    public void setNoticeCount(int noticeCount) { this.noticeCount = noticeCount; }
+
+    public int getFailedCount() { return failedCount; }
+    public void setFailedCount(int failedCount) { this.failedCount = failedCount; }
+
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+    public LocalDateTime getFinishedAt() { return finishedAt; }
+    public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+    public Long getOcrMillis() { return ocrMillis; }
+    public void setOcrMillis(Long ocrMillis) { this.ocrMillis = ocrMillis; }
+
+    public Long getProcessingMillis() { return processingMillis; }
+    public void setProcessingMillis(Long processingMillis) { this.processingMillis = processingMillis; }
+
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
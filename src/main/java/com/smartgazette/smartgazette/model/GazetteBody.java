@@ -0,0 +1,71 @@
+package com.smartgazette.smartgazette.model;
+
+import jakarta.persistence.Cacheable;
+import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
+// The large TEXT fields of a notice, split out of 'gazette' so listings, counters and admin queries
+// read narrow rows. Loaded lazily through Gazette's accessors; only the detail page, edit form,
+// retries and exports touch it.
+@Entity
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = GazetteBody.CACHE_REGION)
+@Table(name = "gazette_body")
+public class GazetteBody {
+
+    // Second-level cache region, configured in application.conf
+    public static final String CACHE_REGION = "gazette-body";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Raw OCR/stripper text of the notice: the largest field and read only on retry, edit and export,
+    // so it is stored DEFLATE-compressed (bytea) and inflated when the body is loaded
+    @Convert(converter = CompressedTextConverter.class)
+    @Column(name = "content_compressed", length = 16_777_216)
+    private String content;
+
+    // Plain content moved here by Flyway V1_1 and not yet compressed by GazetteBodyMigration, which runs
+    // after startup: read in its place until then, and cleared whenever the content is written
+    @Column(name = "content", columnDefinition = "TEXT")
+    private String plainContent;
+
+    @Column(columnDefinition = "TEXT")
+    private String article;
+
+    @Column(columnDefinition = "TEXT")
+    private String actionableInfo;
+
+    // Extraction checkpoint (JSON) used by retries
+    @Column(columnDefinition = "TEXT")
+    private String extractedData;
+
+    // No-argument constructor (required by JPA)
+    public GazetteBody() {
+    }
+
+    public Long getId() { return id; }
+
+    public String getContent() { return content != null ? content : plainContent; }
+    public void setContent(String content) {
+        this.content = content;
+        this.plainContent = null;
+    }
+
+    public String getArticle() { return article; }
+    public void setArticle(String article) { this.article = article; }
+
+    public String getActionableInfo() { return actionableInfo; }
+    public void setActionableInfo(String actionableInfo) { this.actionableInfo = actionableInfo; }
+
+    public String getExtractedData() { return extractedData; }
+    public void setExtractedData(String extractedData) { this.extractedData = extractedData; }
+}
@@ -0,0 +1,41 @@
+package com.smartgazette.smartgazette.model;
+
+/**
+ * Keyset position in the admin grid: the sort column value and ID of the last row shown. The next
+ * page starts strictly after it, so deep pages cost the same as the first (no OFFSET scan).
+ * @param value sort column value as text; null for "latest" and for rows with no gazette date
+ */
+public record GazetteGridCursor(String value, long id) {
+
+    private static final char SEPARATOR = '_';
+
+    public static GazetteGridCursor after(String sort, GazetteGridRow row) {
+        String value = switch (sort) {
+            case "popular" -> String.valueOf(row.viewCount());
+            case "significant" -> String.valueOf(row.significanceRating());
+            case "oldest" -> row.gazetteDate() == null ? null : row.gazetteDate().toString();
+            default -> null;
+        };
+        return new GazetteGridCursor(value, row.id());
+    }
+
+    /**
+     * @return the cursor from its URL token, or null (first page) if the token is missing or malformed.
+     */
+    public static GazetteGridCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        int split = token.lastIndexOf(SEPARATOR);
+        try {
+            String value = split <= 0 ? null : token.substring(0, split);
+            return new GazetteGridCursor(value, Long.parseLong(token.substring(split + 1)));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    public String encode() {
+        return value == null ? String.valueOf(id) : value + SEPARATOR + id;
+    }
+}
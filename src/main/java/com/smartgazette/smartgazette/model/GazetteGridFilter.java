@@ -0,0 +1,37 @@
+package com.smartgazette.smartgazette.model;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Filters and sort order of the admin content grid. Null filters match everything.
+ * @param batch gazette number of one issue (the batch drill-down)
+ */
+public record GazetteGridFilter(ProcessingStatus status,
+                                String category,
+                                String batch,
+                                LocalDate dateFrom,
+                                LocalDate dateTo,
+                                String sort) {
+
+    // latest = ID DESC, popular = views, significant = AI rating, oldest = official gazette date
+    public static final List<String> SORTS = List.of("latest", "popular", "significant", "oldest");
+
+    public GazetteGridFilter {
+        category = blankToNull(category);
+        batch = blankToNull(batch);
+        sort = SORTS.contains(sort) ? sort : "latest";
+    }
+
+    public static GazetteGridFilter latest() {
+        return new GazetteGridFilter(null, null, null, null, null, "latest");
+    }
+
+    public boolean isFiltered() {
+        return status != null || category != null || batch != null || dateFrom != null || dateTo != null;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -0,0 +1,11 @@
+package com.smartgazette.smartgazette.model;
+
+import java.util.List;
+
+/**
+ * One page of the admin content grid.
+ * @param nextCursor token for the following page, or null on the last page
+ * @param totalMatching rows matching the filter across all pages (what "select all" acts on)
+ */
+public record GazetteGridPage(List<GazetteGridRow> rows, String nextCursor, long totalMatching) {
+}
@@ -0,0 +1,17 @@
+package com.smartgazette.smartgazette.model;
+
+import java.time.LocalDate;
+
+/**
+ * One row of the admin content grid: only the narrow columns the table shows, never the TEXT bodies.
+ */
+public record GazetteGridRow(Long id,
+                             String title,
+                             String noticeNumber,
+                             String category,
+                             ProcessingStatus status,
+                             int significanceRating,
+                             int viewCount,
+                             LocalDate gazetteDate,
+                             String gazetteNumber) {
+}
@@ -0,0 +1,38 @@
+package com.smartgazette.smartgazette.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.LocalDateTime;
+
+// A DB-backed lease so that only one app instance runs a given job (scrape, gazette ingestion) at a time.
+// Rows are only ever created with a plain INSERT and taken over with a conditional UPDATE,
+// so the primary key on lease_key is what arbitrates between nodes.
+@Entity
+@Table(name = "processing_lease")
+public class ProcessingLease {
+
+    @Id
+    @Column(name = "lease_key", length = 191)
+    private String leaseKey;
+
+    @Column(nullable = false)
+    private String owner;
+
+    @Column(name = "acquired_at", nullable = false)
+    private LocalDateTime acquiredAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    // No-argument constructor (required by JPA)
+    public ProcessingLease() {
+    }
+
+    public String getLeaseKey() { return leaseKey; }
+    public String getOwner() { return owner; }
+    public LocalDateTime getAcquiredAt() { return acquiredAt; }
+    public LocalDateTime getExpiresAt() { return expiresAt; }
+}
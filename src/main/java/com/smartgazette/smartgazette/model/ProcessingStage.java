@@ -0,0 +1,9 @@
+package com.smartgazette.smartgazette.model;
+
+// The last pipeline stage a notice completed. Retries resume from the stage after this one.
+public enum ProcessingStage {
+    TEXT_EXTRACTED, // Raw notice text is saved in 'content'
+    TRIAGED,        // 'category' holds the triage result
+    EXTRACTED,      // 'extractedData' holds the schema-extracted JSON
+    GENERATED       // title/summary/article/xSummary/actionableInfo are filled in
+}
@@ -0,0 +1,9 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.CrawlCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CrawlCheckpointRepository extends JpaRepository<CrawlCheckpoint, String> {
+}
@@ -0,0 +1,38 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.GazetteBatch;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface GazetteBatchRepository extends JpaRepository<GazetteBatch, Long> {
+
+    // /admin/batch listing: reads one row per batch
+    @Query("SELECT b FROM GazetteBatch b ORDER BY b.gazetteDate DESC NULLS LAST, b.gazetteNumber DESC, b.id DESC")
+    List<GazetteBatch> findAllForListing();
+
+    Optional<GazetteBatch> findByOriginalPdfPath(String originalPdfPath);
+
+    // --- Incremental counters: one-row UPDATEs, safe under concurrent retries ---
+    @Transactional
+    @Modifying
+    @Query("UPDATE GazetteBatch b SET b.noticeCount = b.noticeCount + ?2, b.failedCount = b.failedCount + ?3 WHERE b.id = ?1")
+    int addCounts(Long batchId, int noticeDelta, int failedDelta);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE GazetteBatch b SET b.finishedAt = ?2, b.processingMillis = ?3 WHERE b.id = ?1")
+    int markFinished(Long batchId, LocalDateTime finishedAt, long processingMillis);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM GazetteBatch b WHERE b.originalPdfPath = ?1")
+    int deleteByOriginalPdfPath(String originalPdfPath);
+}
@@ -0,0 +1,20 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.GazetteBody;
+import jakarta.transaction.Transactional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+
+@Repository
+public interface GazetteBodyRepository extends JpaRepository<GazetteBody, Long> {
+
+    // Set-based deletes skip JPA cascades, so bodies of deleted notices are removed explicitly
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM GazetteBody b WHERE b.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
+}
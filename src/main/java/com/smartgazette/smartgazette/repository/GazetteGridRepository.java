@@ -0,0 +1,24 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.GazetteGridCursor;
+import com.smartgazette.smartgazette.model.GazetteGridFilter;
+import com.smartgazette.smartgazette.model.GazetteGridRow;
+
+import java.util.List;
+
+/**
+ * Admin content grid queries. The filter combination is dynamic, so these are built in
+ * {@link GazetteGridRepositoryImpl} rather than as one @Query per combination.
+ */
+public interface GazetteGridRepository {
+
+    /**
+     * @param after keyset position of the previous page's last row; null for the first page
+     */
+    List<GazetteGridRow> findGridPage(GazetteGridFilter filter, GazetteGridCursor after, int limit);
+
+    long countGrid(GazetteGridFilter filter);
+
+    // IDs only, for acting on every row that matches a filter ("select all" across pages)
+    List<Long> findGridIds(GazetteGridFilter filter);
+}
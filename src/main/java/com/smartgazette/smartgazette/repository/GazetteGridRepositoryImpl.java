@@ -0,0 +1,121 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.GazetteGridCursor;
+import com.smartgazette.smartgazette.model.GazetteGridFilter;
+import com.smartgazette.smartgazette.model.GazetteGridRow;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * JPQL for the admin grid. Every sort ends in the ID so the order is total, and each has a matching
+ * index on {@code gazette} (db/migration/{vendor}/V2__feed_indexes.sql) that serves both the ORDER BY
+ * and the keyset predicate; GazetteQueryPlanTests checks that they are used.
+ */
+class GazetteGridRepositoryImpl implements GazetteGridRepository {
+
+    private static final String ROW_SELECT = "SELECT new com.smartgazette.smartgazette.model.GazetteGridRow("
+            + "g.id, g.title, g.noticeNumber, g.category, g.status, g.significanceRating, g.viewCount, "
+            + "g.gazetteDate, g.gazetteNumber) FROM Gazette g WHERE 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<GazetteGridRow> findGridPage(GazetteGridFilter filter, GazetteGridCursor after, int limit) {
+        StringBuilder jpql = new StringBuilder(ROW_SELECT);
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, filter);
+        if (after != null) {
+            appendKeyset(jpql, params, filter.sort(), after);
+        }
+        jpql.append(" ORDER BY ").append(orderBy(filter.sort()));
+
+        TypedQuery<GazetteGridRow> query = entityManager.createQuery(jpql.toString(), GazetteGridRow.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    public long countGrid(GazetteGridFilter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT COUNT(g) FROM Gazette g WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, filter);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getSingleResult();
+    }
+
+    @Override
+    public List<Long> findGridIds(GazetteGridFilter filter) {
+        StringBuilder jpql = new StringBuilder("SELECT g.id FROM Gazette g WHERE 1 = 1");
+        Map<String, Object> params = new HashMap<>();
+        appendFilters(jpql, params, filter);
+
+        TypedQuery<Long> query = entityManager.createQuery(jpql.toString(), Long.class);
+        params.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    private static void appendFilters(StringBuilder jpql, Map<String, Object> params, GazetteGridFilter filter) {
+        if (filter.status() != null) {
+            jpql.append(" AND g.status = :status");
+            params.put("status", filter.status());
+        }
+        if (filter.category() != null) {
+            jpql.append(" AND g.category = :category");
+            params.put("category", filter.category());
+        }
+        if (filter.batch() != null) {
+            jpql.append(" AND g.gazetteNumber = :batch");
+            params.put("batch", filter.batch());
+        }
+        if (filter.dateFrom() != null) {
+            jpql.append(" AND g.gazetteDate >= :dateFrom");
+            params.put("dateFrom", filter.dateFrom());
+        }
+        if (filter.dateTo() != null) {
+            jpql.append(" AND g.gazetteDate <= :dateTo");
+            params.put("dateTo", filter.dateTo());
+        }
+    }
+
+    // Rows strictly after the cursor in the sort's order
+    private static void appendKeyset(StringBuilder jpql, Map<String, Object> params, String sort, GazetteGridCursor after) {
+        params.put("afterId", after.id());
+        switch (sort) {
+            case "popular", "significant" -> {
+                String column = "popular".equals(sort) ? "g.viewCount" : "g.significanceRating";
+                jpql.append(" AND (").append(column).append(" < :afterValue OR (")
+                        .append(column).append(" = :afterValue AND g.id < :afterId))");
+                params.put("afterValue", after.value() == null ? 0 : Integer.parseInt(after.value()));
+            }
+            case "oldest" -> {
+                // Dated rows newest first, then undated rows (NULLS LAST); within a date, document order
+                if (after.value() == null) {
+                    jpql.append(" AND g.gazetteDate IS NULL AND g.id > :afterId");
+                } else {
+                    jpql.append(" AND (g.gazetteDate < :afterDate OR g.gazetteDate IS NULL"
+                            + " OR (g.gazetteDate = :afterDate AND g.id > :afterId))");
+                    params.put("afterDate", LocalDate.parse(after.value()));
+                }
+            }
+            default -> jpql.append(" AND g.id < :afterId");
+        }
+    }
+
+    private static String orderBy(String sort) {
+        return switch (sort) {
+            case "popular" -> "g.viewCount DESC, g.id DESC";
+            case "significant" -> "g.significanceRating DESC, g.id DESC";
+            case "oldest" -> "g.gazetteDate DESC NULLS LAST, g.id ASC";
+            default -> "g.id DESC";
+        };
+    }
+}
@@ -2,86 +2,156 @@ package com.smartgazette.smartgazette.repository;
 
 import com.smartgazette.smartgazette.model.Gazette;
 import com.smartgazette.smartgazette.model.ProcessingStatus;
-import com.smartgazette.smartgazette.model.GazetteBatchDTO; // <-- NEW
+import com.smartgazette.smartgazette.model.GazetteBatch;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.QueryHint;
 import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
 
 import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 
 @Repository
-public interface GazetteRepository extends JpaRepository<Gazette, Long> {
+public interface GazetteRepository extends JpaRepository<Gazette, Long>, GazetteGridRepository {
 
-    // Used by the Admin Content page when not paginated
+    // Dashboard totals (the admin content page pages through GazetteGridRepository instead)
     @Query("SELECT g FROM Gazette g ORDER BY g.gazetteDate DESC, g.sourceOrder ASC, g.id ASC")
     List<Gazette> findAllWithCorrectSorting();
 
+    // --- Queries whose callers read the TEXT fields: the body comes in the same SELECT (no N+1) ---
+    @EntityGraph(attributePaths = "body")
+    @Query("SELECT g FROM Gazette g ORDER BY g.gazetteDate DESC, g.sourceOrder ASC, g.id ASC")
+    List<Gazette> findAllWithBodyForExport();
+
+    @EntityGraph(attributePaths = "body")
+    @Query("SELECT g FROM Gazette g WHERE g.id = ?1")
+    Optional<Gazette> findWithBodyById(Long id);
+
+    @EntityGraph(attributePaths = "body")
     @Query("SELECT g FROM Gazette g WHERE g.status = 'FAILED' ORDER BY g.gazetteDate DESC, g.sourceOrder ASC, g.id ASC")
     List<Gazette> findAllFailedWithCorrectSorting();
 
     // --- PAGINATION METHODS ---
+    // Public feed pages go through the query cache (ids per page, count included); any write to the
+    // gazette table through Hibernate invalidates them. Counter updates bypass Hibernate (EngagementCounterService).
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.status = 'SUCCESS' ORDER BY g.gazetteDate DESC, g.sourceOrder ASC, g.id ASC")
     Page<Gazette> findAllSuccessfulWithCorrectSorting(Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.category = ?1 AND g.status = 'SUCCESS' ORDER BY g.gazetteDate DESC, g.sourceOrder ASC, g.id ASC")
     Page<Gazette> findAllSuccessfulByCategory(String category, Pageable pageable);
 
     // Filter: Most Popular (Ordered by Views)
-    @Query("SELECT g FROM Gazette g WHERE g.status = 'SUCCESS' ORDER BY g.viewCount DESC, g.gazetteDate DESC")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query("SELECT g FROM Gazette g WHERE g.status = 'SUCCESS' ORDER BY g.viewCount DESC, g.gazetteDate DESC, g.id DESC")
     Page<Gazette> findAllSuccessfulOrderByPopularity(Pageable pageable);
 
     // --- UPDATED: Most Significant (Significance DESC, then Latest ID DESC) ---
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.status = 'SUCCESS' ORDER BY g.significanceRating DESC, g.id DESC")
     Page<Gazette> findAllSuccessfulOrderBySignificance(Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.status = 'SUCCESS' ORDER BY g.id DESC")
     Page<Gazette> findAllSuccessfulOrderByRecentlyProcessed(Pageable pageable);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.category = ?1 AND g.status = 'SUCCESS' ORDER BY g.id DESC")
     Page<Gazette> findAllSuccessfulByCategoryOrderByRecentlyProcessed(String category, Pageable pageable);
 
     // --- Category Specific Filters ---
 
     // Updated: Category + Popular
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.category = ?1 AND g.status = 'SUCCESS' ORDER BY g.viewCount DESC, g.id DESC")
     Page<Gazette> findAllSuccessfulByCategoryOrderByPopularity(String category, Pageable pageable);
 
     // Updated: Category + Significant (Significance DESC, then Latest ID DESC)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT g FROM Gazette g WHERE g.category = ?1 AND g.status = 'SUCCESS' ORDER BY g.significanceRating DESC, g.id DESC")
     Page<Gazette> findAllSuccessfulByCategoryOrderBySignificance(String category, Pageable pageable);
 
 
-    // Admin Filters
-    @Query("SELECT g FROM Gazette g ORDER BY g.viewCount DESC")
-    List<Gazette> findAllOrderByPopularity();
+    // --- Hot feed upkeep (HotFeedService) ---
+    @Query("SELECT g.category, COUNT(g) FROM Gazette g WHERE g.status = 'SUCCESS' GROUP BY g.category")
+    List<Object[]> countSuccessfulByCategory();
 
-    @Query("SELECT g FROM Gazette g ORDER BY g.significanceRating DESC")
-    List<Gazette> findAllOrderBySignificance();
+    // Changes by any node (insert, edit or retry, delete) move at least one of these
+    @Query("SELECT MAX(g.id), MAX(g.lastUpdatedAt), COUNT(g) FROM Gazette g")
+    List<Object[]> findChangeMarker();
 
-    @Query("SELECT g FROM Gazette g ORDER BY g.id DESC")
-    List<Gazette> findAllOrderByRecentlyProcessed();
+    // Popularity keys of notices whose view counts were just flushed
+    @Query("SELECT g.id, g.category, g.viewCount, g.gazetteDate FROM Gazette g WHERE g.id IN ?1 AND g.status = 'SUCCESS'")
+    List<Object[]> findPopularityKeys(Collection<Long> ids);
+
+    // Admin grid category filter options
+    @Query("SELECT DISTINCT g.category FROM Gazette g WHERE g.category IS NOT NULL ORDER BY g.category")
+    List<String> findDistinctCategories();
 
-    List<Gazette> findAllByGazetteNumber(String gazetteNumber);
     Optional<Gazette> findFirstByGazetteNumberAndGazetteDate(String gazetteNumber, LocalDate gazetteDate);
 
-    @Query("SELECT new com.smartgazette.smartgazette.model.GazetteBatchDTO(" +
-            "g.originalPdfPath, g.gazetteDate, g.gazetteNumber, COUNT(g), " +
-            "SUM(CASE WHEN g.status = 'FAILED' THEN 1 ELSE 0 END)) " +
-            "FROM Gazette g WHERE g.originalPdfPath IS NOT NULL " +
-            "GROUP BY g.originalPdfPath, g.gazetteDate, g.gazetteNumber " +
-            "ORDER BY g.gazetteDate DESC, g.gazetteNumber DESC")
-    List<GazetteBatchDTO> findGazetteBatches();
+    // Backfill diff: every issue we already hold in a date range, in ONE query instead of one per link
+    @Query("SELECT DISTINCT g.gazetteNumber, g.gazetteDate FROM Gazette g WHERE g.gazetteDate BETWEEN ?1 AND ?2")
+    List<Object[]> findKnownGazetteIssues(LocalDate from, LocalDate to);
+
+    boolean existsByPdfSha256(String pdfSha256);
+
+    // --- GazetteBatch bookkeeping ---
+    // One-off backfill: notices ingested before gazette_batch existed, grouped by source PDF
+    @Query("SELECT g.originalPdfPath, MIN(g.pdfSha256), MIN(g.gazetteVolume), MIN(g.gazetteNumber), MIN(g.gazetteDate), " +
+            "COUNT(g), SUM(CASE WHEN g.status = 'FAILED' THEN 1 ELSE 0 END), MIN(g.systemPublishedAt), MAX(g.systemPublishedAt) " +
+            "FROM Gazette g WHERE g.batch IS NULL AND g.originalPdfPath IS NOT NULL GROUP BY g.originalPdfPath")
+    List<Object[]> findUnbatchedNoticeGroups();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE Gazette g SET g.batch = ?2 WHERE g.originalPdfPath = ?1 AND g.batch IS NULL")
+    int attachToBatch(String originalPdfPath, GazetteBatch batch);
+
+    // Per-batch notice and failure counts of a set of notices (decremented before they are deleted)
+    @Query("SELECT g.batch.id, COUNT(g), SUM(CASE WHEN g.status = 'FAILED' THEN 1 ELSE 0 END) " +
+            "FROM Gazette g WHERE g.id IN ?1 AND g.batch IS NOT NULL GROUP BY g.batch.id")
+    List<Object[]> countByBatchForIds(Collection<Long> ids);
+
+    // Near-duplicate index rebuild: only the columns the index keeps (id, simhash, category)
+    @Query("SELECT g.id, g.contentSimhash, g.category FROM Gazette g WHERE g.status = 'SUCCESS' AND g.contentSimhash IS NOT NULL")
+    List<Object[]> findSimilarityEntries();
+
     // --- NEW METHOD FOR BATCH EXPORT ---
+    @EntityGraph(attributePaths = "body")
     List<Gazette> findAllByOriginalPdfPath(String originalPdfPath);
 
+    // --- Set-based deletes (one statement, no entity loading; see GazetteDeletionService) ---
+    @Query("SELECT g.id FROM Gazette g WHERE g.originalPdfPath = ?1")
+    List<Long> findIdsByOriginalPdfPath(String originalPdfPath);
+
+    @Query("SELECT g.body.id FROM Gazette g WHERE g.originalPdfPath = ?1 AND g.body IS NOT NULL")
+    List<Long> findBodyIdsByOriginalPdfPath(String originalPdfPath);
+
+    @Query("SELECT g.body.id FROM Gazette g WHERE g.id IN ?1 AND g.body IS NOT NULL")
+    List<Long> findBodyIdsByIdIn(Collection<Long> ids);
+
+    @Query("SELECT DISTINCT g.pdfSha256 FROM Gazette g WHERE g.originalPdfPath = ?1 AND g.pdfSha256 IS NOT NULL")
+    List<String> findPdfSha256ByOriginalPdfPath(String originalPdfPath);
+
     @Transactional
-    @Modifying
-    void deleteAllByOriginalPdfPath(String originalPdfPath);
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Gazette g WHERE g.originalPdfPath = ?1")
+    int deleteAllByOriginalPdfPath(String originalPdfPath);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("DELETE FROM Gazette g WHERE g.id IN ?1")
+    int deleteAllByIdIn(Collection<Long> ids);
 }
\ No newline at end of file
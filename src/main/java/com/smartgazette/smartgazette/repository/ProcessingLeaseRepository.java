@@ -0,0 +1,41 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.ProcessingLease;
+import jakarta.persistence.QueryHint;
+import jakarta.transaction.Transactional;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface ProcessingLeaseRepository extends JpaRepository<ProcessingLease, String> {
+
+    // Plain INSERT (never a merge) so a concurrent insert from another node fails on the primary key.
+    // The native-spaces hint keeps Hibernate from flushing every cache region for an untyped native write.
+    @Transactional
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "processing_lease"))
+    @Query(value = "INSERT INTO processing_lease (lease_key, owner, acquired_at, expires_at) " +
+            "VALUES (:leaseKey, :owner, :now, :expiresAt)", nativeQuery = true)
+    int insertLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+                    @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Takes over an expired lease, or renews one we already hold. Returns 1 only for the winner.
+    @Transactional
+    @Modifying
+    @Query("UPDATE ProcessingLease l SET l.owner = :owner, l.acquiredAt = :now, l.expiresAt = :expiresAt " +
+            "WHERE l.leaseKey = :leaseKey AND (l.expiresAt < :now OR l.owner = :owner)")
+    int takeOverLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner,
+                      @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM ProcessingLease l WHERE l.leaseKey = :leaseKey AND l.owner = :owner")
+    int releaseLease(@Param("leaseKey") String leaseKey, @Param("owner") String owner);
+}
@@ -0,0 +1,67 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.GazetteBody;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Hit/miss counts of the Hibernate second-level and query cache regions (since startup), for the
+ * admin dashboard. Requires hibernate.generate_statistics.
+ */
+@Service
+public class CacheStatisticsService {
+
+    private static final String QUERY_REGION = "default-query-results-region";
+
+    private final SessionFactory sessionFactory;
+
+    public CacheStatisticsService(EntityManagerFactory entityManagerFactory) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+    }
+
+    /**
+     * @return region label to {hits, misses, puts, hitRatio (0..1)}
+     */
+    public Map<String, Map<String, Object>> getRegionStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+        Map<String, Map<String, Object>> regions = new LinkedHashMap<>();
+        regions.put("Notices", snapshot(entityRegion(statistics, Gazette.CACHE_REGION)));
+        regions.put("Notice bodies", snapshot(entityRegion(statistics, GazetteBody.CACHE_REGION)));
+        regions.put("Feed queries", snapshot(statistics.getQueryRegionStatistics(QUERY_REGION)));
+        return regions;
+    }
+
+    // Hibernate throws for a region that was never built (cache disabled in config)
+    private static CacheRegionStatistics entityRegion(Statistics statistics, String regionName) {
+        try {
+            return statistics.getDomainDataRegionStatistics(regionName);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Drops every cached entity and query result (after writes that bypass Hibernate, e.g. JDBC migrations).
+     */
+    public void evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+    }
+
+    private static Map<String, Object> snapshot(CacheRegionStatistics region) {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        long hits = region == null ? 0 : region.getHitCount();
+        long misses = region == null ? 0 : region.getMissCount();
+        stats.put("hits", hits);
+        stats.put("misses", misses);
+        stats.put("puts", region == null ? 0 : region.getPutCount());
+        stats.put("hitRatio", hits + misses == 0 ? 0.0 : (double) hits / (hits + misses));
+        return stats;
+    }
+}
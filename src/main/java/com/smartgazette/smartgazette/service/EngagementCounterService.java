@@ -0,0 +1,139 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Buffers view and thumb counts in memory and adds them to the gazette rows in one batched
+ * {@code UPDATE ... SET view_count = view_count + ?} per flush. The UPDATE goes through JDBC, not
+ * Hibernate, so a page view never invalidates the cached feed queries; only the flushed rows are
+ * evicted from the entity cache. Counts not yet flushed are lost if the JVM dies (at most one interval).
+ */
+@Service
+public class EngagementCounterService {
+
+    private static final Logger log = LoggerFactory.getLogger(EngagementCounterService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PipelineMetrics pipelineMetrics;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // Increments and the post-flush prune both go through compute on the entry, so an increment can
+    // never land on an entry that has just been removed
+    private final Map<Long, Pending> pending = new ConcurrentHashMap<>();
+
+    private static final class Pending {
+        final AtomicLong views = new AtomicLong();
+        final AtomicLong thumbsUp = new AtomicLong();
+        final AtomicLong thumbsDown = new AtomicLong();
+
+        boolean isZero() {
+            return views.get() == 0 && thumbsUp.get() == 0 && thumbsDown.get() == 0;
+        }
+    }
+
+    public EngagementCounterService(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                    PipelineMetrics pipelineMetrics, ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pipelineMetrics = pipelineMetrics;
+        this.eventPublisher = eventPublisher;
+    }
+
+    public void recordView(Long id) {
+        add(id, 1, 0, 0);
+    }
+
+    public void recordViews(Long id, long views) {
+        if (views > 0) {
+            add(id, views, 0, 0);
+        }
+    }
+
+    public void recordThumbUp(Long id) {
+        add(id, 0, 1, 0);
+    }
+
+    public void recordThumbDown(Long id) {
+        add(id, 0, 0, 1);
+    }
+
+    private void add(Long id, long views, long up, long down) {
+        pending.compute(id, (k, counts) -> {
+            Pending p = counts == null ? new Pending() : counts;
+            p.views.addAndGet(views);
+            p.thumbsUp.addAndGet(up);
+            p.thumbsDown.addAndGet(down);
+            return p;
+        });
+    }
+
+    int pendingNotices() {
+        return pending.size();
+    }
+
+    @Scheduled(fixedDelayString = "${gazette.engagement.flush-ms:30000}")
+    public void flush() {
+        flushPending(true);
+    }
+
+    // Listeners (hot feeds) are not told on shutdown; they are going away too
+    @PreDestroy
+    public void flushOnShutdown() {
+        flushPending(false);
+    }
+
+    private void flushPending(boolean notify) {
+        List<Object[]> updates = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        pending.forEach((id, counts) -> {
+            long views = counts.views.getAndSet(0);
+            long up = counts.thumbsUp.getAndSet(0);
+            long down = counts.thumbsDown.getAndSet(0);
+            if (views + up + down > 0) {
+                updates.add(new Object[] {views, up, down, id});
+                ids.add(id);
+            }
+            // Drop drained entries unless an increment arrived since; one-off notices would pile up otherwise
+            pending.computeIfPresent(id, (k, p) -> p.isZero() ? null : p);
+        });
+        if (updates.isEmpty()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            jdbcTemplate.batchUpdate("UPDATE gazette SET view_count = view_count + ?, thumbs_up = thumbs_up + ?, "
+                    + "thumbs_down = thumbs_down + ? WHERE id = ?", updates);
+            // Entity cache only; the feed query cache keeps its (id-only) results until its TTL
+            ids.forEach(id -> entityManagerFactory.getCache().evict(Gazette.class, id));
+            success = true;
+        } catch (RuntimeException e) {
+            log.error("Failed to flush engagement counters for {} notices. Re-queueing.", updates.size(), e);
+            updates.forEach(u -> add((Long) u[3], (Long) u[0], (Long) u[1], (Long) u[2]));
+        } finally {
+            pipelineMetrics.record("engagement.flush", System.nanoTime() - start, success);
+        }
+        if (success) {
+            pipelineMetrics.add("engagement.rowsFlushed", updates.size());
+            if (notify) {
+                eventPublisher.publishEvent(new EngagementFlushedEvent(ids));
+            }
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.List;
+
+/**
+ * Published after buffered view/thumb counts of these notices were added to their rows.
+ */
+public record EngagementFlushedEvent(List<Long> ids) {
+}
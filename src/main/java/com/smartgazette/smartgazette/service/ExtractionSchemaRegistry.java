@@ -0,0 +1,172 @@
+package com.smartgazette.smartgazette.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import com.networknt.schema.ValidationMessage;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads every category schema under /schemas/field/ once at startup and keeps a compiled
+ * validator for each, so the pipeline no longer re-reads schema files per notice.
+ */
+@Service
+public class ExtractionSchemaRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(ExtractionSchemaRegistry.class);
+
+    private static final String SCHEMA_LOCATION = "classpath:/schemas/field/*.json";
+    private static final Set<String> SCALAR_TYPES = Set.of("string", "integer", "number", "boolean");
+
+    private final ObjectMapper objectMapper;
+    private final Map<String, CategorySchema> schemasByCategory = new HashMap<>();
+
+    // --- Cost counters (reported on the admin metrics endpoint) ---
+    private long loadMillis;
+    private final AtomicLong validations = new AtomicLong();
+    private final AtomicLong validationNanos = new AtomicLong();
+    private final AtomicLong invalidItems = new AtomicLong();
+
+    /**
+     * A category's schema: the raw text (embedded in prompts), the parsed tree and the compiled validator.
+     */
+    public record CategorySchema(String category, String schemaText, JsonNode schemaTree, JsonSchema validator) { }
+
+    public ExtractionSchemaRegistry(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @PostConstruct
+    void loadSchemas() throws IOException {
+        long start = System.nanoTime();
+        JsonSchemaFactory factory = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7);
+
+        Resource[] resources = new PathMatchingResourcePatternResolver().getResources(SCHEMA_LOCATION);
+        for (Resource resource : resources) {
+            String fileName = resource.getFilename();
+            if (fileName == null) {
+                continue;
+            }
+            // Keys are lower-cased so "Legislation.json" resolves for the "Legislation" category too
+            String key = fileName.replace(".json", "").toLowerCase(Locale.ROOT);
+            try (InputStream is = resource.getInputStream()) {
+                String text = new String(is.readAllBytes(), StandardCharsets.UTF_8);
+                JsonNode tree = objectMapper.readTree(text);
+                schemasByCategory.put(key, new CategorySchema(key, text, tree, factory.getSchema(withNullableOptionals(tree))));
+            } catch (Exception e) {
+                log.error("Failed to load extraction schema {}: {}", fileName, e.getMessage());
+            }
+        }
+        loadMillis = (System.nanoTime() - start) / 1_000_000;
+        log.info("Loaded {} extraction schemas in {} ms: {}", schemasByCategory.size(), loadMillis, schemasByCategory.keySet());
+    }
+
+    /**
+     * A copy of a category schema in which every scalar property not listed in its object's "required"
+     * also accepts null. The structured-output response schema marks exactly these fields nullable
+     * (GeminiClient.toResponseSchema), so an item that leaves one of them null still validates.
+     */
+    static JsonNode withNullableOptionals(JsonNode tree) {
+        JsonNode copy = tree.deepCopy();
+        allowNullOnOptionals(copy);
+        return copy;
+    }
+
+    private static void allowNullOnOptionals(JsonNode node) {
+        if (node.isArray()) {
+            node.forEach(ExtractionSchemaRegistry::allowNullOnOptionals);
+            return;
+        }
+        if (!node.isObject()) {
+            return;
+        }
+        JsonNode properties = node.path("properties");
+        if (properties.isObject()) {
+            Set<String> required = new HashSet<>();
+            node.path("required").forEach(name -> required.add(name.asText()));
+            properties.fields().forEachRemaining(field -> {
+                JsonNode type = field.getValue().path("type");
+                if (!required.contains(field.getKey()) && SCALAR_TYPES.contains(type.asText())) {
+                    ((ObjectNode) field.getValue()).putArray("type").add(type.asText()).add("null");
+                }
+            });
+        }
+        node.forEach(ExtractionSchemaRegistry::allowNullOnOptionals);
+    }
+
+    public Optional<CategorySchema> forCategory(String category) {
+        if (category == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(schemasByCategory.get(category.toLowerCase(Locale.ROOT)));
+    }
+
+    public Map<String, CategorySchema> all() {
+        return Collections.unmodifiableMap(schemasByCategory);
+    }
+
+    /**
+     * Validates one extracted item (org.json object) against its category schema.
+     * @return the validation messages; empty when the item is valid or the category has no schema.
+     */
+    public List<String> validateItem(String category, Object item) {
+        Optional<CategorySchema> schema = forCategory(category);
+        if (schema.isEmpty()) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        try {
+            // Category schemas describe the {"items": ...} wrapper, whose 'items' accepts a single object
+            ObjectNode wrapper = objectMapper.createObjectNode();
+            wrapper.set("items", objectMapper.readTree(item.toString()));
+            Set<ValidationMessage> messages = schema.get().validator().validate(wrapper);
+            List<String> errors = new ArrayList<>(messages.size());
+            for (ValidationMessage message : messages) {
+                errors.add(message.getMessage());
+            }
+            if (!errors.isEmpty()) {
+                invalidItems.incrementAndGet();
+            }
+            return errors;
+        } catch (IOException e) {
+            invalidItems.incrementAndGet();
+            return List.of("Item is not valid JSON: " + e.getMessage());
+        } finally {
+            validations.incrementAndGet();
+            validationNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        long count = validations.get();
+        stats.put("schemasLoaded", schemasByCategory.size());
+        stats.put("loadMillis", loadMillis);
+        stats.put("validations", count);
+        stats.put("invalidItems", invalidItems.get());
+        stats.put("avgValidationMicros", count == 0 ? 0 : validationNanos.get() / count / 1000);
+        return stats;
+    }
+}
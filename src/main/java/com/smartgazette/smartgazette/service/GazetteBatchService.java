@@ -0,0 +1,129 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.GazetteBatch;
+import com.smartgazette.smartgazette.model.ProcessingStatus;
+import com.smartgazette.smartgazette.repository.GazetteBatchRepository;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import org.json.JSONObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+
+/**
+ * Keeps the gazette_batch table (one row per ingested PDF) in step with its notices. Counts are
+ * adjusted with single-row UPDATEs as notices are saved, retried or deleted rather than recomputed.
+ */
+@Service
+public class GazetteBatchService {
+
+    private static final Logger log = LoggerFactory.getLogger(GazetteBatchService.class);
+
+    private final GazetteBatchRepository batchRepository;
+    private final GazetteRepository gazetteRepository;
+
+    public GazetteBatchService(GazetteBatchRepository batchRepository, GazetteRepository gazetteRepository) {
+        this.batchRepository = batchRepository;
+        this.gazetteRepository = gazetteRepository;
+    }
+
+    public List<GazetteBatch> listBatches() {
+        return batchRepository.findAllForListing();
+    }
+
+    /**
+     * Creates the batch for a PDF about to be processed, or restarts the timings of an existing one
+     * (a re-run of a stopped ingestion keeps its counts).
+     */
+    public GazetteBatch openBatch(String originalPdfPath, String pdfSha256, int pageCount, JSONObject headerDetails, long ocrMillis) {
+        GazetteBatch batch = batchRepository.findByOriginalPdfPath(originalPdfPath)
+                .orElseGet(() -> new GazetteBatch(originalPdfPath, pdfSha256));
+        batch.setPdfSha256(pdfSha256);
+        batch.setPageCount(pageCount);
+        batch.setOcrMillis(ocrMillis);
+        batch.setStartedAt(LocalDateTime.now());
+        batch.setFinishedAt(null);
+        if (headerDetails != null) {
+            batch.setGazetteVolume(headerDetails.optString("gazetteVolume", ""));
+            batch.setGazetteNumber(headerDetails.optString("gazetteNumber", ""));
+            batch.setGazetteDate(parseDate(headerDetails.optString("gazetteDate", "")));
+        }
+        return batchRepository.save(batch);
+    }
+
+    public void noticeSaved(GazetteBatch batch, ProcessingStatus status) {
+        if (batch != null) {
+            batchRepository.addCounts(batch.getId(), 1, status == ProcessingStatus.FAILED ? 1 : 0);
+        }
+    }
+
+    public void retrySucceeded(GazetteBatch batch) {
+        if (batch != null) {
+            batchRepository.addCounts(batch.getId(), 0, -1);
+        }
+    }
+
+    /**
+     * Subtracts notices about to be deleted; call inside the deleting transaction, before the delete.
+     */
+    public void noticesDeleted(List<Long> ids) {
+        for (Object[] row : gazetteRepository.countByBatchForIds(ids)) {
+            batchRepository.addCounts((Long) row[0], -((Number) row[1]).intValue(), -((Number) row[2]).intValue());
+        }
+    }
+
+    public void finish(GazetteBatch batch, long processingMillis) {
+        if (batch != null) {
+            batchRepository.markFinished(batch.getId(), LocalDateTime.now(), processingMillis);
+        }
+    }
+
+    /**
+     * One-off migration: creates batches for notices ingested before gazette_batch existed and links
+     * them. After the first run the query finds no unbatched notices and this is a no-op.
+     */
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillBatches() {
+        List<Object[]> groups = gazetteRepository.findUnbatchedNoticeGroups();
+        if (groups.isEmpty()) {
+            return;
+        }
+        log.info("Backfilling gazette_batch for {} source PDFs...", groups.size());
+        int linked = 0;
+        for (Object[] group : groups) {
+            String path = (String) group[0];
+            GazetteBatch batch = batchRepository.findByOriginalPdfPath(path)
+                    .orElseGet(() -> new GazetteBatch(path, (String) group[1]));
+            batch.setGazetteVolume((String) group[2]);
+            batch.setGazetteNumber((String) group[3]);
+            batch.setGazetteDate((LocalDate) group[4]);
+            batch.setStartedAt((LocalDateTime) group[7]);
+            batch.setFinishedAt((LocalDateTime) group[8]);
+            batch = batchRepository.save(batch);
+
+            // The group covers exactly the unbatched notices being attached, so its counts are added as-is
+            linked += gazetteRepository.attachToBatch(path, batch);
+            batchRepository.addCounts(batch.getId(), ((Number) group[5]).intValue(), ((Number) group[6]).intValue());
+        }
+        log.info("Backfill complete: {} notices linked to {} batches.", linked, groups.size());
+    }
+
+    private static LocalDate parseDate(String date) {
+        if (date == null || date.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(date);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
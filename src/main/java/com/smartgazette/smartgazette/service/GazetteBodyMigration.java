@@ -0,0 +1,68 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.CompressedTextConverter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compresses plain-text gazette_body.content into content_compressed. Flyway's V1_1 moves the TEXT
+ * columns of legacy 'gazette' rows into gazette_body as plain text (SQL cannot apply the dictionary),
+ * and this finishes the job in chunks at startup, nulling content as it goes. Once none is left this
+ * is a no-op. It runs after readiness, so GazetteBody falls back to the plain column until then.
+ */
+@Component
+public class GazetteBodyMigration {
+
+    private static final Logger log = LoggerFactory.getLogger(GazetteBodyMigration.class);
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheStatisticsService cacheStatisticsService;
+
+    public GazetteBodyMigration(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                CacheStatisticsService cacheStatisticsService) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.cacheStatisticsService = cacheStatisticsService;
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void compressPlainContent() {
+        long start = System.nanoTime();
+        int compressed = 0;
+        int chunkCompressed;
+        do {
+            chunkCompressed = transactionTemplate.execute(status -> compressChunk());
+            compressed += chunkCompressed;
+        } while (chunkCompressed == CHUNK_SIZE);
+        if (compressed > 0) {
+            // Rows were rewritten through JDBC, behind the second-level cache
+            cacheStatisticsService.evictAll();
+            log.info("Compressed the content of {} notice bodies in {} ms: {}", compressed,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), CompressedTextConverter.getStats());
+        }
+    }
+
+    private int compressChunk() {
+        List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                "SELECT id, content FROM gazette_body WHERE content IS NOT NULL AND content_compressed IS NULL ORDER BY id LIMIT " + CHUNK_SIZE);
+        for (Map<String, Object> row : rows) {
+            jdbcTemplate.update("UPDATE gazette_body SET content_compressed = ?, content = NULL WHERE id = ?",
+                    CompressedTextConverter.compress(row.get("content").toString()), row.get("id"));
+        }
+        return rows.size();
+    }
+}
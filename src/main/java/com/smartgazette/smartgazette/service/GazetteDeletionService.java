@@ -0,0 +1,116 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.GazetteGridFilter;
+import com.smartgazette.smartgazette.repository.GazetteBatchRepository;
+import com.smartgazette.smartgazette.repository.GazetteBodyRepository;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based notice deletes: one {@code DELETE ... WHERE} per batch or per chunk of IDs instead of
+ * Hibernate loading and deleting each entity. In-memory indexes, cached page images and the PDF file
+ * are cleaned up only once the delete has committed.
+ */
+@Service
+public class GazetteDeletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(GazetteDeletionService.class);
+
+    // Keeps IN lists within what every database (and its plan cache) handles well
+    static final int DELETE_CHUNK_SIZE = 1000;
+
+    private final GazetteRepository gazetteRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final NoticeSimilarityIndex similarityIndex;
+    private final PageImageRenderer pageImageRenderer;
+    private final GazetteBatchService batchService;
+    private final GazetteBatchRepository batchRepository;
+    private final GazetteBodyRepository bodyRepository;
+
+    public GazetteDeletionService(GazetteRepository gazetteRepository,
+                                  ApplicationEventPublisher eventPublisher,
+                                  NoticeSimilarityIndex similarityIndex,
+                                  PageImageRenderer pageImageRenderer,
+                                  GazetteBatchService batchService,
+                                  GazetteBatchRepository batchRepository,
+                                  GazetteBodyRepository bodyRepository) {
+        this.gazetteRepository = gazetteRepository;
+        this.batchService = batchService;
+        this.batchRepository = batchRepository;
+        this.bodyRepository = bodyRepository;
+        this.eventPublisher = eventPublisher;
+        this.similarityIndex = similarityIndex;
+        this.pageImageRenderer = pageImageRenderer;
+    }
+
+    /**
+     * @return how many notices were deleted
+     */
+    @Transactional
+    public int deleteByIds(Collection<Long> ids) {
+        List<Long> unique = ids.stream().distinct().toList();
+        int deleted = 0;
+        for (int start = 0; start < unique.size(); start += DELETE_CHUNK_SIZE) {
+            List<Long> chunk = unique.subList(start, Math.min(start + DELETE_CHUNK_SIZE, unique.size()));
+            batchService.noticesDeleted(chunk);
+            List<Long> bodyIds = gazetteRepository.findBodyIdsByIdIn(chunk);
+            deleted += gazetteRepository.deleteAllByIdIn(chunk);
+            bodyRepository.deleteAllByIdIn(bodyIds); // After the notices: they hold the foreign key
+        }
+        eventPublisher.publishEvent(new GazettesDeletedEvent(unique, null, null));
+        log.info("Bulk deleted {} notices in {} statement(s).", deleted, (unique.size() + DELETE_CHUNK_SIZE - 1) / DELETE_CHUNK_SIZE);
+        return deleted;
+    }
+
+    @Transactional
+    public int deleteByFilter(GazetteGridFilter filter) {
+        return deleteByIds(gazetteRepository.findGridIds(filter));
+    }
+
+    /**
+     * Deletes every notice of one source PDF in a single statement; the PDF itself goes after commit.
+     */
+    @Transactional
+    public int deleteBatch(String originalPdfPath) {
+        List<Long> ids = gazetteRepository.findIdsByOriginalPdfPath(originalPdfPath);
+        List<String> hashes = gazetteRepository.findPdfSha256ByOriginalPdfPath(originalPdfPath);
+        List<Long> bodyIds = gazetteRepository.findBodyIdsByOriginalPdfPath(originalPdfPath);
+        int deleted = gazetteRepository.deleteAllByOriginalPdfPath(originalPdfPath);
+        for (int start = 0; start < bodyIds.size(); start += DELETE_CHUNK_SIZE) {
+            bodyRepository.deleteAllByIdIn(bodyIds.subList(start, Math.min(start + DELETE_CHUNK_SIZE, bodyIds.size())));
+        }
+        batchRepository.deleteByOriginalPdfPath(originalPdfPath);
+        eventPublisher.publishEvent(new GazettesDeletedEvent(ids, originalPdfPath, hashes.isEmpty() ? null : hashes.get(0)));
+        log.info("Deleted {} notices for batch {}.", deleted, originalPdfPath);
+        return deleted;
+    }
+
+    // After commit only: a rolled-back delete must leave the index, cache and PDF untouched
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGazettesDeleted(GazettesDeletedEvent event) {
+        event.ids().forEach(similarityIndex::remove);
+        if (event.pdfSha256() != null) {
+            pageImageRenderer.evict(event.pdfSha256());
+        }
+        if (event.pdfPath() != null) {
+            try {
+                Files.deleteIfExists(Paths.get(event.pdfPath()));
+                log.info("Deleted PDF file: {}", event.pdfPath());
+            } catch (IOException e) {
+                log.error("Failed to delete PDF file: {}. Error: {}", event.pdfPath(), e.getMessage());
+            }
+        }
+    }
+}
@@ -1,28 +1,42 @@
 package com.smartgazette.smartgazette.service;
 
+import com.smartgazette.smartgazette.model.CrawlCheckpoint;
 import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.repository.CrawlCheckpointRepository;
 import com.smartgazette.smartgazette.repository.GazetteRepository;
-import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @EnableScheduling
@@ -30,166 +44,224 @@ public class GazetteScrapingService {
 
     private static final Logger log = LoggerFactory.getLogger(GazetteScrapingService.class);
 
-    private static final String KENYA_LAW_GAZETTE_URL = "https://new.kenyalaw.org/gazettes/";
+    // Every instance fires the cron; only the lease holder actually scrapes
+    private static final String SCRAPE_LEASE_KEY = "scraper:daily";
+    private static final Duration SCRAPE_LEASE_TTL = Duration.ofMinutes(30);
+
+    private static final String BACKFILL_LEASE_KEY = "scraper:backfill";
+    private static final Duration BACKFILL_LEASE_TTL = Duration.ofHours(6);
+    private static final String GAZETTE_LINK_SELECTOR = "td.cell-title a[href^='/akn/ke/officialGazette/']";
+    private static final int MAX_LISTING_PAGES = 50;
 
     private final GazetteService gazetteService;
     private final GazetteRepository gazetteRepository;
+    private final ProcessingLeaseService leaseService;
+    private final CrawlCheckpointRepository checkpointRepository;
+    private final PdfStorageService pdfStorageService;
+
+    // Overridable so the crawler can be pointed at saved HTML fixtures served locally
+    private final String gazetteListingUrl;
+    private final int backfillConcurrency;
+    private final long politeDelayMillis;
+
+    private final Object politenessLock = new Object();
+    private long nextRequestAllowedAt = 0;
 
     @Autowired
-    public GazetteScrapingService(GazetteService gazetteService, GazetteRepository gazetteRepository) {
+    public GazetteScrapingService(GazetteService gazetteService,
+                                  GazetteRepository gazetteRepository,
+                                  ProcessingLeaseService leaseService,
+                                  CrawlCheckpointRepository checkpointRepository,
+                                  PdfStorageService pdfStorageService,
+                                  @Value("${gazette.scraper.base-url:https://new.kenyalaw.org/gazettes/}") String gazetteListingUrl,
+                                  @Value("${gazette.backfill.concurrency:3}") int backfillConcurrency,
+                                  @Value("${gazette.backfill.delay-ms:1500}") long politeDelayMillis) {
         this.gazetteService = gazetteService;
         this.gazetteRepository = gazetteRepository;
+        this.leaseService = leaseService;
+        this.checkpointRepository = checkpointRepository;
+        this.pdfStorageService = pdfStorageService;
+        this.gazetteListingUrl = gazetteListingUrl.endsWith("/") ? gazetteListingUrl : gazetteListingUrl + "/";
+        this.backfillConcurrency = Math.max(1, backfillConcurrency);
+        this.politeDelayMillis = Math.max(0, politeDelayMillis);
     }
 
     @Scheduled(cron = "0 0 5 * * MON-FRI", zone = "Africa/Nairobi")
     public void scrapeForNewGazettes() {
+        if (!leaseService.tryAcquire(SCRAPE_LEASE_KEY, SCRAPE_LEASE_TTL)) {
+            log.info("--- 🤖 SCHEDULED SCRAPE SKIPPED (another instance holds the scrape lease) ---");
+            return;
+        }
+        try {
+            scrapeLatestGazette();
+        } finally {
+            leaseService.release(SCRAPE_LEASE_KEY);
+        }
+    }
+
+    private void scrapeLatestGazette() {
         log.info("--- 🤖 STARTING SCHEDULED GAZETTE SCRAPE ---");
 
         int maxRetries = 3;
         int retryDelay = 5000;
 
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                log.info("Scrape attempt {}/{}", attempt, maxRetries);
-
-                String currentYear = String.valueOf(LocalDate.now().getYear());
-                String scrapeUrl = KENYA_LAW_GAZETTE_URL + currentYear;
-                log.info("Scraping URL: {}", scrapeUrl);
-
-                // Step 1: Get Listings Page
-                Document doc = Jsoup.connect(scrapeUrl)
-                        .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
-                        .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
-                        .referrer("https://www.google.com/")
-                        .followRedirects(true)
-                        .timeout(60000)
-                        .get();
+        // Claimed before downloading; released here if the issue never reaches the pipeline
+        String issueLeaseKey = null;
+        boolean handedOff = false;
+        try {
+            for (int attempt = 1; attempt <= maxRetries; attempt++) {
+                try {
+                    log.info("Scrape attempt {}/{}", attempt, maxRetries);
+
+                    String currentYear = String.valueOf(LocalDate.now().getYear());
+                    String scrapeUrl = gazetteListingUrl + currentYear;
+                    log.info("Scraping URL: {}", scrapeUrl);
+
+                    // Step 1: Get Listings Page
+                    Document doc = Jsoup.connect(scrapeUrl)
+                            .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
+                            .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                            .referrer("https://www.google.com/")
+                            .followRedirects(true)
+                            .timeout(60000)
+                            .get();
+
+                    Element latestGazetteLink = doc.select(GAZETTE_LINK_SELECTOR).first();
+
+                    if (latestGazetteLink == null) {
+                        log.warn("Could not find any gazette links. HTML structure may have changed.");
+                        if (attempt < maxRetries) {
+                            log.info("Retrying in {} seconds...", retryDelay / 1000);
+                            Thread.sleep(retryDelay);
+                            continue;
+                        } else {
+                            log.error("All retry attempts failed to find link. Giving up.");
+                            return;
+                        }
+                    }
 
-                Element latestGazetteLink = doc.select("td.cell-title a[href^='/akn/ke/officialGazette/']").first();
+                    String detailsPageUrl = latestGazetteLink.attr("abs:href");
+                    String linkText = latestGazetteLink.text();
+                    String gazetteNumber = linkText.replace("Kenya Gazette ", "").trim();
+                    LocalDate gazetteDate = findDateInTableRow(latestGazetteLink);
+
+                    log.info("Found latest gazette: Number='{}', Date='{}', URL='{}'", gazetteNumber, gazetteDate, detailsPageUrl);
+
+                    // Check duplicates
+                    if (gazetteDate != null) {
+                        Optional<Gazette> existing = gazetteRepository.findFirstByGazetteNumberAndGazetteDate(gazetteNumber, gazetteDate);
+                        if (existing.isPresent()) {
+                            log.info("Gazette ({}, {}) already processed. Skipping.", gazetteNumber, gazetteDate);
+                            log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (SKIPPED) ---");
+                            return;
+                        }
+
+                        // Claim the issue before downloading; the same key is re-checked (and renewed) during processing
+                        String leaseKey = ProcessingLeaseService.gazetteLeaseKey(gazetteNumber, gazetteDate);
+                        if (!leaseService.tryAcquire(leaseKey, GazetteService.GAZETTE_LEASE_TTL)) {
+                            log.info("Gazette ({}, {}) is being ingested by another instance. Skipping.", gazetteNumber, gazetteDate);
+                            log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (SKIPPED) ---");
+                            return;
+                        }
+                        issueLeaseKey = leaseKey;
+                    }
 
-                if (latestGazetteLink == null) {
-                    log.warn("Could not find any gazette links. HTML structure may have changed.");
-                    if (attempt < maxRetries) {
-                        log.info("Retrying in {} seconds...", retryDelay / 1000);
-                        Thread.sleep(retryDelay);
-                        continue;
-                    } else {
-                        log.error("All retry attempts failed to find link. Giving up.");
+                    // Step 2: Get Details Page
+                    log.info("New gazette found! Navigating to details page: {}", detailsPageUrl);
+                    Document detailsDoc = Jsoup.connect(detailsPageUrl)
+                            .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
+                            .referrer(scrapeUrl)
+                            .timeout(60000)
+                            .get();
+
+                    Element pdfLink = detailsDoc.select("a:contains(Download PDF)").first();
+
+                    if (pdfLink == null) {
+                        log.warn("Could not find a 'Download PDF' link on the details page: {}", detailsPageUrl);
+                        if (attempt < maxRetries) {
+                            log.info("Retrying in {} seconds...", retryDelay / 1000);
+                            Thread.sleep(retryDelay);
+                            continue;
+                        }
+                        log.error("All retry attempts failed to find PDF link. Giving up.");
                         return;
                     }
-                }
 
-                String detailsPageUrl = latestGazetteLink.attr("abs:href");
-                String linkText = latestGazetteLink.text();
-                String gazetteNumber = linkText.replace("Kenya Gazette ", "").trim();
-                LocalDate gazetteDate = findDateInTableRow(latestGazetteLink);
+                    String pdfUrl = pdfLink.attr("abs:href");
+                    log.info("Found download URL: {}", pdfUrl);
 
-                log.info("Found latest gazette: Number='{}', Date='{}', URL='{}'", gazetteNumber, gazetteDate, detailsPageUrl);
-
-                // Check duplicates
-                if (gazetteDate != null) {
-                    Optional<Gazette> existing = gazetteRepository.findFirstByGazetteNumberAndGazetteDate(gazetteNumber, gazetteDate);
-                    if (existing.isPresent()) {
-                        log.info("Gazette ({}, {}) already processed. Skipping.", gazetteNumber, gazetteDate);
-                        log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (SKIPPED) ---");
+                    // Step 3: Download PDF
+                    PdfStorageService.StoredPdf stored = downloadPdfToStorage(pdfUrl, detailsPageUrl, gazetteNumber, gazetteDate);
+                    if (stored == null) {
+                        log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (WRONG FILE TYPE) ---");
                         return;
                     }
-                }
-
-                // Step 2: Get Details Page
-                log.info("New gazette found! Navigating to details page: {}", detailsPageUrl);
-                Document detailsDoc = Jsoup.connect(detailsPageUrl)
-                        .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
-                        .referrer(scrapeUrl)
-                        .timeout(60000)
-                        .get();
-
-                Element pdfLink = detailsDoc.select("a:contains(Download PDF)").first();
-
-                if (pdfLink == null) {
-                    log.warn("Could not find a 'Download PDF' link on the details page: {}", detailsPageUrl);
-                    if (attempt < maxRetries) {
-                        log.info("Retrying in {} seconds...", retryDelay / 1000);
-                        Thread.sleep(retryDelay);
-                        continue;
+                    if (stored.duplicate()) {
+                        log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (DUPLICATE PDF) ---");
+                        return;
                     }
-                    log.error("All retry attempts failed to find PDF link. Giving up.");
-                    return;
-                }
 
-                String pdfUrl = pdfLink.attr("abs:href");
-                log.info("Found download URL: {}", pdfUrl);
-
-                // Step 3: Download PDF
-                log.info("Downloading PDF...");
-                Connection.Response pdfResponse = Jsoup.connect(pdfUrl)
-                        .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
-                        .referrer(detailsPageUrl)
-                        .ignoreContentType(true)
-                        .followRedirects(true)
-                        .timeout(120000)
-                        .maxBodySize(0)
-                        .execute();
-
-                String contentType = pdfResponse.contentType();
-                if (contentType == null || !contentType.contains("application/pdf")) {
-                    log.error("Downloaded file is NOT a PDF! Content-Type: {}. Halting.", contentType);
-                    log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (WRONG FILE TYPE) ---");
-                    return;
-                }
+                    File destinationFile = stored.file();
+                    String finalPdfPath = destinationFile.getAbsolutePath(); // Use Absolute Path to avoid "file not found" errors
 
-                byte[] pdfBytes = pdfResponse.bodyAsBytes();
-                log.info("PDF downloaded successfully ({} bytes)", pdfBytes.length);
-
-                // --- CRITICAL FIX: Save directly to PERMANENT storage ---
-                File storageDir = new File("storage/gazettes/");
-                if (!storageDir.exists()) {
-                    storageDir.mkdirs();
-                }
+                    // Pass the PERMANENT file to the service, which releases the issue if the pipeline fails
+                    handedOff = true;
+                    gazetteService.processAndSavePdf(destinationFile, finalPdfPath, stored.sha256());
 
-                // 1. Construct a clean, professional filename
-                // Format: Kenya_Gazette_Vol_CXXVII_No_225_Dated_2025-11-07.pdf
-                String safeNumber = gazetteNumber.replaceAll("[^a-zA-Z0-9]", "_");
-                String safeDate = (gazetteDate != null) ? gazetteDate.toString() : "Unknown_Date";
-                String fileName = "Kenya_Gazette_" + safeNumber + "_Dated_" + safeDate + ".pdf";
+                    log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (SUCCESS) ---");
+                    return;
 
-                File destinationFile = new File(storageDir, fileName);
+                } catch (IOException e) {
+                    log.error("Scrape attempt {}/{} failed: {}", attempt, maxRetries, e.getMessage());
 
-                try (FileOutputStream out = new FileOutputStream(destinationFile)) {
-                    out.write(pdfBytes);
+                    if (attempt < maxRetries) {
+                        log.info("Waiting {} seconds before retry...", retryDelay / 1000);
+                        try {
+                            Thread.sleep(retryDelay);
+                            retryDelay *= 2;
+                        } catch (InterruptedException ie) {
+                            Thread.currentThread().interrupt();
+                            return;
+                        }
+                    } else {
+                        log.error("All {} retry attempts exhausted. Scraping failed.", maxRetries, e);
+                    }
+                } catch (Exception e) {
+                    log.error("Unexpected error during scraping: {}", e.getMessage(), e);
+                    return;
                 }
+            }
 
-                String finalPdfPath = destinationFile.getAbsolutePath(); // Use Absolute Path to avoid "file not found" errors
-                log.info("Saved PDF to permanent storage: {}", finalPdfPath);
-
-                // Pass the PERMANENT file to the service
-                gazetteService.processAndSavePdf(destinationFile, finalPdfPath);
-
-                log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (SUCCESS) ---");
-                return;
+            log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (FAILED) ---");
+        } finally {
+            if (issueLeaseKey != null && !handedOff) {
+                leaseService.release(issueLeaseKey);
+            }
+        }
+    }
 
-            } catch (IOException e) {
-                log.error("Scrape attempt {}/{} failed: {}", attempt, maxRetries, e.getMessage());
+    /**
+     * Downloads a gazette PDF into permanent storage.
+     * @return the stored file, or null if the server did not return a PDF.
+     */
+    private PdfStorageService.StoredPdf downloadPdfToStorage(String pdfUrl, String referrer, String gazetteNumber, LocalDate gazetteDate) throws IOException {
+        log.info("Downloading PDF...");
+        // Streamed to disk and hashed on the fly; duplicates are dropped before any AI processing
+        return pdfStorageService.download(pdfUrl, referrer, storageFileFor(gazetteNumber, gazetteDate));
+    }
 
-                if (attempt < maxRetries) {
-                    log.info("Waiting {} seconds before retry...", retryDelay / 1000);
-                    try {
-                        Thread.sleep(retryDelay);
-                        retryDelay *= 2;
-                    } catch (InterruptedException ie) {
-                        Thread.currentThread().interrupt();
-                        return;
-                    }
-                } else {
-                    log.error("All {} retry attempts exhausted. Scraping failed.", maxRetries, e);
-                }
-            } catch (Exception e) {
-                log.error("Unexpected error during scraping: {}", e.getMessage(), e);
-                return;
-            }
+    private File storageFileFor(String gazetteNumber, LocalDate gazetteDate) {
+        File storageDir = new File("storage/gazettes/");
+        if (!storageDir.exists()) {
+            storageDir.mkdirs();
         }
 
-        log.info("--- 🤖 SCHEDULED SCRAPE FINISHED (FAILED) ---");
+        // 1. Construct a clean, professional filename
+        // Format: Kenya_Gazette_Vol_CXXVII_No_225_Dated_2025-11-07.pdf
+        String safeNumber = gazetteNumber.replaceAll("[^a-zA-Z0-9]", "_");
+        String safeDate = (gazetteDate != null) ? gazetteDate.toString() : "Unknown_Date";
+        String fileName = "Kenya_Gazette_" + safeNumber + "_Dated_" + safeDate + ".pdf";
+        return new File(storageDir, fileName);
     }
 
     private LocalDate findDateInTableRow(Element link) {
@@ -219,4 +291,209 @@ public class GazetteScrapingService {
         log.info("--- 👨‍💻 MANUAL SCRAPE TRIGGERED ---");
         new Thread(this::scrapeForNewGazettes).start();
     }
+
+    // =====================================================================
+    // --- BACKFILL CRAWLER (historical gazettes, every issue per year) ---
+    // =====================================================================
+
+    record GazetteIssueLink(String gazetteNumber, LocalDate gazetteDate, String detailsUrl) {
+        String issueKey() {
+            return ProcessingLeaseService.gazetteLeaseKey(gazetteNumber, gazetteDate);
+        }
+    }
+
+    public void runBackfillManually(int fromYear, int toYear) {
+        log.info("--- 👨‍💻 MANUAL BACKFILL TRIGGERED ({} - {}) ---", fromYear, toYear);
+        new Thread(() -> crawlHistoricalGazettes(fromYear, toYear)).start();
+    }
+
+    /**
+     * Enumerates every gazette issue listed for the given years, diffs them against what is already
+     * stored and ingests the missing ones. Years that finished are checkpointed and skipped on resume
+     * (except the current year, which keeps growing).
+     */
+    public void crawlHistoricalGazettes(int fromYear, int toYear) {
+        if (!leaseService.tryAcquire(BACKFILL_LEASE_KEY, BACKFILL_LEASE_TTL)) {
+            log.info("--- 🕸️ BACKFILL SKIPPED (another instance holds the backfill lease) ---");
+            return;
+        }
+        log.info("--- 🕸️ STARTING BACKFILL CRAWL {} - {} ---", fromYear, toYear);
+
+        ExecutorService downloadPool = Executors.newFixedThreadPool(backfillConcurrency);
+        try {
+            // One set query for the whole range instead of one lookup per link
+            Set<String> knownIssues = new HashSet<>();
+            for (Object[] row : gazetteRepository.findKnownGazetteIssues(
+                    LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31))) {
+                knownIssues.add(ProcessingLeaseService.gazetteLeaseKey((String) row[0], (LocalDate) row[1]));
+            }
+            log.info("Backfill: {} issues already stored in range.", knownIssues.size());
+
+            for (int year = fromYear; year <= toYear; year++) {
+                String crawlKey = "backfill:" + year;
+                CrawlCheckpoint checkpoint = checkpointRepository.findById(crawlKey).orElseGet(() -> new CrawlCheckpoint(crawlKey));
+                boolean isCurrentYear = year == LocalDate.now().getYear();
+                if (checkpoint.isCompleted() && !isCurrentYear) {
+                    log.info("Backfill: year {} already completed at {}. Skipping.", year, checkpoint.getUpdatedAt());
+                    continue;
+                }
+
+                List<GazetteIssueLink> links = enumerateGazetteLinks(year);
+                List<GazetteIssueLink> missing = links.stream()
+                        .filter(link -> link.gazetteDate() != null && !knownIssues.contains(link.issueKey()))
+                        .toList();
+                log.info("Backfill: year {} lists {} issues, {} missing.", year, links.size(), missing.size());
+
+                checkpoint.setIssuesFound(links.size());
+                checkpoint.setIssuesEnqueued(missing.size());
+                checkpoint.setIssuesProcessed(0);
+                checkpointRepository.save(checkpoint);
+
+                int processed = ingestConcurrently(missing, downloadPool, checkpoint);
+                checkpoint.setIssuesProcessed(processed);
+                checkpoint.setCompleted(processed == missing.size());
+                checkpointRepository.save(checkpoint);
+
+                if (!checkpoint.isCompleted()) {
+                    log.warn("Backfill: year {} incomplete ({}/{}). It will be resumed on the next run.", year, processed, missing.size());
+                }
+                // Keep the crawl lease alive across long ranges
+                leaseService.tryAcquire(BACKFILL_LEASE_KEY, BACKFILL_LEASE_TTL);
+            }
+            log.info("--- 🕸️ BACKFILL CRAWL FINISHED ---");
+        } catch (Exception e) {
+            log.error("Backfill crawl aborted: {}", e.getMessage(), e);
+        } finally {
+            downloadPool.shutdownNow();
+            leaseService.release(BACKFILL_LEASE_KEY);
+        }
+    }
+
+    /**
+     * Downloads missing issues in parallel (politely spaced) and feeds them to the processing
+     * pipeline one at a time, in the order downloads complete.
+     * @return number of issues the pipeline fully ingested.
+     */
+    private int ingestConcurrently(List<GazetteIssueLink> missing, ExecutorService downloadPool, CrawlCheckpoint checkpoint) throws InterruptedException {
+        CompletionService<File> downloads = new ExecutorCompletionService<>(downloadPool);
+        Map<Future<File>, GazetteIssueLink> pending = new HashMap<>();
+        for (GazetteIssueLink link : missing) {
+            pending.put(downloads.submit(() -> downloadIssue(link)), link);
+        }
+
+        int processed = 0;
+        for (int i = 0; i < missing.size(); i++) {
+            Future<File> done = downloads.take();
+            GazetteIssueLink link = pending.get(done);
+            File pdf;
+            try {
+                pdf = done.get();
+            } catch (ExecutionException e) {
+                log.error("Backfill: download failed for {} ({}): {}", link.gazetteNumber(), link.gazetteDate(), e.getCause().getMessage());
+                continue;
+            }
+            if (pdf == null) {
+                continue;
+            }
+
+            // The pipeline is single-lane; wait for any running job (e.g. the daily scrape) to finish
+            while (gazetteService.isProcessing()) {
+                TimeUnit.SECONDS.sleep(30);
+            }
+            if (!gazetteService.processPdf(pdf, pdf.getAbsolutePath())) {
+                // Failed, stopped, or another job took the lock first: the year stays incomplete and is resumed
+                log.warn("Backfill: {} ({}) was not ingested on this run.", link.gazetteNumber(), link.gazetteDate());
+                continue;
+            }
+            processed++;
+            checkpoint.setIssuesProcessed(processed);
+            checkpointRepository.save(checkpoint);
+        }
+        return processed;
+    }
+
+    private File downloadIssue(GazetteIssueLink link) throws IOException, InterruptedException {
+        if (!leaseService.tryAcquire(link.issueKey(), GazetteService.GAZETTE_LEASE_TTL)) {
+            log.info("Backfill: {} ({}) is being ingested by another instance. Skipping.", link.gazetteNumber(), link.gazetteDate());
+            return null;
+        }
+        File pdf = null;
+        try {
+            pdf = fetchIssue(link);
+            return pdf;
+        } finally {
+            if (pdf == null) {
+                // Nothing for the pipeline: leave the issue to the next crawl (here or elsewhere)
+                leaseService.release(link.issueKey());
+            }
+        }
+    }
+
+    private File fetchIssue(GazetteIssueLink link) throws IOException, InterruptedException {
+        // A previous (interrupted) crawl may already have stored this issue
+        File existing = storageFileFor(link.gazetteNumber(), link.gazetteDate());
+        if (existing.exists() && existing.length() > 0) {
+            log.info("Backfill: reusing already downloaded file {}", existing.getName());
+            return existing;
+        }
+
+        awaitPoliteSlot();
+        Document detailsDoc = Jsoup.connect(link.detailsUrl())
+                .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
+                .referrer(gazetteListingUrl + link.gazetteDate().getYear())
+                .timeout(60000)
+                .get();
+        Element pdfLink = detailsDoc.select("a:contains(Download PDF)").first();
+        if (pdfLink == null) {
+            log.warn("Backfill: no 'Download PDF' link on {}", link.detailsUrl());
+            return null;
+        }
+
+        awaitPoliteSlot();
+        PdfStorageService.StoredPdf stored = downloadPdfToStorage(pdfLink.attr("abs:href"), link.detailsUrl(), link.gazetteNumber(), link.gazetteDate());
+        return (stored == null || stored.duplicate()) ? null : stored.file();
+    }
+
+    /**
+     * Collects every gazette link on a year's listing, following "next" pagination links.
+     */
+    List<GazetteIssueLink> enumerateGazetteLinks(int year) throws IOException, InterruptedException {
+        List<GazetteIssueLink> links = new ArrayList<>();
+        Set<String> seenPages = new HashSet<>();
+        String pageUrl = gazetteListingUrl + year;
+
+        while (pageUrl != null && seenPages.add(pageUrl) && seenPages.size() <= MAX_LISTING_PAGES) {
+            awaitPoliteSlot();
+            log.info("Backfill: reading listing page {}", pageUrl);
+            Document doc = Jsoup.connect(pageUrl)
+                    .userAgent("Mozilla/5.0 (Windows NT 10.0; Win64; x64)")
+                    .header("Accept", "text/html,application/xhtml+xml,application/xml;q=0.9,*/*;q=0.8")
+                    .followRedirects(true)
+                    .timeout(60000)
+                    .get();
+
+            for (Element link : doc.select(GAZETTE_LINK_SELECTOR)) {
+                String gazetteNumber = link.text().replace("Kenya Gazette ", "").trim();
+                links.add(new GazetteIssueLink(gazetteNumber, findDateInTableRow(link), link.attr("abs:href")));
+            }
+
+            Element next = doc.select("a[rel=next]").first();
+            pageUrl = (next != null) ? next.attr("abs:href") : null;
+        }
+        return links;
+    }
+
+    // Spaces out requests across all download threads so the source site is not hammered
+    private void awaitPoliteSlot() throws InterruptedException {
+        long waitMillis;
+        synchronized (politenessLock) {
+            long now = System.currentTimeMillis();
+            long slot = Math.max(now, nextRequestAllowedAt);
+            nextRequestAllowedAt = slot + politeDelayMillis;
+            waitMillis = slot - now;
+        }
+        if (waitMillis > 0) {
+            Thread.sleep(waitMillis);
+        }
+    }
 }
\ No newline at end of file
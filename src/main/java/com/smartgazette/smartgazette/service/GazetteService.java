@@ -1,20 +1,20 @@
 package com.smartgazette.smartgazette.service;
 
-import com.google.cloud.vertexai.VertexAI;
 import com.google.cloud.vertexai.api.Blob;
-import com.google.cloud.vertexai.api.Content;
-import com.google.cloud.vertexai.api.GenerateContentResponse;
-import com.google.cloud.vertexai.api.GenerationConfig;
 import com.google.cloud.vertexai.api.Part;
-import com.google.cloud.vertexai.generativeai.GenerativeModel;
-import com.google.cloud.vertexai.generativeai.ResponseHandler;
 import com.google.protobuf.ByteString;
 
+import com.smartgazette.smartgazette.model.CompressedTextConverter;
 import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.GazetteBatch;
+import com.smartgazette.smartgazette.model.GazetteGridCursor;
+import com.smartgazette.smartgazette.model.GazetteGridFilter;
+import com.smartgazette.smartgazette.model.GazetteGridPage;
+import com.smartgazette.smartgazette.model.GazetteGridRow;
+import com.smartgazette.smartgazette.model.ProcessingStage;
 import com.smartgazette.smartgazette.model.ProcessingStatus;
 import com.smartgazette.smartgazette.repository.GazetteRepository;
 import org.apache.pdfbox.pdmodel.PDDocument;
-import org.apache.pdfbox.rendering.PDFRenderer;
 import org.apache.pdfbox.text.PDFTextStripper;
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -22,27 +22,30 @@ import org.json.JSONObject;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
 import java.io.*;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.format.DateTimeParseException;
 import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
-import com.smartgazette.smartgazette.model.GazetteBatchDTO; // <-- Added for Batch Delete
 
 @Service
 public class GazetteService {
@@ -50,67 +53,165 @@ public class GazetteService {
     private static final Logger log = LoggerFactory.getLogger(GazetteService.class);
     private final GazetteRepository gazetteRepository;
     private final String PDF_STORAGE_PATH = "storage/gazettes/";
+    // Held for the whole ingestion and left to expire after a success (or a crash); released on failure
+    static final Duration GAZETTE_LEASE_TTL = Duration.ofHours(12);
 
     private final AtomicBoolean isProcessing = new AtomicBoolean(false);
     private final AtomicBoolean stopProcessing = new AtomicBoolean(false);
 
-    private final VertexAI vertexAI;
-    private final GenerativeModel geminiProModel;
-    private final GenerativeModel geminiFlashModel;
+    private final GeminiClient geminiClient;
+    private final PipelineMetrics pipelineMetrics;
+    private final ModelRouter modelRouter;
+    private final NoticeSimilarityIndex similarityIndex;
     private final IftttWebhookService iftttWebhookService;
     private final ExcelExportService excelExportService;
+    private final ProcessingLeaseService leaseService;
+    private final PdfStorageService pdfStorageService;
+    private final ExtractionSchemaRegistry schemaRegistry;
+    private final PageImageRenderer pageImageRenderer;
+    private final GazetteDeletionService deletionService;
+    private final GazetteBatchService batchService;
+    private final EngagementCounterService engagementCounterService;
+    private final CacheStatisticsService cacheStatisticsService;
+    private final HotFeedService hotFeedService;
+    private final TrendingService trendingService;
+    private final UniqueReaderService uniqueReaderService;
 
-    @Value("${gemini.model.pro:gemini-2.5-pro}")
-    private String geminiProModelName;
+    // prompt = schema pasted into the prompt, structured = schema sent as responseSchema (JSON mode),
+    // split = alternate per notice so both modes can be compared on the same gazettes
+    @Value("${gemini.extraction.mode:prompt}")
+    private String extractionMode;
 
-    @Value("${gemini.model.flash:gemini-2.5-flash}")
-    private String geminiFlashModelName;
+    // --- Fast path: one combined extraction + generation call for short boilerplate notices ---
+    @Value("${gazette.fastpath.enabled:true}")
+    private boolean fastPathEnabled;
+
+    @Value("${gazette.fastpath.max-chars:1500}")
+    private int fastPathMaxChars;
+
+    @Value("${gazette.fastpath.categories:Land_Property,Court_Legal}")
+    private List<String> fastPathCategories;
+
+    // Near-duplicates of already published notices skip triage and get a templated rewrite
+    @Value("${gazette.neardup.enabled:true}")
+    private boolean nearDuplicateEnabled;
+
+    // --- Digest grouping: adjacent same-kind notices of these categories share one generated article ---
+    @Value("${gazette.digest.enabled:true}")
+    private boolean digestEnabled;
+
+    @Value("${gazette.digest.categories:Land_Property,Tenders}")
+    private List<String> digestCategories;
+
+    @Value("${gazette.digest.min-items:2}")
+    private int digestMinItems;
+
+    @Value("${gazette.digest.max-items:25}")
+    private int digestMaxItems;
+
+    // Speculative mode: extraction with the keyword pre-classifier's guess runs alongside triage
+    @Value("${gazette.speculative.enabled:false}")
+    private boolean speculativeEnabled;
+
+    @Value("${gazette.speculative.threads:2}")
+    private int speculativeThreads;
+
+    // --- Prompt token budgets (raw notice text is cut head + tail beyond these) ---
+    @Value("${gazette.prompt.triage-token-budget:1000}")
+    private int triageTokenBudget;
+
+    @Value("${gazette.prompt.extraction-token-budget:60000}")
+    private int extractionTokenBudget;
+
+    @Value("${gazette.retry.concurrency:4}")
+    private int retryConcurrency;
 
     public GazetteService(GazetteRepository gazetteRepository,
                           IftttWebhookService iftttWebhookService,
                           ExcelExportService excelExportService, // <-- ADD PARAM
-                          @Value("${gcp.project.id}") String projectId,
-                          @Value("${gcp.location}") String location) {
+                          ProcessingLeaseService leaseService,
+                          PdfStorageService pdfStorageService,
+                          ExtractionSchemaRegistry schemaRegistry,
+                          GeminiClient geminiClient,
+                          PipelineMetrics pipelineMetrics,
+                          ModelRouter modelRouter,
+                          NoticeSimilarityIndex similarityIndex,
+                          PageImageRenderer pageImageRenderer,
+                          GazetteDeletionService deletionService,
+                          GazetteBatchService batchService,
+                          EngagementCounterService engagementCounterService,
+                          CacheStatisticsService cacheStatisticsService,
+                          HotFeedService hotFeedService,
+                          TrendingService trendingService,
+                          UniqueReaderService uniqueReaderService) {
         this.gazetteRepository = gazetteRepository;
         this.iftttWebhookService = iftttWebhookService;
         this.excelExportService = excelExportService;
+        this.leaseService = leaseService;
+        this.pdfStorageService = pdfStorageService;
+        this.schemaRegistry = schemaRegistry;
+        this.geminiClient = geminiClient;
+        this.pipelineMetrics = pipelineMetrics;
+        this.modelRouter = modelRouter;
+        this.similarityIndex = similarityIndex;
+        this.pageImageRenderer = pageImageRenderer;
+        this.deletionService = deletionService;
+        this.batchService = batchService;
+        this.engagementCounterService = engagementCounterService;
+        this.cacheStatisticsService = cacheStatisticsService;
+        this.hotFeedService = hotFeedService;
+        this.trendingService = trendingService;
+        this.uniqueReaderService = uniqueReaderService;
+    }
 
-        log.info("Initializing Vertex AI SDK for project '{}' in location '{}'", projectId, location);
-        this.vertexAI = new VertexAI(projectId, location);
-
-        GenerationConfig textGenConfig = GenerationConfig.newBuilder()
-                .setTemperature(0.2f)
-                .setMaxOutputTokens(4096)
-                .setTopP(0.95f)
-                .build();
-
-        GenerationConfig visionGenConfig = GenerationConfig.newBuilder()
-                .setMaxOutputTokens(8192)
-                .setTemperature(0.1f)
-                .build();
-
-        this.geminiProModel = new GenerativeModel.Builder()
-                .setModelName("gemini-2.5-pro")
-                .setVertexAi(this.vertexAI)
-                .setGenerationConfig(textGenConfig)
-                .build();
+    // --- Core Public Methods ---
 
-        this.geminiFlashModel = new GenerativeModel.Builder()
-                .setModelName("gemini-2.5-flash")
-                .setVertexAi(this.vertexAI)
-                .setGenerationConfig(visionGenConfig)
-                .build();
+    /**
+     * Pipeline cost metrics for the admin metrics endpoint: per-route LLM latency/tokens and schema validation.
+     */
+    public Map<String, Object> getPipelineMetrics() {
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("extractionMode", extractionMode);
+        metrics.put("paths", pipelineMetrics.getStats());
+        long compactedNotices = pipelineMetrics.count("compaction.notices");
+        metrics.put("compactionTokensSavedPerNotice", compactedNotices == 0 ? 0 : pipelineMetrics.count("compaction.tokensSaved") / compactedNotices);
+        long speculated = pipelineMetrics.count("speculative.started");
+        metrics.put("speculativeWastedRate", speculated == 0 ? 0.0 : (double) pipelineMetrics.count("speculative.wasted") / speculated);
+        metrics.put("speculativeFailedRate", speculated == 0 ? 0.0 : (double) pipelineMetrics.count("speculative.failed") / speculated);
+        metrics.put("llm", geminiClient.getStats());
+        metrics.put("schemas", schemaRegistry.getStats());
+        metrics.put("nearDuplicateIndex", similarityIndex.getStats());
+        metrics.put("contentCompression", CompressedTextConverter.getStats());
+        metrics.put("secondLevelCache", cacheStatisticsService.getRegionStats());
+        metrics.put("hotFeeds", hotFeedService.getStats());
+        metrics.put("trending", trendingService.getStats());
+        metrics.put("uniqueReaders", uniqueReaderService.getStats());
+        return metrics;
+    }
 
-        log.info("✅ Vertex AI SDK initialization complete!");
+    // Second-level / query cache hit ratios for the admin dashboard
+    public Map<String, Map<String, Object>> getCacheStats() {
+        return cacheStatisticsService.getRegionStats();
     }
 
-    // --- Core Public Methods ---
     public List<Gazette> getAllGazettes() {
         return gazetteRepository.findAllWithCorrectSorting();
     }
-    public Gazette getGazetteById(Long id) { return gazetteRepository.findById(id).orElse(null); }
-    public void deleteGazette(Long id) { gazetteRepository.deleteById(id); }
-    public Gazette saveGazette(Gazette gazette) { return gazetteRepository.save(gazette); }
+    public Gazette getGazetteById(Long id) { return gazetteRepository.findWithBodyById(id).orElse(null); }
+
+    // Export reads every TEXT field, so the bodies are fetched with the notices
+    public List<Gazette> getAllGazettesForExport() {
+        return gazetteRepository.findAllWithBodyForExport();
+    }
+    public void deleteGazette(Long id) {
+        deletionService.deleteByIds(List.of(id));
+    }
+    public Gazette saveGazette(Gazette gazette) {
+        Gazette saved = gazetteRepository.save(gazette);
+        hotFeedService.offer(saved);
+        trendingService.offer(saved);
+        return saved;
+    }
     public String requestStopProcessing() {
         if (isProcessing.get()) {
             log.warn("ADMIN REQUEST: Stop processing signal received. Will stop on next notice.");
@@ -121,6 +222,14 @@ public class GazetteService {
         }
     }
     public Page<Gazette> listSuccessfulGazettesPaginated(int pageNum, int pageSize, String filter) {
+        if ("trending".equals(filter)) {
+            return trendingPage(null, pageNum, pageSize);
+        }
+        // The first pages come from the in-memory hot feeds; deeper pages query the database
+        Optional<Page<Gazette>> hot = hotFeedService.page(filter, null, pageNum, pageSize);
+        if (hot.isPresent()) {
+            return hot.get();
+        }
         Pageable pageable = PageRequest.of(pageNum - 1, pageSize);
 
         if ("popular".equals(filter)) {
@@ -134,123 +243,228 @@ public class GazetteService {
     }
 
     public Page<Gazette> listSuccessfulGazettesByCategory(String category, int pageNum, int pageSize, String filter) {
+        if ("trending".equals(filter)) {
+            return trendingPage(category, pageNum, pageSize);
+        }
+        Optional<Page<Gazette>> hot = hotFeedService.page(filter, category, pageNum, pageSize);
+        if (hot.isPresent()) {
+            return hot.get();
+        }
         Pageable pageable = PageRequest.of(pageNum - 1, pageSize);
 
         if ("popular".equals(filter)) {
-            return gazetteRepository.findAllSuccessfulOrderByPopularity(pageable);
+            return gazetteRepository.findAllSuccessfulByCategoryOrderByPopularity(category, pageable);
         } else if ("significant".equals(filter)) {
-            return gazetteRepository.findAllSuccessfulOrderBySignificance(pageable);
+            return gazetteRepository.findAllSuccessfulByCategoryOrderBySignificance(category, pageable);
         } else {
             // DEFAULT: "latest" now means "Recently Processed" (ID DESC)
-            return gazetteRepository.findAllSuccessfulOrderByRecentlyProcessed(pageable);
+            return gazetteRepository.findAllSuccessfulByCategoryOrderByRecentlyProcessed(category, pageable);
         }
     }
 
-    public List<Gazette> getAllGazettes(String filter) {
-        if ("oldest".equals(filter)) {
-            return gazetteRepository.findAllWithCorrectSorting();
-        } else if ("popular".equals(filter)) {
-            return gazetteRepository.findAllOrderByPopularity();
-        } else if ("significant".equals(filter)) {
-            return gazetteRepository.findAllOrderBySignificance();
-        } else {
-            // DEFAULT: "latest" (Recently Processed / ID DESC)
-            return gazetteRepository.findAllOrderByRecentlyProcessed();
+    // Trending is served from memory only; until its scores are loaded the popular feed stands in
+    private Page<Gazette> trendingPage(String category, int pageNum, int pageSize) {
+        return trendingService.page(category, pageNum, pageSize).orElseGet(() -> category == null
+                ? listSuccessfulGazettesPaginated(pageNum, pageSize, "popular")
+                : listSuccessfulGazettesByCategory(category, pageNum, pageSize, "popular"));
+    }
+
+    // --- Admin content grid: keyset pages of narrow rows, filtered server-side ---
+    public GazetteGridPage getAdminGridPage(GazetteGridFilter filter, String cursorToken, int pageSize) {
+        List<GazetteGridRow> rows;
+        try {
+            // One extra row tells us whether there is a next page without a second query
+            rows = gazetteRepository.findGridPage(filter, GazetteGridCursor.decode(cursorToken), pageSize + 1);
+        } catch (NumberFormatException | DateTimeParseException e) {
+            log.warn("Ignoring malformed admin grid cursor '{}'.", cursorToken);
+            rows = gazetteRepository.findGridPage(filter, null, pageSize + 1);
+        }
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = GazetteGridCursor.after(filter.sort(), rows.get(pageSize - 1)).encode();
         }
+        return new GazetteGridPage(rows, nextCursor, gazetteRepository.countGrid(filter));
+    }
+
+    public List<String> getCategoryNames() {
+        return gazetteRepository.findDistinctCategories();
     }
 
-    // --- NEW: Batch Filter ---
-    public List<Gazette> getGazettesByBatch(String gazetteNumber) {
-        return gazetteRepository.findAllByGazetteNumber(gazetteNumber);
+    /**
+     * Deletes every notice matching the grid filter ("select all" across pages).
+     * @return how many notices were deleted
+     */
+    public int deleteGazettesMatching(GazetteGridFilter filter) {
+        return deletionService.deleteByFilter(filter);
     }
 
     // --- NEW BATCH MANAGEMENT METHODS ---
-    public List<GazetteBatchDTO> getGazetteBatches() {
-        return gazetteRepository.findGazetteBatches();
+    public List<GazetteBatch> getGazetteBatches() {
+        return batchService.listBatches();
     }
 
+    // Notices go in one statement; the PDF file and its cached page images are removed after commit
     public void deleteGazetteBatch(String originalPdfPath) {
-        // 1. Delete the PDF file from storage
-        try {
-            Path pdfPath = Paths.get(originalPdfPath);
-            Files.deleteIfExists(pdfPath);
-            log.info("Deleted PDF file: {}", originalPdfPath);
-        } catch (IOException e) {
-            log.error("Failed to delete PDF file: {}. Error: {}", originalPdfPath, e.getMessage());
-        }
-
-        // 2. Delete all database entries associated with that file
-        gazetteRepository.deleteAllByOriginalPdfPath(originalPdfPath);
-        log.info("Deleted all database notices for path: {}", originalPdfPath);
+        deletionService.deleteBatch(originalPdfPath);
     }
     // --- END BATCH MANAGEMENT METHODS ---
 
 
+    // Callers hash the file while streaming it to disk, so the pipeline never re-reads it for the checksum
     @Async
-    public void processAndSavePdf(File file, String originalPdfPath) {
+    public void processAndSavePdf(File file, String originalPdfPath, String pdfSha256) {
+        processPdf(file, originalPdfPath, pdfSha256);
+    }
+
+    /**
+     * Synchronous variant used by the backfill crawler, which feeds gazettes one after another.
+     * @return true only if the gazette is now ingested (or already was); false if another job held the
+     * processing lock, another instance holds the issue, the pipeline failed or was stopped.
+     */
+    public boolean processPdf(File file, String originalPdfPath) {
+        return processPdf(file, originalPdfPath, null);
+    }
+
+    // True while a PDF or retry job holds the single-lane processing lock
+    public boolean isProcessing() {
+        return isProcessing.get();
+    }
+
+    private boolean processPdf(File file, String originalPdfPath, String pdfSha256) {
         if (!isProcessing.compareAndSet(false, true)) {
             log.warn("Cannot start PDF processing. Another job (like a retry) is already in progress.");
-            return;
+            return false;
         }
         stopProcessing.set(false);
 
         JSONObject overallGazetteDetails = null;
         String highQualityFullText = null;
+        GazetteBatch batch = null;
+        long startNanos = System.nanoTime();
+        boolean completed = false;
+        String issueLeaseKey = null;
 
         try (PDDocument document = PDDocument.load(file)) {
+            // --- Checksum dedup: identical PDFs never reach OCR or the LLM stages ---
+            if (pdfSha256 == null) {
+                pdfSha256 = pdfStorageService.sha256Of(file);
+            }
+            if (pdfStorageService.isAlreadyIngested(pdfSha256)) {
+                log.warn("PDF {} (sha256 {}) has already been ingested. Skipping.", file.getName(), pdfSha256);
+                return true;
+            }
+
             log.info(">>>> Starting async PDF processing for file: {}", file.getName());
 
             // --- [CALL 0] High-Fidelity Hybrid OCR Extraction (Phase 2.6) ---
+            long ocrStart = System.nanoTime();
             try {
-                highQualityFullText = extractHighFidelityTextFromPdf(document);
+                highQualityFullText = extractHighFidelityTextFromPdf(document, pdfSha256);
                 if (highQualityFullText == null || highQualityFullText.isBlank()) {
                     log.warn("Hybrid Vision OCR failed. Falling back to full PDFTextStripper for file: {}", file.getName());
-                    highQualityFullText = new PDFTextStripper().getText(document);
+                    highQualityFullText = pageDelimitedStripper().getText(document);
                 } else {
                     log.info("Successfully extracted hybrid text (Vision P1 + Stripper P2+).");
                 }
             } catch (Exception e) {
                 log.error("Critical error during Hybrid OCR step. Falling back to PDFTextStripper.", e);
-                highQualityFullText = new PDFTextStripper().getText(document);
+                highQualityFullText = pageDelimitedStripper().getText(document);
             }
+            long ocrMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ocrStart);
             // --- END OF CALL 0 ---
 
             if (highQualityFullText != null && !highQualityFullText.isBlank()) {
                 overallGazetteDetails = extractGazetteHeaderDetails(highQualityFullText);
             }
 
-            List<String> notices = segmentTextByNotices(highQualityFullText);
+            // --- Claim the issue so no other instance spends LLM calls on the same gazette ---
+            String leaseKey = gazetteLeaseKey(overallGazetteDetails);
+            if (leaseKey != null) {
+                if (!leaseService.tryAcquire(leaseKey, GAZETTE_LEASE_TTL)) {
+                    log.warn("Gazette in file {} is already being ingested by another instance. Skipping.", file.getName());
+                    return false;
+                }
+                issueLeaseKey = leaseKey;
+            }
+            if (originalPdfPath != null) {
+                batch = batchService.openBatch(originalPdfPath, pdfSha256, document.getNumberOfPages(), overallGazetteDetails, ocrMillis);
+            }
+
+            // --- Compaction: drop running headers/page numbers, dehyphenate, collapse layout whitespace ---
+            TextCompactor.Result compaction = TextCompactor.compactDocument(highQualityFullText);
+            final String fullText = compaction.text();
+            List<NoticeSegmenter.NoticeSpan> notices = segmentTextByNotices(fullText);
             log.info("PDF segmented into {} potential notices.", notices.size());
+            recordCompaction(compaction, Math.max(notices.size(), 1));
 
-            if (notices.isEmpty() && highQualityFullText != null && !highQualityFullText.isBlank()) {
+            if (notices.isEmpty() && !fullText.isBlank()) {
                 log.warn("Segmentation found 0 notices. Assuming a single-notice document.");
-                notices.add(highQualityFullText);
+                notices = List.of(NoticeSegmenter.whole(fullText));
                 log.info("Processing document as 1 single notice.");
             }
 
-            for (int i = 0; i < notices.size(); i++) {
-                String noticeText = notices.get(i);
-                int sourceOrder = i + 1;
-                log.info("-----> Processing Notice {}/{}...", sourceOrder, notices.size());
+            // --- PHASE 1: triage every notice (near-duplicates reuse their match's category) ---
+            List<TriagedNotice> triaged = new ArrayList<>(notices.size());
+            ExecutorService speculationPool = speculativeEnabled ? Executors.newFixedThreadPool(speculativeThreads) : null;
+            try {
+                for (int i = 0; i < notices.size(); i++) {
+                    if (stopProcessing.get()) {
+                        log.warn("Processing manually stopped by admin during triage at notice #{}", i + 1);
+                        return false;
+                    }
+                    // Only the notice being triaged is copied out of the full text
+                    triaged.add(triageNotice(notices.get(i).text(fullText), notices.get(i), i + 1, triaged, speculationPool));
+                }
+            } finally {
+                if (speculationPool != null) {
+                    speculationPool.shutdown();
+                }
+            }
+
+            // --- PHASE 2: adjacent same-kind Land_Property / Tenders notices share one digest article ---
+            List<List<TriagedNotice>> units = digestEnabled
+                    ? NoticeGrouper.groupAdjacent(triaged, this::digestKeyOf, digestMinItems, digestMaxItems)
+                    : triaged.stream().map(List::of).toList();
+            log.info("{} triaged notices form {} processing units.", triaged.size(), units.size());
+
+            // --- PHASE 3: extraction + generation per unit ---
+            for (List<TriagedNotice> unit : units) {
+                TriagedNotice first = unit.get(0);
+                int sourceOrder = first.sourceOrder();
 
                 if (stopProcessing.get()) {
                     log.warn("Processing manually stopped by admin at notice #{}", sourceOrder);
-                    break;
+                    return false;
                 }
-                Gazette gazette = null;
+                // Source orders of this unit already written, so the catch-all below only covers the rest
+                Set<Integer> saved = new HashSet<>();
                 try {
-                    // --- FIX: Pass originalPdfPath to the single notice processor ---
-                    gazette = processSingleNotice(noticeText, sourceOrder, overallGazetteDetails, originalPdfPath);
-
-                    if (gazette != null) {
-                        log.info("Saving {} article: '{}' (Cat: '{}', Num: {}, GazDate: {})",
-                                gazette.getStatus(), gazette.getTitle(), gazette.getCategory(), gazette.getNoticeNumber(), gazette.getGazetteDate());
-                        gazetteRepository.save(gazette);
+                    if (unit.size() == 1) {
+                        log.info("-----> Processing Notice {}/{}...", sourceOrder, notices.size());
+                        saveNotice(processTriagedNotice(first, first.span().text(fullText), overallGazetteDetails, originalPdfPath), batch, pdfSha256);
+                        saved.add(sourceOrder);
+                    } else {
+                        log.info("-----> Processing Notices {}-{}/{} as one {} digest...", sourceOrder, unit.get(unit.size() - 1).sourceOrder(), notices.size(), first.category());
+                        for (UnitRow row : processDigestUnit(unit, fullText, overallGazetteDetails, originalPdfPath)) {
+                            saveNotice(row.gazette(), batch, pdfSha256);
+                            saved.addAll(row.sourceOrders());
+                        }
                     }
+                } catch (DataIntegrityViolationException e) {
+                    // (gazetteNumber, gazetteDate, sourceOrder) already exists: another node got here first
+                    log.warn("Notice #{} of this gazette was already ingested elsewhere. Stopping to avoid duplicate work.", sourceOrder);
+                    break;
                 } catch (Exception e) {
                     log.error("Error processing or checking notice #{}. Creating a fallback.", sourceOrder, e);
-                    // --- FIX: Pass the 5th argument: originalPdfPath ---
-                    gazetteRepository.save(createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, "Unhandled pipeline error", originalPdfPath));
+                    for (TriagedNotice notice : unit) {
+                        if (saved.contains(notice.sourceOrder())) {
+                            continue;
+                        }
+                        // --- FIX: Pass the 5th argument: originalPdfPath ---
+                        Gazette fallback = createFallbackGazette(notice.span().text(fullText), notice.sourceOrder(), overallGazetteDetails, "Unhandled pipeline error", originalPdfPath);
+                        saveNotice(fallback, batch, pdfSha256);
+                    }
                 }
 
                 try {
@@ -262,57 +476,58 @@ public class GazetteService {
                 }
             }
             log.info("<<<< Successfully finished processing PDF file: {}", file.getName());
+            completed = true;
         } catch (Exception e) {
             log.error("Critical error during PDF processing pipeline for file: {}", file.getName(), e);
         } finally {
+            batchService.finish(batch, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+            if (!completed && issueLeaseKey != null) {
+                // Failed or stopped: the issue can be retried right away, here or on another instance
+                leaseService.release(issueLeaseKey);
+            }
             isProcessing.set(false);
             stopProcessing.set(false);
             log.info("Processing lock released.");
         }
+        return completed;
     }
 
 
-    private String extractHighFidelityTextFromPdf(PDDocument document) throws IOException, InterruptedException {
-        log.info("Starting Vision OCR for FIRST PAGE ONLY...");
-        PDFRenderer pdfRenderer = new PDFRenderer(document);
-        List<Part> partsList = new ArrayList<>();
-
-        partsList.add(Part.newBuilder().setText("""
-                You are a high-fidelity Optical Character Recognition (OCR) service.
-                Extract all text from the following page image, perfectly preserving all original line breaks, spacing, and formatting.
-                Return ONLY the extracted text, with no other commentary.
-                """).build());
-
-        if (document.getNumberOfPages() > 0) {
-            BufferedImage bim = pdfRenderer.renderImageWithDPI(0, 300);
-            byte[] imageBytes;
-            try (ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-                ImageIO.write(bim, "jpeg", baos);
-                imageBytes = baos.toByteArray();
-            }
+    // null when there is nothing to key the lease on; the unique constraint still guards the rows
+    private String gazetteLeaseKey(JSONObject overallGazetteDetails) {
+        if (overallGazetteDetails == null) {
+            return null;
+        }
+        String number = overallGazetteDetails.optString("gazetteNumber", "");
+        String date = overallGazetteDetails.optString("gazetteDate", "");
+        if (number.isBlank() || date.isBlank()) {
+            return null;
+        }
+        try {
+            return ProcessingLeaseService.gazetteLeaseKey(number, LocalDate.parse(date));
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
 
-            partsList.add(Part.newBuilder()
-                    .setInlineData(
-                            Blob.newBuilder()
-                                    .setMimeType("image/jpeg")
-                                    .setData(ByteString.copyFrom(imageBytes))
-                                    .build()
-                    )
-                    .build());
-        } else {
+    private String extractHighFidelityTextFromPdf(PDDocument document, String pdfSha256) throws IOException, InterruptedException {
+        log.info("Starting Vision OCR for FIRST PAGE ONLY...");
+        if (document.getNumberOfPages() == 0) {
             log.warn("PDF has 0 pages. Cannot perform Vision OCR.");
             return null;
         }
 
-        String firstPageCleanText = generateWithRetry(geminiFlashModel, partsList);
+        // Rendered once per PDF hash; retries and re-runs read the cached image
+        PageImageRenderer.RenderedPage page = pageImageRenderer.renderForOcr(document, 0, pdfSha256);
+        String firstPageCleanText = ocrPageImage(page);
 
         if (firstPageCleanText != null) {
-            StringBuilder fullCleanText = new StringBuilder(firstPageCleanText).append("\n\n");
+            StringBuilder fullCleanText = new StringBuilder(firstPageCleanText).append(TextCompactor.PAGE_BREAK);
             log.info("Successfully extracted high-fidelity text for Page 1.");
 
             if (document.getNumberOfPages() > 1) {
                 log.info("Using fast PDFTextStripper for pages 2 through {}.", document.getNumberOfPages());
-                PDFTextStripper stripper = new PDFTextStripper();
+                PDFTextStripper stripper = pageDelimitedStripper();
                 stripper.setStartPage(2);
                 stripper.setEndPage(document.getNumberOfPages());
                 String restOfDocumentText = stripper.getText(document);
@@ -325,31 +540,90 @@ public class GazetteService {
         }
     }
 
-    private List<String> segmentTextByNotices(String fullText) {
-        List<String> notices = new ArrayList<>();
-        final Pattern pattern = Pattern.compile("(?m)^GAZETTE NOTICE NO\\.\\s*\\d+", Pattern.CASE_INSENSITIVE);
-        Matcher matcher = pattern.matcher(fullText);
-        int lastEnd = 0;
-        while (matcher.find()) {
-            if (matcher.start() > lastEnd) {
-                String notice = fullText.substring(lastEnd, matcher.start()).trim();
-                if (!notice.isEmpty()) {
-                    notices.add(notice);
-                }
-            }
-            lastEnd = matcher.start();
+    /**
+     * OCR benchmark on page 1 of a stored gazette PDF: renders it at several DPI/format/quality settings,
+     * OCRs each image and scores it against the page's text layer. One row per setting with payload
+     * size, render and OCR time, and word-level accuracy (F1). Pages are always rendered afresh: the page
+     * cache is bypassed, so renderMs never reports a disk read.
+     */
+    public List<Map<String, Object>> benchmarkOcrRendering(Long gazetteId) throws IOException {
+        Gazette gazette = getGazetteById(gazetteId);
+        if (gazette == null || gazette.getOriginalPdfPath() == null || !new File(gazette.getOriginalPdfPath()).exists()) {
+            throw new FileNotFoundException("No stored PDF for notice #" + gazetteId);
         }
-        if (lastEnd < fullText.length()) {
-            String lastNotice = fullText.substring(lastEnd).trim();
-            if (!lastNotice.isEmpty()) {
-                notices.add(lastNotice);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        try (PDDocument document = PDDocument.load(new File(gazette.getOriginalPdfPath()))) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setStartPage(1);
+            stripper.setEndPage(1);
+            String reference = stripper.getText(document);
+
+            // WebP falls back to JPEG (reported in the "format" column) unless an ImageIO WebP plugin is present
+            for (int dpi : new int[] {150, 200, 250, 300}) {
+                for (String[] option : new String[][] {{"jpeg", "0.75"}, {"jpeg", "0.9"}, {"png", "1"}, {"webp", "0.8"}}) {
+                    long renderStart = System.nanoTime();
+                    // No cache key: a cached image from ingestion or an earlier run would time a file read
+                    PageImageRenderer.RenderedPage page = pageImageRenderer.render(document, 0, null,
+                            dpi, option[0], Float.parseFloat(option[1]));
+                    long renderMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - renderStart);
+                    long ocrStart = System.nanoTime();
+                    String ocrText = ocrPageImage(page);
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    row.put("dpi", dpi);
+                    row.put("format", page.format());
+                    row.put("quality", Float.parseFloat(option[1]));
+                    row.put("payloadKb", page.bytes().length / 1024);
+                    row.put("renderMs", renderMillis);
+                    row.put("ocrMs", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - ocrStart));
+                    row.put("wordF1", ocrText == null ? 0.0 : PageImageRenderer.wordF1(reference, ocrText));
+                    rows.add(row);
+                    log.info("OCR benchmark row: {}", row);
+                }
             }
         }
+        return rows;
+    }
 
-        if (!notices.isEmpty() && !pattern.matcher(notices.get(0)).find()) {
-            log.info("Removing potential header text from segmentation.");
-            notices.remove(0);
-        }
+    private String ocrPageImage(PageImageRenderer.RenderedPage page) {
+        List<Part> partsList = new ArrayList<>();
+        partsList.add(Part.newBuilder().setText("""
+                You are a high-fidelity Optical Character Recognition (OCR) service.
+                Extract all text from the following page image, perfectly preserving all original line breaks, spacing, and formatting.
+                Return ONLY the extracted text, with no other commentary.
+                """).build());
+        partsList.add(Part.newBuilder()
+                .setInlineData(
+                        Blob.newBuilder()
+                                .setMimeType(page.mimeType())
+                                .setData(ByteString.copyFrom(page.bytes()))
+                                .build()
+                )
+                .build());
+        return geminiClient.generate("ocr.page1", GeminiClient.ModelTier.FLASH, partsList);
+    }
+
+    // Page ends are marked so TextCompactor can find running headers/footers
+    private PDFTextStripper pageDelimitedStripper() throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setPageEnd(TextCompactor.PAGE_BREAK);
+        return stripper;
+    }
+
+    private void recordCompaction(TextCompactor.Result compaction, int noticeCount) {
+        pipelineMetrics.add("compaction.charsBefore", compaction.charsBefore());
+        pipelineMetrics.add("compaction.charsAfter", compaction.charsAfter());
+        pipelineMetrics.add("compaction.runningLinesRemoved", compaction.runningLinesRemoved());
+        pipelineMetrics.add("compaction.tokensSaved", compaction.tokensSaved());
+        pipelineMetrics.add("compaction.notices", noticeCount);
+        log.info("Compaction: {} -> {} chars, {} running header/footer lines removed, ~{} tokens saved (~{} per notice).",
+                compaction.charsBefore(), compaction.charsAfter(), compaction.runningLinesRemoved(),
+                compaction.tokensSaved(), compaction.tokensSaved() / noticeCount);
+    }
+
+    private List<NoticeSegmenter.NoticeSpan> segmentTextByNotices(String fullText) {
+        long start = System.nanoTime();
+        List<NoticeSegmenter.NoticeSpan> notices = NoticeSegmenter.segment(fullText);
+        log.debug("Segmented {} chars into {} notices in {} µs.", fullText.length(), notices.size(), (System.nanoTime() - start) / 1000);
         return notices;
     }
 
@@ -372,7 +646,7 @@ public class GazetteService {
         }
         """.formatted(headerText.substring(0, Math.min(headerText.length(), 2000)));
 
-        String jsonResponse = generateWithRetry(geminiFlashModel, prompt);
+        String jsonResponse = geminiClient.generate("header", GeminiClient.ModelTier.FLASH, prompt);
         JSONObject headerDetails = parseSafeJson(jsonResponse);
 
         if (headerDetails == null) {
@@ -383,28 +657,438 @@ public class GazetteService {
         return headerDetails;
     }
 
-    // --- NEW: processSingleNotice with correct signature ---
-    private Gazette processSingleNotice(String noticeText, int sourceOrder, JSONObject overallGazetteDetails, String originalPdfPath) {
+    // A notice after PHASE 1: its place in the text and everything known before extraction.
+    // siblingOrder > 0: a near-duplicate of that earlier notice of the same PDF, not saved yet at triage time
+    private record TriagedNotice(int sourceOrder, NoticeSegmenter.NoticeSpan span, long simhash,
+                                 String category, String kind, Gazette template, int siblingOrder,
+                                 ExtractionResult prefetched) { }
+
+    private TriagedNotice triageNotice(String noticeText, NoticeSegmenter.NoticeSpan span, int sourceOrder,
+                                       List<TriagedNotice> earlier, ExecutorService speculationPool) {
+        long simhash = SimHash.of(noticeText);
+        String kind = NoticeGrouper.kindOf(noticeText);
+        Gazette template = findNearDuplicateTemplate(simhash, sourceOrder);
+        if (template != null) {
+            // --- STEP 1 skipped: a near-duplicate reuses its match's category ---
+            return new TriagedNotice(sourceOrder, span, simhash, template.getCategory(), kind, template, 0, null);
+        }
+        TriagedNotice sibling = findNearDuplicateSibling(simhash, earlier);
+        if (sibling != null) {
+            // Same for an earlier notice of this PDF; its article is looked up once it has been saved (PHASE 3)
+            log.debug("Notice segment {} is a near-duplicate of notice segment {} in the same PDF.", sourceOrder, sibling.sourceOrder());
+            pipelineMetrics.increment("neardup.siblingHits");
+            return new TriagedNotice(sourceOrder, span, simhash, sibling.category(), kind, null, sibling.sourceOrder(), null);
+        }
+
+        long start = System.nanoTime();
+        // --- SPECULATION: extract with the locally predicted schema while Flash triages ---
+        String predicted = (speculationPool != null) ? NoticePreClassifier.predict(noticeText) : null;
+        Future<ExtractionResult> speculative = null;
+        if (predicted != null && !isFastPathCandidate(noticeText, predicted)) {
+            pipelineMetrics.increment("speculative.started");
+            speculative = speculationPool.submit(() -> runExtractionStage(noticeText, predicted, sourceOrder));
+        }
 
-        // --- STEP 1: AI Triage ---
-        String category = triageNoticeCategory(noticeText);
+        String category;
+        try {
+            // --- STEP 1: AI Triage ---
+            category = triageNoticeCategory(noticeText);
+        } catch (Exception e) {
+            log.error("Triage crashed for notice segment {}.", sourceOrder, e);
+            category = null;
+        }
+        pipelineMetrics.record("stage.triage", System.nanoTime() - start, category != null);
+        if (category != null) {
+            log.info("Triage complete for notice segment {}. Category: {}", sourceOrder, category);
+        }
 
-        if (category == null) {
+        ExtractionResult prefetched = null;
+        if (speculative != null) {
+            if (predicted.equals(category)) {
+                prefetched = awaitSpeculation(speculative, sourceOrder);
+                boolean usable = prefetched != null && prefetched.items() != null;
+                pipelineMetrics.increment(usable ? "speculative.kept" : "speculative.failed");
+                pipelineMetrics.record("speculative.triageAndExtraction", System.nanoTime() - start, usable);
+                if (!usable) {
+                    // A failed speculative call is not reused; the standard path extracts once more
+                    prefetched = null;
+                }
+            } else {
+                // The call is already paid for; let it finish and drop the result
+                log.info("Speculative extraction for notice segment {} discarded: predicted {}, triage said {}.", sourceOrder, predicted, category);
+                speculative.cancel(false);
+                pipelineMetrics.increment("speculative.wasted");
+            }
+        }
+        return new TriagedNotice(sourceOrder, span, simhash, category, kind, null, 0, prefetched);
+    }
+
+    // The closest already-triaged notice of the same PDF within the index's distance; none of them is indexed yet
+    private TriagedNotice findNearDuplicateSibling(long simhash, List<TriagedNotice> earlier) {
+        if (!nearDuplicateEnabled) {
+            return null;
+        }
+        TriagedNotice best = null;
+        int bestDistance = similarityIndex.maxDistance() + 1;
+        for (TriagedNotice notice : earlier) {
+            int distance = SimHash.distance(simhash, notice.simhash());
+            if (notice.category() != null && distance < bestDistance) {
+                best = notice;
+                bestDistance = distance;
+            }
+        }
+        return best;
+    }
+
+    private ExtractionResult awaitSpeculation(Future<ExtractionResult> speculative, int sourceOrder) {
+        try {
+            return speculative.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("Speculative extraction for notice segment {} failed: {}", sourceOrder, e.getMessage());
+        }
+        return null;
+    }
+
+    // Notices with the same key and adjacent in the gazette are grouped; null = never grouped
+    private String digestKeyOf(TriagedNotice notice) {
+        if (notice.category() == null || !digestCategories.contains(notice.category())) {
+            return null;
+        }
+        return notice.category() + "|" + notice.kind();
+    }
+
+    private void saveNotice(Gazette gazette, GazetteBatch batch, String pdfSha256) {
+        if (gazette == null) {
+            return;
+        }
+        log.info("Saving {} article: '{}' (Cat: '{}', Num: {}, GazDate: {})",
+                gazette.getStatus(), gazette.getTitle(), gazette.getCategory(), gazette.getNoticeNumber(), gazette.getGazetteDate());
+        gazette.setBatch(batch);
+        gazette.setPdfSha256(pdfSha256);
+        Gazette saved = gazetteRepository.save(gazette);
+        similarityIndex.add(saved);
+        hotFeedService.offer(saved);
+        trendingService.offer(saved);
+        batchService.noticeSaved(batch, gazette.getStatus());
+    }
+
+    // --- NEW: processTriagedNotice with correct signature ---
+    private Gazette processTriagedNotice(TriagedNotice notice, String noticeText, JSONObject overallGazetteDetails, String originalPdfPath) {
+        int sourceOrder = notice.sourceOrder();
+        Gazette gazette;
+        if (notice.category() == null) {
             log.warn("Triage failed for notice segment {}. Creating fallback.", sourceOrder);
             // --- FIX: Pass all required arguments ---
-            return createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, "Triage failed", originalPdfPath);
+            gazette = createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, "Triage failed", originalPdfPath);
+        } else {
+            // Units are processed in source order, so a sibling matched at triage has been saved and indexed by now
+            Gazette template = (notice.template() == null && notice.siblingOrder() > 0)
+                    ? findNearDuplicateTemplate(notice.simhash(), sourceOrder)
+                    : notice.template();
+            gazette = (template != null)
+                    ? processNearDuplicate(noticeText, template, sourceOrder, overallGazetteDetails, originalPdfPath)
+                    : processNewNotice(noticeText, notice.category(), notice.prefetched(), sourceOrder, overallGazetteDetails, originalPdfPath);
         }
-        log.info("Triage complete for notice segment {}. Category: {}", sourceOrder, category);
+        gazette.setContentSimhash(notice.simhash());
+        return gazette;
+    }
 
-        // --- STEP 2: AI Extraction ---
-        String schemaPath = "/schemas/field/" + category.toLowerCase() + ".json";
-        String schemaContent = loadSchemaFile(schemaPath);
-        if (schemaContent.isEmpty()) {
-            log.error("Schema file not found for category '{}' (Notice {}). Searched two paths. Creating fallback.", category, sourceOrder);
-            // --- FIX: Pass all required arguments ---
-            return createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, "Schema file not found", originalPdfPath);
+    // A row to save and the notices it stands for: one, or every notice grouped into a digest
+    private record UnitRow(Gazette gazette, List<Integer> sourceOrders) { }
+
+    /**
+     * Extracts every notice of a digest unit separately, then writes ONE article for all of their rows.
+     * Notices whose extraction fails are returned as their own fallbacks so a retry can pick them up.
+     */
+    private List<UnitRow> processDigestUnit(List<TriagedNotice> unit, String fullText, JSONObject overallGazetteDetails, String originalPdfPath) {
+        long start = System.nanoTime();
+        String category = unit.get(0).category();
+        List<UnitRow> results = new ArrayList<>();
+        List<TriagedNotice> included = new ArrayList<>();
+        List<String> noticeNumbers = new ArrayList<>();
+        JSONArray rows = new JSONArray();
+        StringBuilder content = new StringBuilder();
+
+        for (TriagedNotice notice : unit) {
+            if (stopProcessing.get()) {
+                break;
+            }
+            String noticeText = notice.span().text(fullText);
+            ExtractionResult extraction = (notice.prefetched() != null)
+                    ? notice.prefetched()
+                    : runExtractionStage(noticeText, category, notice.sourceOrder());
+            if (extraction.items() == null) {
+                Gazette fallback = createFallbackGazette(noticeText, notice.sourceOrder(), overallGazetteDetails, extraction.failureReason(), originalPdfPath);
+                results.add(new UnitRow(checkpoint(fallback, ProcessingStage.TRIAGED, category, null), List.of(notice.sourceOrder())));
+                continue;
+            }
+            if (extraction.items() instanceof JSONArray items) {
+                items.forEach(rows::put);
+            } else {
+                rows.put(extraction.items());
+            }
+            if (content.length() > 0) {
+                content.append("\n\n");
+            }
+            content.append(noticeText);
+            included.add(notice);
+            String number = NoticeSegmenter.findNoticeNumber(noticeText);
+            if (number != null) {
+                noticeNumbers.add(number);
+            }
+        }
+        if (included.isEmpty()) {
+            return results;
+        }
+
+        // The generation prompt already writes a single digest when given an array of Land_Property / Tenders rows
+        Object extractedData = (rows.length() == 1) ? rows.get(0) : rows;
+        JSONObject generatedContent = generateNarrativeContent(extractedData, category);
+        if (generatedContent == null) {
+            log.error("Digest generation failed for notices {}-{}. Saving with extracted data only.",
+                    included.get(0).sourceOrder(), included.get(included.size() - 1).sourceOrder());
+        }
+
+        Gazette digest = createGazetteFromJson(extractedData, generatedContent, content.toString(), category,
+                included.get(0).sourceOrder(), overallGazetteDetails, originalPdfPath);
+        if (included.size() == 1) {
+            digest.setContentSimhash(included.get(0).simhash());
+        } else if (!noticeNumbers.isEmpty()) {
+            digest.setNoticeNumber(noticeNumbers.get(0) + "-" + noticeNumbers.get(noticeNumbers.size() - 1));
+        }
+        results.add(0, new UnitRow(digest, included.stream().map(TriagedNotice::sourceOrder).toList()));
+
+        pipelineMetrics.record("path.digest", System.nanoTime() - start, generatedContent != null);
+        pipelineMetrics.add("digest.noticesGrouped", included.size());
+        pipelineMetrics.add("digest.generationCallsSaved", included.size() - 1);
+        log.info("Digest of {} notices ({} rows) generated with one call.", included.size(), rows.length());
+        return results;
+    }
+
+    private Gazette processNewNotice(String noticeText, String category, ExtractionResult prefetched, int sourceOrder,
+                                     JSONObject overallGazetteDetails, String originalPdfPath) {
+
+        // --- FAST PATH: short boilerplate notices get extraction + generation in ONE call ---
+        if (prefetched == null && isFastPathCandidate(noticeText, category)) {
+            long fastStart = System.nanoTime();
+            Gazette combined = runCombinedStage(noticeText, category, sourceOrder, overallGazetteDetails, originalPdfPath);
+            pipelineMetrics.record("path.fast", System.nanoTime() - fastStart, combined != null);
+            if (combined != null) {
+                return combined;
+            }
+            log.info("Fast path rejected for notice segment {}. Falling back to extraction + generation.", sourceOrder);
+        }
+
+        long start = System.nanoTime();
+        Gazette gazette = runTwoCallPath(noticeText, category, null, prefetched, sourceOrder, overallGazetteDetails, originalPdfPath);
+        pipelineMetrics.record("path.standard", System.nanoTime() - start, gazette.getProcessingStage() == ProcessingStage.GENERATED);
+        return gazette;
+    }
+
+    // --- NEAR-DUPLICATE PATH: reuse the matched notice's category (no triage) and rewrite its article on Flash ---
+    private Gazette processNearDuplicate(String noticeText, Gazette template, int sourceOrder, JSONObject overallGazetteDetails, String originalPdfPath) {
+        long start = System.nanoTime();
+        String category = template.getCategory();
+        log.info("Notice segment {} is a near-duplicate of notice #{}. Reusing category {}.", sourceOrder, template.getId(), category);
+        Gazette gazette = runTwoCallPath(noticeText, category, template, null, sourceOrder, overallGazetteDetails, originalPdfPath);
+        pipelineMetrics.record("path.neardup", System.nanoTime() - start, gazette.getProcessingStage() == ProcessingStage.GENERATED);
+        return gazette;
+    }
+
+    private Gazette findNearDuplicateTemplate(long simhash, int sourceOrder) {
+        if (!nearDuplicateEnabled) {
+            return null;
+        }
+        NoticeSimilarityIndex.Match match = similarityIndex.findNearDuplicate(simhash).orElse(null);
+        if (match == null) {
+            return null;
+        }
+        Gazette template = gazetteRepository.findWithBodyById(match.entry().id()).orElse(null);
+        if (template == null || template.getStatus() != ProcessingStatus.SUCCESS || template.getArticle() == null) {
+            // Deleted or reprocessed since it was indexed
+            similarityIndex.remove(match.entry().id());
+            return null;
+        }
+        log.debug("Notice segment {} matched notice #{} at Hamming distance {}.", sourceOrder, template.getId(), match.distance());
+        pipelineMetrics.increment("neardup.hits");
+        return template;
+    }
+
+    private Gazette runTwoCallPath(String noticeText, String category, Gazette template, ExtractionResult prefetched,
+                                   int sourceOrder, JSONObject overallGazetteDetails, String originalPdfPath) {
+        // --- STEP 2: AI Extraction (already done if the speculative extraction matched triage) ---
+        ExtractionResult extraction = (prefetched != null) ? prefetched : runExtractionStage(noticeText, category, sourceOrder);
+        if (extraction.items() == null) {
+            Gazette fallback = createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, extraction.failureReason(), originalPdfPath);
+            return checkpoint(fallback, ProcessingStage.TRIAGED, category, null);
+        }
+        Object extractedData = extraction.items();
+
+        // --- STEP 3: AI Generation ---
+        JSONObject generatedContent = (template != null) ? generateFromTemplate(extractedData, template) : null;
+        if (generatedContent == null) {
+            generatedContent = generateNarrativeContent(extractedData, category);
+        }
+
+        if (generatedContent == null) {
+            log.error("Generation step failed for notice segment {}. Saving with extracted data only.", sourceOrder);
+        } else {
+            log.info("Generation complete for notice segment {}.", sourceOrder);
+        }
+
+        // --- FIX: Pass originalPdfPath to final creator method ---
+        return createGazetteFromJson(extractedData, generatedContent, noticeText, category, sourceOrder, overallGazetteDetails, originalPdfPath);
+    }
+
+    private boolean isFastPathCandidate(String noticeText, String category) {
+        return fastPathEnabled && noticeText.length() <= fastPathMaxChars && fastPathCategories.contains(category);
+    }
+
+    /**
+     * Extraction and generation in a single call. Returns null (caller falls back to the two-call
+     * path) unless every item passes schema validation and the narrative fields are all present.
+     */
+    private Gazette runCombinedStage(String noticeText, String category, int sourceOrder, JSONObject overallGazetteDetails, String originalPdfPath) {
+        ExtractionSchemaRegistry.CategorySchema schema = schemaRegistry.forCategory(category).orElse(null);
+        if (schema == null) {
+            return null;
+        }
+        String combinedPrompt = """
+        You are an expert editorial assistant for Smart Gazette, simplifying Kenyan government notices for young readers.
+        From the short gazette notice below, return ONE valid JSON object with these keys:
+        - items: the structured data, following the SCHEMA below ({ ... } for one item, [ { ... } ] for several).
+        - title: Clear, engaging headline.
+        - summary: One-sentence key takeaway.
+        - article: Plain, human-readable article (150-300 words) in full paragraphs. No markdown.
+        - xSummary: Engaging, informative summary under 276 characters, without hashtags.
+        - actionableInfo: If the notice states an objection period or deadline, state that exact period
+          (e.g. "Submit objections within sixty (60) days from the notice date."). Otherwise say what the reader can do.
+        - significance: Integer 1-10, how important this notice is to the general public.
+        Return ONLY the JSON object.
+
+        SCHEMA:
+        %s
+
+        TEXT:
+        %s
+        """.formatted(schema.schemaText(), fitToPromptBudget(noticeText, extractionTokenBudget));
+
+        String route = "combined";
+        GeminiClient.ModelTier tier = modelRouter.route(route, category);
+        JSONObject combined = parseExtractionJson(route, tier, geminiClient.generate(route, tier, combinedPrompt));
+        if (combined == null || !combined.has("items")) {
+            return null;
+        }
+        Object items = combined.get("items");
+        JSONArray itemArray = (items instanceof JSONArray array) ? array : new JSONArray().put(items);
+        if (itemArray.isEmpty() || (items instanceof JSONObject object && object.isEmpty())) {
+            return null;
+        }
+        for (int i = 0; i < itemArray.length(); i++) {
+            List<String> errors = schemaRegistry.validateItem(category, itemArray.get(i));
+            if (!errors.isEmpty()) {
+                log.info("Fast path item {} of notice {} failed validation: {}", i, sourceOrder, errors);
+                return null;
+            }
+        }
+        for (String field : List.of("title", "summary", "article", "xSummary", "actionableInfo")) {
+            if (combined.optString(field, "").isBlank()) {
+                log.info("Fast path response for notice {} is missing '{}'.", sourceOrder, field);
+                return null;
+            }
+        }
+
+        log.info("Fast path complete for notice segment {} (1 call).", sourceOrder);
+        return createGazetteFromJson(items, combined, noticeText, category, sourceOrder, overallGazetteDetails, originalPdfPath);
+    }
+
+    // Outcome of STEP 2: either the extracted 'items' or the reason extraction failed
+    private record ExtractionResult(Object items, String failureReason) {
+        static ExtractionResult failed(String reason) { return new ExtractionResult(null, reason); }
+    }
+
+    private ExtractionResult runExtractionStage(String noticeText, String category, int sourceOrder) {
+        long start = System.nanoTime();
+        ExtractionResult result = extractAndValidate(noticeText, category, sourceOrder);
+        pipelineMetrics.record("stage.extraction", System.nanoTime() - start, result.items() != null);
+        return result;
+    }
+
+    private ExtractionResult extractAndValidate(String noticeText, String category, int sourceOrder) {
+        ExtractionSchemaRegistry.CategorySchema schema = schemaRegistry.forCategory(category).orElse(null);
+        if (schema == null) {
+            log.error("Schema file not found for category '{}' (Notice {}). Creating fallback.", category, sourceOrder);
+            return ExtractionResult.failed("Schema file not found");
+        }
+
+        boolean structured = switch (extractionMode) {
+            case "structured" -> true;
+            case "split" -> sourceOrder % 2 == 0;
+            default -> false;
+        };
+        GeminiClient.ModelTier tier = modelRouter.route("extraction", category);
+        ExtractionResult extraction = extractItems(noticeText, schema, structured, tier, sourceOrder);
+
+        // Flash-routed categories are escalated to Pro when Flash's output is unusable or fails the schema
+        if (tier == GeminiClient.ModelTier.FLASH && (extraction.items() == null || !allItemsValid(category, extraction.items()))) {
+            log.info("Escalating extraction of notice segment {} ({}) from Flash to Pro.", sourceOrder, category);
+            pipelineMetrics.increment("escalations.extraction");
+            ExtractionResult escalated = extractItems(noticeText, schema, structured, GeminiClient.ModelTier.PRO, sourceOrder);
+            if (escalated.items() != null || extraction.items() == null) {
+                extraction = escalated;
+            }
+        }
+        if (extraction.items() == null) {
+            return extraction;
+        }
+
+        Object extractedData = revalidateInvalidItems(extraction.items(), noticeText, category, sourceOrder);
+
+        log.info("Extraction complete for notice segment {} ({} mode).", sourceOrder, structured ? "structured" : "prompt");
+        return new ExtractionResult(extractedData, null);
+    }
+
+    private ExtractionResult extractItems(String noticeText, ExtractionSchemaRegistry.CategorySchema schema, boolean structured,
+                                          GeminiClient.ModelTier tier, int sourceOrder) {
+        JSONObject extractedDataWrapper = structured
+                ? extractStructured(noticeText, schema.category(), tier)
+                : extractWithPromptSchema(noticeText, schema.schemaText(), tier);
+
+        if (extractedDataWrapper == null || !extractedDataWrapper.has("items")) {
+            log.error("Extraction failed for notice segment {}. AI did not return a valid 'items' wrapper.", sourceOrder);
+            return ExtractionResult.failed("Extraction failed: no 'items' wrapper");
+        }
+        Object extractedData = extractedDataWrapper.get("items");
+
+        // JSON mode always answers with an array; a single item is stored as an object like the prompt mode does
+        if (extractedData instanceof JSONArray array && array.length() == 1) {
+            extractedData = array.get(0);
+        }
+
+        boolean isNull = extractedData == null || extractedData == JSONObject.NULL;
+        boolean isEmptyObject = (extractedData instanceof JSONObject) && ((JSONObject) extractedData).isEmpty();
+        boolean isEmptyArray = (extractedData instanceof JSONArray) && ((JSONArray) extractedData).isEmpty();
+
+        if (isNull || isEmptyObject || isEmptyArray) {
+            log.error("Extraction failed for notice segment {}. AI returned 'items' as null or an empty object.", sourceOrder);
+            return ExtractionResult.failed("Extraction failed: 'items' was null or empty");
+        }
+        return new ExtractionResult(extractedData, null);
+    }
+
+    private boolean allItemsValid(String category, Object extractedData) {
+        JSONArray items = (extractedData instanceof JSONArray array) ? array : new JSONArray().put(extractedData);
+        for (int i = 0; i < items.length(); i++) {
+            if (!schemaRegistry.validateItem(category, items.get(i)).isEmpty()) {
+                return false;
+            }
         }
+        return true;
+    }
 
+    private JSONObject extractWithPromptSchema(String noticeText, String schemaContent, GeminiClient.ModelTier tier) {
         String extractionPrompt = """
         Extract structured data from the text below according to the provided JSON schema.
         CRITICAL RULES:
@@ -422,40 +1106,115 @@ public class GazetteService {
         
         Return format (if one item): { "items": { ... } }
         Return format (if multiple items): { "items": [ { ... }, { ... } ] }
-        """.formatted(schemaContent, noticeText);
+        """.formatted(schemaContent, fitToPromptBudget(noticeText, extractionTokenBudget));
 
-        String jsonResponse = generateWithRetry(geminiProModel, extractionPrompt);
-        JSONObject extractedDataWrapper = parseSafeJson(jsonResponse);
+        String route = "extraction.prompt";
+        return parseExtractionJson(route, tier, geminiClient.generate(route, tier, extractionPrompt));
+    }
 
-        if (extractedDataWrapper == null || !extractedDataWrapper.has("items")) {
-            log.error("Extraction failed for notice segment {}. AI did not return a valid 'items' wrapper.", sourceOrder);
-            // --- FIX: Pass all required arguments ---
-            return createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, "Extraction failed: no 'items' wrapper", originalPdfPath);
-        }
-        Object extractedData = extractedDataWrapper.get("items");
+    // The schema travels as the model's responseSchema, so the prompt only carries the notice
+    private JSONObject extractStructured(String noticeText, String category, GeminiClient.ModelTier tier) {
+        String extractionPrompt = """
+        Extract every item described in the gazette notice below. Put each item in the "items" array.
+        Use an empty string for any field that the text does not state. Do not invent values.
 
-        boolean isNull = extractedData == null || extractedData == JSONObject.NULL;
-        boolean isEmptyObject = (extractedData instanceof JSONObject) && ((JSONObject) extractedData).isEmpty();
+        TEXT TO EXTRACT:
+        %s
+        """.formatted(fitToPromptBudget(noticeText, extractionTokenBudget));
 
-        if (isNull || isEmptyObject) {
-            log.error("Extraction failed for notice segment {}. AI returned 'items' as null or an empty object.", sourceOrder);
-            // --- FIX: Pass all required arguments ---
-            return createFallbackGazette(noticeText, sourceOrder, overallGazetteDetails, "Extraction failed: 'items' was null or empty", originalPdfPath);
+        String route = "extraction.structured";
+        return parseExtractionJson(route, tier, geminiClient.generateStructured(route, tier, category, extractionPrompt).orElse(null));
+    }
+
+    // Strict parse first; a response that only parses after repair is counted against its route
+    private JSONObject parseExtractionJson(String route, GeminiClient.ModelTier tier, String response) {
+        if (response == null || response.isBlank()) {
+            return null;
+        }
+        try {
+            return new JSONObject(response);
+        } catch (JSONException e) {
+            geminiClient.recordJsonRepair(route, tier);
+            return parseSafeJson(response);
         }
+    }
 
-        log.info("Extraction complete for notice segment {}.", sourceOrder);
+    /**
+     * Validates each extracted item against the compiled category schema and asks the model to
+     * correct ONLY the items that failed. Items that are still invalid afterwards are kept as-is.
+     */
+    private Object revalidateInvalidItems(Object extractedData, String noticeText, String category, int sourceOrder) {
+        JSONArray items = (extractedData instanceof JSONArray array) ? array : new JSONArray().put(extractedData);
+
+        JSONArray invalidItems = new JSONArray();
+        List<Integer> invalidIndexes = new ArrayList<>();
+        StringBuilder errorReport = new StringBuilder();
+        for (int i = 0; i < items.length(); i++) {
+            List<String> errors = schemaRegistry.validateItem(category, items.get(i));
+            if (!errors.isEmpty()) {
+                invalidIndexes.add(i);
+                invalidItems.put(items.get(i));
+                errorReport.append("Item ").append(invalidIndexes.size() - 1).append(": ").append(String.join("; ", errors)).append('\n');
+            }
+        }
+        if (invalidIndexes.isEmpty()) {
+            return extractedData;
+        }
+        log.warn("Notice {}: {}/{} extracted items failed schema validation. Re-extracting only those.", sourceOrder, invalidIndexes.size(), items.length());
 
-        // --- STEP 3: AI Generation ---
-        JSONObject generatedContent = generateNarrativeContent(extractedData, category);
+        String repairPrompt = """
+        The following items were extracted from the text below but do NOT match the JSON schema.
+        Correct ONLY these items. Return ONLY valid JSON: { "items": [ ... ] } with exactly %d items, in the same order.
 
-        if (generatedContent == null) {
-            log.error("Generation step failed for notice segment {}. Saving with extracted data only.", sourceOrder);
-        } else {
-            log.info("Generation complete for notice segment {}.", sourceOrder);
+        SCHEMA:
+        %s
+
+        VALIDATION ERRORS:
+        %s
+        INVALID ITEMS:
+        %s
+
+        SOURCE TEXT:
+        %s
+        """.formatted(invalidIndexes.size(), schemaRegistry.forCategory(category).map(ExtractionSchemaRegistry.CategorySchema::schemaText).orElse(""),
+                errorReport, invalidItems.toString(), fitToPromptBudget(noticeText, extractionTokenBudget));
+
+        JSONObject repaired = parseSafeJson(geminiClient.generate("extraction.repair", modelRouter.route("repair", category), repairPrompt));
+        JSONArray repairedItems = (repaired != null) ? repaired.optJSONArray("items") : null;
+        if (repairedItems == null || repairedItems.length() != invalidIndexes.size()) {
+            log.warn("Notice {}: item repair returned an unusable response. Keeping the original items.", sourceOrder);
+            return extractedData;
         }
 
-        // --- FIX: Pass originalPdfPath to final creator method ---
-        return createGazetteFromJson(extractedData, generatedContent, noticeText, category, sourceOrder, overallGazetteDetails, originalPdfPath);
+        for (int j = 0; j < invalidIndexes.size(); j++) {
+            Object candidate = repairedItems.get(j);
+            if (schemaRegistry.validateItem(category, candidate).isEmpty()) {
+                items.put(invalidIndexes.get(j), candidate);
+            } else {
+                log.warn("Notice {}: item {} is still invalid after repair. Keeping the original.", sourceOrder, invalidIndexes.get(j));
+            }
+        }
+        return (extractedData instanceof JSONArray) ? items : items.get(0);
+    }
+
+    // Records how far a notice got, so a retry can resume from the next stage
+    private Gazette checkpoint(Gazette gazette, ProcessingStage stage, String category, Object extractedData) {
+        gazette.setProcessingStage(stage);
+        if (category != null) {
+            gazette.setCategory(category);
+        }
+        if (extractedData != null) {
+            gazette.setExtractedData(extractedData.toString().replace("\u0000", ""));
+        }
+        return gazette;
+    }
+
+    private String fitToPromptBudget(String text, int maxTokens) {
+        String fitted = TextCompactor.fitToBudget(text, maxTokens);
+        if (fitted.length() < text.length()) {
+            pipelineMetrics.increment("compaction.truncatedPrompts");
+        }
+        return fitted;
     }
 
     private String triageNoticeCategory(String noticeText) {
@@ -475,9 +1234,9 @@ public class GazetteService {
 
         TEXT:
         %s
-        """.formatted(noticeText.substring(0, Math.min(noticeText.length(), 4000)));
+        """.formatted(fitToPromptBudget(noticeText, triageTokenBudget));
 
-        String category = generateWithRetry(geminiFlashModel, triagePrompt);
+        String category = geminiClient.generate("triage", GeminiClient.ModelTier.FLASH, triagePrompt);
 
         if (category != null) {
             String cleanedCategory = category.replaceAll("[^a-zA-Z_]", "").trim();
@@ -496,6 +1255,40 @@ public class GazetteService {
         return "Miscellaneous";
     }
 
+    /**
+     * Rewrites a near-duplicate notice's published article for new extracted data. Much cheaper than
+     * writing from scratch, so it runs on Flash. Returns null if the rewrite is unusable.
+     */
+    private JSONObject generateFromTemplate(Object extractedData, Gazette template) {
+        JSONObject previous = new JSONObject()
+                .put("title", template.getTitle())
+                .put("summary", template.getSummary())
+                .put("article", template.getArticle())
+                .put("xSummary", template.getXSummary())
+                .put("actionableInfo", template.getActionableInfo())
+                .put("significance", template.getSignificanceRating());
+
+        String templatePrompt = """
+        Below is a published Smart Gazette article for a gazette notice, and the structured data of a NEW notice
+        that follows the same template. Rewrite the article for the NEW notice: every name, number, location, date
+        and period must come from the NEW data. Keep the structure, tone and length of the published article.
+        Return ONLY a JSON object with the same keys: "title", "summary", "article", "xSummary", "actionableInfo", "significance".
+
+        PUBLISHED ARTICLE:
+        %s
+
+        NEW NOTICE DATA:
+        %s
+        """.formatted(previous.toString(), extractedData.toString());
+
+        JSONObject generated = parseSafeJson(geminiClient.generate("generation.template", GeminiClient.ModelTier.FLASH, templatePrompt));
+        if (generated == null || generated.optString("title", "").isBlank() || generated.optString("article", "").isBlank()) {
+            log.info("Templated generation was unusable. Falling back to full generation.");
+            return null;
+        }
+        return generated;
+    }
+
     private JSONObject generateNarrativeContent(Object extractedData, String category) {
         String generationPrompt = """
         You are an expert editorial assistant for Smart Gazette. Your goal is to simplify government notices for Kenyan youth.
@@ -541,81 +1334,16 @@ public class GazetteService {
         }
         """.formatted(extractedData.toString());
 
-        log.info("Attempting Generation for category {}...", category);
-        String generatedContentResponse = generateWithRetry(geminiProModel, generationPrompt);
-
-        return parseSafeJson(generatedContentResponse);
-    }
-
+        GeminiClient.ModelTier tier = modelRouter.route("generation", category);
+        log.info("Attempting Generation for category {} on {}...", category, tier);
+        JSONObject generated = parseSafeJson(geminiClient.generate("generation", tier, generationPrompt));
 
-    private String generateWithRetry(GenerativeModel model, String prompt) {
-        int maxRetries = 3;
-        long retryDelaySeconds = 2;
-
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                if (attempt > 1) {
-                    log.warn("Waiting {} seconds before retry attempt {}...", retryDelaySeconds, attempt);
-                    TimeUnit.SECONDS.sleep(retryDelaySeconds);
-                    retryDelaySeconds *= 2;
-                }
-
-                log.debug("Sending text request to model: {} (Attempt {})", model.getModelName(), attempt);
-                GenerateContentResponse response = model.generateContent(prompt);
-                return ResponseHandler.getText(response).trim();
-
-            } catch (Exception e) {
-                log.warn("Vertex AI call failed (Attempt {}/{}): {}", attempt, maxRetries, e.getMessage());
-                if (attempt == maxRetries) {
-                    log.error("Max retries reached. Giving up.", e);
-                    return null;
-                }
-                if (e.getMessage().contains("PERMISSION_DENIED")) {
-                    log.error("Authentication error. Not retrying.", e);
-                    return null;
-                }
-            }
+        if (tier == GeminiClient.ModelTier.FLASH && (generated == null || generated.optString("title", "").isBlank())) {
+            log.info("Escalating generation for category {} from Flash to Pro.", category);
+            pipelineMetrics.increment("escalations.generation");
+            generated = parseSafeJson(geminiClient.generate("generation", GeminiClient.ModelTier.PRO, generationPrompt));
         }
-        return null;
-    }
-
-    private String generateWithRetry(GenerativeModel model, List<Part> partsList) {
-        int maxRetries = 3;
-        long retryDelaySeconds = 5;
-
-        Content content = Content.newBuilder().setRole("user").addAllParts(partsList).build();
-
-        for (int attempt = 1; attempt <= maxRetries; attempt++) {
-            try {
-                if (attempt > 1) {
-                    log.warn("Waiting {} seconds before retry attempt {}...", retryDelaySeconds, attempt);
-                    TimeUnit.SECONDS.sleep(retryDelaySeconds);
-                    retryDelaySeconds *= 2;
-                }
-
-                log.debug("Sending vision request to model: {} (Attempt {})", model.getModelName(), attempt);
-                GenerateContentResponse response = model.generateContent(content);
-
-                String text = ResponseHandler.getText(response).trim();
-                if (text.isEmpty()) {
-                    log.warn("Vertex AI response had no text content. (Attempt {})", attempt);
-                    continue;
-                }
-                return text;
-
-            } catch (Exception e) {
-                log.warn("Vertex AI vision call failed (Attempt {}/{}): {}", attempt, maxRetries, e.getMessage());
-                if (attempt == maxRetries) {
-                    log.error("Max retries reached. Giving up.", e);
-                    return null;
-                }
-                if (e.getMessage().contains("PERMISSION_DENIED")) {
-                    log.error("Authentication error. Not retrying.", e);
-                    return null;
-                }
-            }
-        }
-        return null;
+        return generated;
     }
 
 
@@ -623,59 +1351,13 @@ public class GazetteService {
         if (text == null || text.isBlank()) {
             return null;
         }
-        text = text.replaceAll("(?s)```json\\s*(.*?)\\s*```", "$1").trim();
-
-        int start = text.indexOf('{');
-        int end = text.lastIndexOf('}');
-        if (start == -1 || end == -1 || end < start) {
-            log.warn("Failed to parse JSON: No valid '{{...}}' structure found.");
-            return null;
-        }
-        text = text.substring(start, end + 1);
-
-        String fixedText = fixCommonJsonErrors(text);
-
-        try {
-            return new JSONObject(fixedText);
-        } catch (JSONException e) {
-            log.warn("Failed to parse JSON after first fix: {} - Attempting aggressive recovery...", e.getMessage());
-
-            String aggressiveFixedText = aggressiveJsonClean(fixedText);
-            try {
-                return new JSONObject(aggressiveFixedText);
-            } catch (JSONException e2) {
-                log.error("JSON parsing FAILED even after aggressive recovery. Error: {}", e2.getMessage());
-                log.error("--- BAD JSON (first 500 chars) --- \n{}", fixedText.substring(0, Math.min(500, fixedText.length())));
-                return null;
-            }
+        // One repair pass (fences, bare keys, trailing commas, raw newlines, truncation) + one strict parse
+        JSONObject parsed = LenientJsonParser.parseObject(text);
+        if (parsed == null) {
+            log.error("JSON parsing FAILED even after repair.");
+            log.error("--- BAD JSON (first 500 chars) --- \n{}", text.substring(0, Math.min(500, text.length())));
         }
-    }
-
-    private String fixCommonJsonErrors(String json) {
-        json = json.replaceAll(",\\s*}", "}");
-        json = json.replaceAll(",\\s*]", "]");
-        json = json.replaceAll("([{,]\\s*)([a-zA-Z_][a-zA-Z0-9_]*)\\s*:", "$1\"$2\":");
-        return json;
-    }
-
-    private String aggressiveJsonClean(String json) {
-        Pattern pattern = Pattern.compile("(?s)\"([^\"]*)\"");
-        Matcher matcher = pattern.matcher(json);
-        StringBuffer sb = new StringBuffer();
-
-        while (matcher.find()) {
-            String content = matcher.group(1);
-            content = content.replace("\n", "\\n")
-                    .replace("\t", "\\t")
-                    .replace("\r", "\\r");
-            matcher.appendReplacement(sb, "\"" + Matcher.quoteReplacement(content) + "\"");
-        }
-        matcher.appendTail(sb);
-        json = sb.toString();
-
-        json = json.replaceAll(",\\s*}", "}");
-        json = json.replaceAll(",\\s*]", "]");
-        return json;
+        return parsed;
     }
 
 
@@ -697,54 +1379,37 @@ public class GazetteService {
             return;
         }
 
-        log.info("Found {} FAILED notices to retry.", failedNotices.size());
-
-        for (Gazette notice : failedNotices) {
-            try {
-                if (stopProcessing.get()) {
-                    log.warn("Retry processing manually stopped by admin.");
-                    break;
-                }
-
-                if (notice.getTitle().startsWith("[GENERATION FAILED]")) {
-                    log.info("Retrying notice #{} (GENERATION failure)...", notice.getId());
-
-                    Object extractedData = null;
-                    String articleJson = notice.getArticle();
-                    articleJson = articleJson.replaceAll("(?s)```json\\s*(.*?)\\s*```", "$1").trim();
-
-                    try {
-                        extractedData = new JSONObject(articleJson);
-                    } catch (JSONException e) {
-                        try {
-                            extractedData = new JSONArray(articleJson);
-                        } catch (JSONException e2) {
-                            log.error("Could not retry notice #{}: Failed to parse extracted JSON. Content: {}", notice.getId(), articleJson);
-                            continue;
-                        }
-                    }
+        log.info("Found {} FAILED notices to retry ({} in parallel).", failedNotices.size(), retryConcurrency);
 
-                    if (extractedData == null) {
-                        log.error("Could not retry notice #{}: Failed to parse extracted JSON.", notice.getId());
-                        continue;
+        // Each notice resumes independently, so they can run side by side
+        ExecutorService retryPool = Executors.newFixedThreadPool(retryConcurrency);
+        try {
+            List<Future<?>> tasks = new ArrayList<>();
+            for (Gazette notice : failedNotices) {
+                tasks.add(retryPool.submit(() -> {
+                    if (stopProcessing.get()) {
+                        return;
                     }
-
-                    // --- FIX: Pass all required arguments to runGenerationStep ---
-                    Gazette generatedNotice = runGenerationStep(extractedData, notice.getContent(), notice.getCategory(), notice.getSourceOrder(), null, notice.getOriginalPdfPath());
-
-                    if (generatedNotice != null && generatedNotice.getStatus() == ProcessingStatus.SUCCESS) {
-                        updateExistingNotice(notice, generatedNotice);
-                        log.info("SUCCESS: Retry for notice #{} was successful.", notice.getId());
-                    } else {
-                        log.warn("FAIL: Retry for notice #{} (GENERATION) failed again.", notice.getId());
+                    try {
+                        resumeFailedNotice(notice);
+                    } catch (Exception e) {
+                        log.error("Unhandled exception while retrying notice #{}: {}", notice.getId(), e.getMessage());
                     }
-                }
-
-                TimeUnit.MILLISECONDS.sleep(500);
-
-            } catch (Exception e) {
-                log.error("Unhandled exception while retrying notice #{}: {}", notice.getId(), e.getMessage());
+                }));
+            }
+            for (Future<?> task : tasks) {
+                task.get();
+            }
+            if (stopProcessing.get()) {
+                log.warn("Retry processing manually stopped by admin.");
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Retry job interrupted.");
+        } catch (ExecutionException e) {
+            log.error("Retry task failed: {}", e.getMessage());
+        } finally {
+            retryPool.shutdownNow();
         }
 
         log.info("Finished retry process.");
@@ -753,60 +1418,92 @@ public class GazetteService {
         log.info("Retry job finished. Processing lock released.");
     }
 
-    // Helper method to run ONLY the Generation step (Step 3)
-    private Gazette runGenerationStep(Object extractedData, String rawContent, String category, int sourceOrder, JSONObject overallGazetteDetails, String originalPdfPath) {
-        log.info("Attempting Generation for retried notice...");
-
-        String generationPrompt = """
-        You are an expert editorial assistant for Smart Gazette. Your goal is to simplify government notices for Kenyan youth.
-        Based ONLY on the structured JSON data provided below, generate a JSON object containing five fields: "title", "summary", "article", "xSummary", and "actionableInfo".
-
-        **Your Instructions:**
-        1.  **Grouping Logic:**
-            - If the category is `Land_Property` or `Tenders` and the input data contains multiple similar items (look for arrays), create a single "digest" article. Title like "Land Transfer Notices" or "New Tenders". Article uses markdown lists. Otherwise, create a normal article.
-        
-        2.  **Actionable Info Logic (Tiered Approach):**
-            - **Tier 1 (Action with Deadline):** If the input JSON has an "objection_period" (e.g., "sixty (60) days", "30 days") or a "deadline", you MUST use this value.
-              Example: "Submit objections within sixty (60) days from the notice date."
-              **CRITICAL: Do NOT say 'check the gazette' if a specific period is provided in the JSON.**
-            - **Tier 2 (Action without Deadline):** If the input has an action but NO "objection_period" or "deadline", advise checking official sources.
-              Example: "Provide feedback. Check NTSA website for details."
-            - **Tier 3 (Informational):** For appointments etc., provide context. Ex: "Note the new EPRA board leadership."
+    // Re-runs only the stages after the notice's last checkpoint (no OCR, no repeated triage/extraction)
+    private void resumeFailedNotice(Gazette notice) {
+        ProcessingStage stage = resumeStageOf(notice);
+        String rawContent = notice.getContent();
+        String category = notice.getCategory();
+        int sourceOrder = notice.getSourceOrder() != null ? notice.getSourceOrder() : 0;
+        log.info("Retrying notice #{} from stage {}...", notice.getId(), stage);
+
+        Object extractedData = null;
+        if (stage == ProcessingStage.EXTRACTED) {
+            extractedData = parseCheckpointedJson(notice);
+            if (extractedData == null) {
+                log.error("Could not retry notice #{}: Failed to parse extracted JSON. Re-running extraction.", notice.getId());
+                stage = ProcessingStage.TRIAGED;
+            }
+        }
 
-        3.  **Content Requirements:**
-            - title: Clear, engaging headline.
-            - summary: One-sentence key takeaway.
-            - article: Detailed, human-readable article (200-400 words), markdown formatted.
-              CRITICAL: This field MUST be plain, human-readable text. Do NOT use any markdown formatting (like '*', '#', or '-' for lists). Write in full paragraphs.
-            - xSummary:a Engagement friendly but informative summary under 276 characters, similar in tone to Moe (moneycademyke) on X.
-            - actionableInfo: Text from tiered logic above.
+        if (stage == ProcessingStage.TEXT_EXTRACTED) {
+            category = triageNoticeCategory(rawContent);
+            stage = ProcessingStage.TRIAGED;
+        }
 
-        **CRITICAL: Your entire response MUST be a single, valid JSON object starting with `{` and ending with `}`. Do NOT include any text before or after the JSON object.**
+        if (stage == ProcessingStage.TRIAGED) {
+            ExtractionResult extraction = runExtractionStage(rawContent, category, sourceOrder);
+            if (extraction.items() == null) {
+                checkpoint(notice, ProcessingStage.TRIAGED, category, null);
+                notice.setSummary("The AI failed during processing. Reason: " + extraction.failureReason());
+                gazetteRepository.save(notice);
+                log.warn("FAIL: Retry for notice #{} failed again at EXTRACTION.", notice.getId());
+                return;
+            }
+            extractedData = extraction.items();
+        }
 
-        **STRUCTURED DATA TO USE:**
-        %s
+        JSONObject generatedContent = generateNarrativeContent(extractedData, category);
+        Gazette generatedNotice = createGazetteFromJson(extractedData, generatedContent, rawContent, category, sourceOrder, gazetteDetailsOf(notice), notice.getOriginalPdfPath());
 
-        **OUTPUT JSON FORMAT:**
-        {
-          "title": "...",
-          "summary": "...",
-          "article": "...",
-          "xSummary": "...",
-          "actionableInfo": "..."
+        if (generatedNotice != null && generatedNotice.getStatus() == ProcessingStatus.SUCCESS) {
+            updateExistingNotice(notice, generatedNotice);
+            log.info("SUCCESS: Retry for notice #{} was successful.", notice.getId());
+        } else {
+            // Keep the extraction so the next retry only repeats generation
+            checkpoint(notice, ProcessingStage.EXTRACTED, category, extractedData);
+            gazetteRepository.save(notice);
+            log.warn("FAIL: Retry for notice #{} (GENERATION) failed again.", notice.getId());
         }
-        """.formatted(extractedData.toString());
+    }
 
-        String generatedContentResponse = generateWithRetry(geminiProModel, generationPrompt);
-        JSONObject generatedContent = parseSafeJson(generatedContentResponse);
+    private ProcessingStage resumeStageOf(Gazette notice) {
+        if (notice.getProcessingStage() != null) {
+            return notice.getProcessingStage();
+        }
+        // Notices saved before checkpoints existed: generation failures stashed the JSON in 'article'
+        if (notice.getTitle() != null && notice.getTitle().startsWith("[GENERATION FAILED]")) {
+            return ProcessingStage.EXTRACTED;
+        }
+        return ProcessingStage.TEXT_EXTRACTED;
+    }
 
-        if (generatedContent == null) {
-            log.error("Generation step failed on retry.");
+    private Object parseCheckpointedJson(Gazette notice) {
+        String json = notice.getExtractedData();
+        if (json == null || json.isBlank()) {
+            json = notice.getArticle();
+        }
+        if (json == null) {
             return null;
         }
-        log.info("Generation complete on retry.");
+        json = json.replaceAll("(?s).*?```json\\s*(.*?)\\s*```.*", "$1").trim();
+        try {
+            return new JSONObject(json);
+        } catch (JSONException e) {
+            try {
+                return new JSONArray(json);
+            } catch (JSONException e2) {
+                return null;
+            }
+        }
+    }
 
-        // --- FIX: Pass originalPdfPath to final creator method ---
-        return createGazetteFromJson(extractedData, generatedContent, rawContent, category, sourceOrder, overallGazetteDetails, originalPdfPath);
+    // Rebuilds the header details from the stored notice so a retry does not blank them out
+    private JSONObject gazetteDetailsOf(Gazette notice) {
+        JSONObject details = new JSONObject();
+        details.put("gazetteVolume", notice.getGazetteVolume() != null ? notice.getGazetteVolume() : "");
+        details.put("gazetteNumber", notice.getGazetteNumber() != null ? notice.getGazetteNumber() : "");
+        details.put("gazetteDate", notice.getGazetteDate() != null ? notice.getGazetteDate().toString() : "");
+        return details;
     }
 
     private void updateExistingNotice(Gazette oldNotice, Gazette newNotice) {
@@ -823,9 +1520,17 @@ public class GazetteService {
         oldNotice.setGazetteDate(newNotice.getGazetteDate());
         oldNotice.setCategory(newNotice.getCategory());
         oldNotice.setContent(newNotice.getContent());
+        oldNotice.setSignificanceRating(newNotice.getSignificanceRating());
+        oldNotice.setExtractedData(newNotice.getExtractedData());
+        oldNotice.setProcessingStage(newNotice.getProcessingStage());
         oldNotice.setStatus(ProcessingStatus.SUCCESS);
+        oldNotice.setContentSimhash(SimHash.of(oldNotice.getContent()));
 
-        gazetteRepository.save(oldNotice);
+        Gazette saved = gazetteRepository.save(oldNotice);
+        similarityIndex.add(saved);
+        hotFeedService.offer(saved);
+        trendingService.offer(saved);
+        batchService.retrySucceeded(oldNotice.getBatch());
     }
 
     private Gazette createGazetteFromJson(Object extractedData, JSONObject generatedContent, String rawContent, String category, int order, JSONObject overallGazetteDetails, String originalPdfPath) {
@@ -841,7 +1546,7 @@ public class GazetteService {
         Gazette gazette = new Gazette();
         String sanitizedRawContent = rawContent.replace("\u0000", "");
         gazette.setContent(sanitizedRawContent);
-        gazette.setCategory(category);
+        checkpoint(gazette, generatedContent != null ? ProcessingStage.GENERATED : ProcessingStage.EXTRACTED, category, extractedData);
         gazette.setSourceOrder(order);
         gazette.setOriginalPdfPath(originalPdfPath);
 
@@ -895,10 +1600,9 @@ public class GazetteService {
 
         if (noticeNumber.isEmpty()) {
             // Look for pattern "GAZETTE NOTICE NO. 1234" in the raw text
-            Pattern p = Pattern.compile("GAZETTE NOTICE NO\\.\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
-            Matcher m = p.matcher(rawContent);
-            if (m.find()) {
-                noticeNumber = m.group(1); // Capture just the digits
+            String recovered = NoticeSegmenter.findNoticeNumber(rawContent);
+            if (recovered != null) {
+                noticeNumber = recovered; // Capture just the digits
                 log.info("Recovered missing notice number using Regex: {}", noticeNumber);
             }
         }
@@ -932,6 +1636,7 @@ public class GazetteService {
         g.setContent(text != null ? text.replace("\u0000", "") : "Content was null.");
         g.setArticle("## AI PROCESSING FAILED\n\n**Reason:** " + reason + "\n\nThe original text has been saved. You can try to fix it manually or use the 'Retry FAILED Notices' button.");
         g.setCategory("Uncategorized");
+        g.setProcessingStage(ProcessingStage.TEXT_EXTRACTED);
         g.setPublishedDate(LocalDate.now());
         g.setSourceOrder(order);
         // Set the permanent path to the file
@@ -952,89 +1657,64 @@ public class GazetteService {
         return g;
     }
 
-    private String loadSchemaFile(String path) {
-        try (InputStream is = getClass().getResourceAsStream(path)) {
-            if (is == null) {
-                log.error("Schema file not found: {}", path);
-                return "";
-            }
-            return new String(is.readAllBytes());
-        } catch (IOException e) {
-            log.error("Failed to load schema file: {}", path, e);
-            return "";
+    // Counters are buffered and flushed by EngagementCounterService (no entity write, no cache churn).
+    // One vote per reader and notice; repeats and bots are dropped by UniqueReaderService.
+    public void addThumbUp(Long id, String clientAddress, String userAgent) {
+        if (!noticeExists(id)) {
+            log.debug("Ignored Thumbs Up for unknown article ID: {}", id);
+            return;
+        }
+        if (!uniqueReaderService.allowVote(id, clientAddress, userAgent)) {
+            log.debug("Ignored repeated Thumbs Up for article ID: {}", id);
+            return;
         }
+        engagementCounterService.recordThumbUp(id);
+        trendingService.recordThumbUp(id);
+        log.info("Added Thumbs Up for article ID: {}", id);
     }
 
-    public void addThumbUp(Long id) {
-        Gazette gazette = gazetteRepository.findById(id).orElse(null);
-        if (gazette != null) {
-            gazette.setThumbsUp(gazette.getThumbsUp() + 1);
-            gazetteRepository.save(gazette);
-            log.info("Added Thumbs Up for article ID: {}", id);
+    public void addThumbDown(Long id, String clientAddress, String userAgent) {
+        if (!noticeExists(id)) {
+            log.debug("Ignored Thumbs Down for unknown article ID: {}", id);
+            return;
+        }
+        if (!uniqueReaderService.allowVote(id, clientAddress, userAgent)) {
+            log.debug("Ignored repeated Thumbs Down for article ID: {}", id);
+            return;
         }
+        engagementCounterService.recordThumbDown(id);
+        trendingService.recordThumbDown(id);
+        log.info("Added Thumbs Down for article ID: {}", id);
     }
 
-    public void addThumbDown(Long id) {
-        Gazette gazette = gazetteRepository.findById(id).orElse(null);
-        if (gazette != null) {
-            gazette.setThumbsDown(gazette.getThumbsDown() + 1);
-            gazetteRepository.save(gazette);
-            log.info("Added Thumbs Down for article ID: {}", id);
-        }
+    // A vote for a deleted or made-up ID would sit in the counters and the vote filter for nothing.
+    // findById is served from the second-level cache.
+    private boolean noticeExists(Long id) {
+        return gazetteRepository.findById(id).isPresent();
     }
-    // This is the implementation for incrementing the view count
-    public Gazette incrementViewCount(Long id) {
+
+    // viewCount counts unique readers per day: refreshes and bots still get the page but add nothing
+    public Gazette incrementViewCount(Long id, String clientAddress, String userAgent) {
+        // findById is served from the second-level cache, and so is the lazily loaded body
         Gazette gazette = gazetteRepository.findById(id).orElse(null);
         if (gazette != null) {
-            gazette.setViewCount(gazette.getViewCount() + 1);
-            return gazetteRepository.save(gazette);
+            int newReaders = uniqueReaderService.recordView(id, clientAddress, userAgent);
+            if (newReaders > 0) {
+                engagementCounterService.recordViews(id, newReaders);
+                trendingService.recordView(id);
+            }
         }
-        return null;
+        return gazette;
     }
 
-    // --- ADD THIS HELPER METHOD (Required by processSingleNotice) ---
-// This method implements the logic for processing short notices or chunks.
-    private Gazette processTextSegment(String textSegment, int sourceOrder, JSONObject overallGazetteDetails, String originalPdfPath) {
-        // --- STEP 1: AI Triage ---
-        String category = triageNoticeCategory(textSegment);
-
-        if (category == null) {
-            log.warn("Triage failed for notice segment {}. Creating fallback.", sourceOrder);
-            return createFallbackGazette(textSegment, sourceOrder, overallGazetteDetails, "Triage failed", originalPdfPath);
-        }
-
-        // --- STEP 2: AI Extraction ---
-        String schemaPath = "/schemas/field/" + category.toLowerCase() + ".json";
-        String schemaContent = loadSchemaFile(schemaPath);
-        if (schemaContent.isEmpty()) {
-            log.error("Schema file not found for category '{}' (Notice {}). Creating fallback.", category, sourceOrder);
-            return createFallbackGazette(textSegment, sourceOrder, overallGazetteDetails, "Schema file not found", originalPdfPath);
-        }
-
-        String extractionPrompt = """
-    Extract structured data from the text below according to the provided JSON schema.
-    ... (omitted prompt text for brevity) ...
-    """.formatted(schemaContent, textSegment);
-
-        String jsonResponse = generateWithRetry(geminiProModel, extractionPrompt);
-        JSONObject extractedDataWrapper = parseSafeJson(jsonResponse);
-
-        if (extractedDataWrapper == null || !extractedDataWrapper.has("items")) {
-            log.error("Extraction failed for notice segment {}. AI did not return a valid 'items' wrapper.", sourceOrder);
-            return createFallbackGazette(textSegment, sourceOrder, overallGazetteDetails, "Extraction failed: no 'items' wrapper", originalPdfPath);
-        }
-        Object extractedData = extractedDataWrapper.get("items");
-
-        // --- STEP 3: AI Generation ---
-        JSONObject generatedContent = generateNarrativeContent(extractedData, category);
-        return createGazetteFromJson(extractedData, generatedContent, textSegment, category, sourceOrder, overallGazetteDetails, originalPdfPath);
+    public Map<String, Object> getUniqueReaders(Long id, int days) {
+        return uniqueReaderService.uniqueReaders(id, days);
     }
 
     // --- BULK DELETE METHOD ---
 // This is a minimal helper to allow the Controller to call bulk delete
     public void deleteGazetteInBulk(List<Long> ids) {
-        gazetteRepository.deleteAllById(ids);
-        log.info("Bulk deleted {} notices.", ids.size());
+        deletionService.deleteByIds(ids);
     }
     // --- Export Batch to Excel Stream ---
     public ByteArrayInputStream exportBatchToExcel(String originalPdfPath) {
@@ -0,0 +1,11 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.List;
+
+/**
+ * Published inside the transaction that deleted notices; listeners act on it after commit.
+ * @param pdfPath source PDF to remove from storage when a whole batch was deleted, else null
+ * @param pdfSha256 hash of that PDF (keys its cached page images), else null
+ */
+public record GazettesDeletedEvent(List<Long> ids, String pdfPath, String pdfSha256) {
+}
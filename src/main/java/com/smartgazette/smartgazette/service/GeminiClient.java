@@ -0,0 +1,322 @@
+package com.smartgazette.smartgazette.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.google.cloud.vertexai.VertexAI;
+import com.google.cloud.vertexai.api.Content;
+import com.google.cloud.vertexai.api.GenerateContentResponse;
+import com.google.cloud.vertexai.api.GenerationConfig;
+import com.google.cloud.vertexai.api.Part;
+import com.google.cloud.vertexai.api.Schema;
+import com.google.cloud.vertexai.api.Type;
+import com.google.cloud.vertexai.generativeai.GenerativeModel;
+import com.google.cloud.vertexai.generativeai.ResponseHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Owns the Vertex AI models and every call made to them. Each call is tagged with a route
+ * (e.g. "triage", "extraction.prompt") and counted as "route/tier", so latency, success rate and
+ * token usage can be compared per route and per model.
+ */
+@Service
+public class GeminiClient {
+
+    private static final Logger log = LoggerFactory.getLogger(GeminiClient.class);
+
+    private static final int MAX_RETRIES = 3;
+
+    public enum ModelTier { PRO, FLASH }
+
+    private final VertexAI vertexAI;
+    private final GenerativeModel geminiProModel;
+    private final GenerativeModel geminiFlashModel;
+    private final ExtractionSchemaRegistry schemaRegistry;
+    private final String geminiProModelName;
+    private final String geminiFlashModelName;
+
+    // One JSON-mode model per category, built on first use (the response schema is part of the model config)
+    private final Map<String, GenerativeModel> structuredModels = new ConcurrentHashMap<>();
+    private final Map<String, RouteStats> routeStats = new ConcurrentHashMap<>();
+
+    public GeminiClient(ExtractionSchemaRegistry schemaRegistry,
+                        @Value("${gcp.project.id}") String projectId,
+                        @Value("${gcp.location}") String location,
+                        @Value("${gemini.model.pro:gemini-2.5-pro}") String geminiProModelName,
+                        @Value("${gemini.model.flash:gemini-2.5-flash}") String geminiFlashModelName) {
+        this.schemaRegistry = schemaRegistry;
+        this.geminiProModelName = geminiProModelName;
+        this.geminiFlashModelName = geminiFlashModelName;
+
+        log.info("Initializing Vertex AI SDK for project '{}' in location '{}'", projectId, location);
+        this.vertexAI = new VertexAI(projectId, location);
+
+        this.geminiProModel = new GenerativeModel.Builder()
+                .setModelName(geminiProModelName)
+                .setVertexAi(this.vertexAI)
+                .setGenerationConfig(textGenConfig().build())
+                .build();
+
+        this.geminiFlashModel = new GenerativeModel.Builder()
+                .setModelName(geminiFlashModelName)
+                .setVertexAi(this.vertexAI)
+                .setGenerationConfig(GenerationConfig.newBuilder()
+                        .setMaxOutputTokens(8192)
+                        .setTemperature(0.1f)
+                        .build())
+                .build();
+
+        log.info("✅ Vertex AI SDK initialization complete!");
+    }
+
+    /**
+     * Sends a text prompt. Returns the trimmed response text, or null after the retries are exhausted.
+     */
+    public String generate(String route, ModelTier tier, String prompt) {
+        Content content = Content.newBuilder().setRole("user").addParts(Part.newBuilder().setText(prompt)).build();
+        return generateWithRetry(route, tier, modelFor(tier), content, 2, false);
+    }
+
+    /**
+     * Sends a multi-part (vision) request. An empty response counts as a failed attempt.
+     */
+    public String generate(String route, ModelTier tier, List<Part> partsList) {
+        Content content = Content.newBuilder().setRole("user").addAllParts(partsList).build();
+        return generateWithRetry(route, tier, modelFor(tier), content, 5, true);
+    }
+
+    /**
+     * Sends an extraction prompt in JSON mode: the category schema is passed as the model's
+     * responseSchema instead of being pasted into the prompt.
+     * @return the JSON text, or empty if the category has no schema.
+     */
+    public Optional<String> generateStructured(String route, ModelTier tier, String category, String prompt) {
+        Optional<GenerativeModel> model = structuredModelFor(tier, category);
+        if (model.isEmpty()) {
+            return Optional.empty();
+        }
+        Content content = Content.newBuilder().setRole("user").addParts(Part.newBuilder().setText(prompt)).build();
+        return Optional.ofNullable(generateWithRetry(route, tier, model.get(), content, 2, false));
+    }
+
+    /**
+     * Counts a response on this route that was not valid JSON and had to be repaired.
+     */
+    public void recordJsonRepair(String route, ModelTier tier) {
+        statsFor(route, tier).jsonRepairs.incrementAndGet();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        routeStats.forEach((route, s) -> stats.put(route, s.snapshot()));
+        return stats;
+    }
+
+    private GenerativeModel modelFor(ModelTier tier) {
+        return tier == ModelTier.FLASH ? geminiFlashModel : geminiProModel;
+    }
+
+    private GenerationConfig.Builder textGenConfig() {
+        return GenerationConfig.newBuilder()
+                .setTemperature(0.2f)
+                .setMaxOutputTokens(4096)
+                .setTopP(0.95f);
+    }
+
+    private Optional<GenerativeModel> structuredModelFor(ModelTier tier, String category) {
+        return schemaRegistry.forCategory(category).map(schema -> structuredModels.computeIfAbsent(tier + ":" + schema.category(), key -> {
+            Schema responseSchema = toResponseSchema(schema.schemaTree());
+            log.info("Built JSON-mode extraction model '{}'.", key);
+            return new GenerativeModel.Builder()
+                    .setModelName(tier == ModelTier.FLASH ? geminiFlashModelName : geminiProModelName)
+                    .setVertexAi(this.vertexAI)
+                    .setGenerationConfig(textGenConfig()
+                            .setResponseMimeType("application/json")
+                            .setResponseSchema(responseSchema)
+                            .build())
+                    .build();
+        }));
+    }
+
+    private String generateWithRetry(String route, ModelTier tier, GenerativeModel model, Content content, long initialDelaySeconds, boolean retryOnEmpty) {
+        RouteStats stats = statsFor(route, tier);
+        long retryDelaySeconds = initialDelaySeconds;
+        long start = System.nanoTime();
+
+        for (int attempt = 1; attempt <= MAX_RETRIES; attempt++) {
+            try {
+                if (attempt > 1) {
+                    log.warn("Waiting {} seconds before retry attempt {}...", retryDelaySeconds, attempt);
+                    TimeUnit.SECONDS.sleep(retryDelaySeconds);
+                    retryDelaySeconds *= 2;
+                }
+
+                log.debug("Sending '{}' request to model: {} (Attempt {})", route, model.getModelName(), attempt);
+                GenerateContentResponse response = model.generateContent(content);
+                stats.recordTokens(response);
+
+                String text = ResponseHandler.getText(response).trim();
+                if (text.isEmpty() && retryOnEmpty) {
+                    log.warn("Vertex AI response had no text content. (Attempt {})", attempt);
+                    continue;
+                }
+                stats.recordCall(System.nanoTime() - start, true);
+                return text;
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.warn("Vertex AI '{}' call failed (Attempt {}/{}): {}", route, attempt, MAX_RETRIES, e.getMessage());
+                if (attempt == MAX_RETRIES) {
+                    log.error("Max retries reached. Giving up.", e);
+                    break;
+                }
+                if (e.getMessage() != null && e.getMessage().contains("PERMISSION_DENIED")) {
+                    log.error("Authentication error. Not retrying.", e);
+                    break;
+                }
+            }
+        }
+        stats.recordCall(System.nanoTime() - start, false);
+        return null;
+    }
+
+    private RouteStats statsFor(String route, ModelTier tier) {
+        return routeStats.computeIfAbsent(route + "/" + tier.name().toLowerCase(Locale.ROOT), r -> new RouteStats());
+    }
+
+    // --- JSON Schema (draft 7 category files) -> Vertex AI response schema ---
+
+    /**
+     * The category files describe {"items": item | [item]}. Vertex schemas have no oneOf, so the
+     * response is always {"items": [item, ...]}. Scalar fields not listed as required are nullable,
+     * matching the validator built by {@link ExtractionSchemaRegistry#withNullableOptionals}.
+     */
+    static Schema toResponseSchema(JsonNode root) {
+        JsonNode itemsNode = root.path("properties").path("items");
+        Schema items = toSchema(pickArrayAlternative(itemsNode, root), root, false);
+        if (items.getType() != Type.ARRAY) {
+            items = Schema.newBuilder().setType(Type.ARRAY).setItems(items).build();
+        }
+        return Schema.newBuilder()
+                .setType(Type.OBJECT)
+                .putProperties("items", items)
+                .addRequired("items")
+                .build();
+    }
+
+    private static Schema toSchema(JsonNode node, JsonNode root, boolean nullable) {
+        node = resolveRef(pickArrayAlternative(node, root), root);
+        Schema.Builder schema = Schema.newBuilder();
+        String description = node.path("description").asText("");
+        String format = node.path("format").asText("");
+        if (!format.isEmpty()) {
+            // Vertex only accepts a few formats; keep the hint for the model in the description
+            description = description.isEmpty() ? "Format: " + format : description + " (format: " + format + ")";
+        }
+        if (!description.isEmpty()) {
+            schema.setDescription(description);
+        }
+
+        switch (node.path("type").asText("string")) {
+            case "object" -> {
+                schema.setType(Type.OBJECT);
+                Set<String> required = new HashSet<>();
+                node.path("required").forEach(name -> required.add(name.asText()));
+                Iterator<Map.Entry<String, JsonNode>> fields = node.path("properties").fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    boolean optional = !required.contains(field.getKey());
+                    schema.putProperties(field.getKey(), toSchema(field.getValue(), root, optional));
+                    if (!optional) {
+                        schema.addRequired(field.getKey());
+                    }
+                }
+            }
+            case "array" -> schema.setType(Type.ARRAY).setItems(toSchema(node.path("items"), root, false));
+            case "integer" -> schema.setType(Type.INTEGER).setNullable(nullable);
+            case "number" -> schema.setType(Type.NUMBER).setNullable(nullable);
+            case "boolean" -> schema.setType(Type.BOOLEAN).setNullable(nullable);
+            default -> schema.setType(Type.STRING).setNullable(nullable);
+        }
+        return schema.build();
+    }
+
+    // For "oneOf: [item, array of item]" keep the array form
+    private static JsonNode pickArrayAlternative(JsonNode node, JsonNode root) {
+        JsonNode oneOf = node.path("oneOf");
+        if (!oneOf.isArray() || oneOf.isEmpty()) {
+            return node;
+        }
+        for (JsonNode alternative : oneOf) {
+            if ("array".equals(resolveRef(alternative, root).path("type").asText())) {
+                return alternative;
+            }
+        }
+        return oneOf.get(0);
+    }
+
+    private static JsonNode resolveRef(JsonNode node, JsonNode root) {
+        String ref = node.path("$ref").asText("");
+        if (!ref.startsWith("#/")) {
+            return node;
+        }
+        return root.at(ref.substring(1));
+    }
+
+    // --- Per-route counters ---
+
+    private static final class RouteStats {
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong promptTokens = new AtomicLong();
+        private final AtomicLong outputTokens = new AtomicLong();
+        private final AtomicLong jsonRepairs = new AtomicLong();
+
+        void recordCall(long nanos, boolean success) {
+            calls.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            if (!success) {
+                failures.incrementAndGet();
+            }
+        }
+
+        void recordTokens(GenerateContentResponse response) {
+            if (response.hasUsageMetadata()) {
+                promptTokens.addAndGet(response.getUsageMetadata().getPromptTokenCount());
+                outputTokens.addAndGet(response.getUsageMetadata().getCandidatesTokenCount());
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            long n = calls.get();
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("calls", n);
+            s.put("failures", failures.get());
+            s.put("successRate", n == 0 ? 0.0 : Math.round((n - failures.get()) * 1000.0 / n) / 1000.0);
+            s.put("avgLatencyMs", n == 0 ? 0 : totalNanos.get() / n / 1_000_000);
+            s.put("promptTokens", promptTokens.get());
+            s.put("outputTokens", outputTokens.get());
+            s.put("avgPromptTokens", n == 0 ? 0 : promptTokens.get() / n);
+            s.put("avgOutputTokens", n == 0 ? 0 : outputTokens.get() / n);
+            s.put("jsonRepairs", jsonRepairs.get());
+            return s;
+        }
+    }
+}
@@ -0,0 +1,425 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.ProcessingStatus;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import jakarta.persistence.Cache;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The first pages of the public feeds (latest, popular, significant; overall and per category), kept in
+ * memory as the top N notice ids plus their sort keys in primitive arrays. Pages inside that window are
+ * served from here with the card entities from the second-level cache, so they never query the database.
+ * <p>
+ * Kept current incrementally: saves and retries offer the notice, counter flushes re-rank it in the
+ * popular feeds, deletes remove it. A feed is always the exact top-k of its notices (k may shrink after
+ * removals), so a page past the window simply falls back to the repository.
+ * <p>
+ * Those events only cover this node. Other nodes' saves, retries and deletes are picked up by a
+ * rebuild when the table's change marker moves; their view counts never touch the marker, so the
+ * feeds are also rebuilt once they are older than max-age.
+ */
+@Service
+public class HotFeedService {
+
+    private static final Logger log = LoggerFactory.getLogger(HotFeedService.class);
+
+    private static final String ALL_CATEGORIES = "";
+
+    private final GazetteRepository gazetteRepository;
+    private final EntityManagerFactory entityManagerFactory;
+    private final PipelineMetrics pipelineMetrics;
+    private final boolean enabled;
+    private final int capacity;
+    private final long maxAgeMillis;
+
+    // "<ORDERING>|<category>" -> feed; values are immutable and swapped whole, so readers need no lock
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+    // Successful notices per category ("" = all), for page counts; recounted when dirty
+    private volatile Map<String, Long> totals = Map.of();
+    private volatile boolean ready;
+    private volatile boolean totalsDirty;
+    private volatile boolean rebuildNeeded;
+    // Table state and time of the last rebuild, to spot changes made by other nodes
+    private volatile List<Object> builtFrom = List.of();
+    private volatile long builtAt;
+
+    enum Ordering {
+        LATEST,      // "latest": recently processed, id DESC
+        POPULAR,     // viewCount DESC (overall feed: then gazetteDate DESC), id DESC
+        SIGNIFICANT; // significanceRating DESC, id DESC
+
+        static Ordering of(String filter) {
+            if ("popular".equals(filter)) {
+                return POPULAR;
+            }
+            return "significant".equals(filter) ? SIGNIFICANT : LATEST;
+        }
+
+        int primary(Gazette gazette) {
+            return switch (this) {
+                case LATEST -> 0;
+                case POPULAR -> gazette.getViewCount();
+                case SIGNIFICANT -> gazette.getSignificanceRating();
+            };
+        }
+
+        // Mirrors the repository queries: only the overall popular feed breaks view ties on gazette date
+        long secondary(Gazette gazette, boolean allCategories) {
+            return this == POPULAR && allCategories ? dateKey(gazette.getGazetteDate()) : 0;
+        }
+    }
+
+    /**
+     * Ids ranked by (primary DESC, secondary DESC, id DESC). {@code complete} means the feed holds every
+     * matching notice, so a new one ranking below the last entry still belongs at the end.
+     */
+    record Feed(long[] ids, int[] primary, long[] secondary, boolean complete) {
+
+        static final Feed EMPTY = new Feed(new long[0], new int[0], new long[0], true);
+
+        int size() {
+            return ids.length;
+        }
+
+        Feed without(long id) {
+            int index = -1;
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    index = i;
+                    break;
+                }
+            }
+            if (index < 0) {
+                return this;
+            }
+            return new Feed(remove(ids, index), remove(primary, index), remove(secondary, index), complete);
+        }
+
+        Feed with(long id, int primaryKey, long secondaryKey, int capacity) {
+            int pos = 0;
+            while (pos < ids.length && ranksBefore(primary[pos], secondary[pos], ids[pos], primaryKey, secondaryKey, id)) {
+                pos++;
+            }
+            if (pos == ids.length && (!complete || ids.length >= capacity)) {
+                // Ranks below everything in the window. A full window no longer holds every notice now.
+                return complete ? new Feed(ids, primary, secondary, false) : this;
+            }
+            int size = Math.min(ids.length + 1, capacity);
+            long[] newIds = new long[size];
+            int[] newPrimary = new int[size];
+            long[] newSecondary = new long[size];
+            System.arraycopy(ids, 0, newIds, 0, pos);
+            System.arraycopy(primary, 0, newPrimary, 0, pos);
+            System.arraycopy(secondary, 0, newSecondary, 0, pos);
+            newIds[pos] = id;
+            newPrimary[pos] = primaryKey;
+            newSecondary[pos] = secondaryKey;
+            int tail = size - pos - 1;
+            System.arraycopy(ids, pos, newIds, pos + 1, tail);
+            System.arraycopy(primary, pos, newPrimary, pos + 1, tail);
+            System.arraycopy(secondary, pos, newSecondary, pos + 1, tail);
+            return new Feed(newIds, newPrimary, newSecondary, complete && ids.length < capacity);
+        }
+
+        private static boolean ranksBefore(int p1, long s1, long id1, int p2, long s2, long id2) {
+            if (p1 != p2) {
+                return p1 > p2;
+            }
+            if (s1 != s2) {
+                return s1 > s2;
+            }
+            return id1 > id2;
+        }
+
+        private static long[] remove(long[] values, int index) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, result.length - index);
+            return result;
+        }
+
+        private static int[] remove(int[] values, int index) {
+            int[] result = new int[values.length - 1];
+            System.arraycopy(values, 0, result, 0, index);
+            System.arraycopy(values, index + 1, result, index, result.length - index);
+            return result;
+        }
+    }
+
+    public HotFeedService(GazetteRepository gazetteRepository,
+                          EntityManagerFactory entityManagerFactory,
+                          PipelineMetrics pipelineMetrics,
+                          @Value("${gazette.feed.hot.enabled:true}") boolean enabled,
+                          @Value("${gazette.feed.hot.size:100}") int capacity,
+                          @Value("${gazette.feed.hot.max-age-ms:60000}") long maxAgeMillis) {
+        this.gazetteRepository = gazetteRepository;
+        this.entityManagerFactory = entityManagerFactory;
+        this.pipelineMetrics = pipelineMetrics;
+        this.enabled = enabled;
+        this.capacity = Math.max(1, capacity);
+        this.maxAgeMillis = maxAgeMillis;
+    }
+
+    /**
+     * A feed page from memory, or empty when the page lies outside the window (or feeds are not built yet).
+     * @param category null for the home page feed
+     */
+    public Optional<Page<Gazette>> page(String filter, String category, int pageNum, int pageSize) {
+        if (!ready || pageNum < 1 || pageSize < 1) {
+            return Optional.empty();
+        }
+        String key = category == null ? ALL_CATEGORIES : category;
+        Pageable pageable = PageRequest.of(pageNum - 1, pageSize);
+        Feed feed = feeds.get(feedKey(Ordering.of(filter), key));
+        if (feed == null) {
+            // No successful notice in this category
+            return Optional.of(new PageImpl<>(List.of(), pageable, 0));
+        }
+        long matching = Math.max(totals.getOrDefault(key, 0L), feed.size());
+        long from = (long) (pageNum - 1) * pageSize;
+        long to = Math.min(from + pageSize, matching);
+        if (to > feed.size()) {
+            pipelineMetrics.increment("feed.hot.misses");
+            return Optional.empty();
+        }
+        List<Gazette> cards = from >= to ? List.of() : loadCards(Arrays.copyOfRange(feed.ids(), (int) from, (int) to));
+        if (cards == null) {
+            pipelineMetrics.increment("feed.hot.misses");
+            return Optional.empty();
+        }
+        pipelineMetrics.increment("feed.hot.hits");
+        return Optional.of(new PageImpl<>(cards, pageable, matching));
+    }
+
+    // Cached cards come from the second-level cache; the rest in one query (which caches them).
+    // Also used by TrendingService; null when one of the notices is gone.
+    List<Gazette> loadCards(long[] ids) {
+        Cache cache = entityManagerFactory.getCache();
+        List<Long> uncached = new ArrayList<>();
+        for (long id : ids) {
+            if (!cache.contains(Gazette.class, id)) {
+                uncached.add(id);
+            }
+        }
+        Map<Long, Gazette> loaded = new HashMap<>();
+        if (!uncached.isEmpty()) {
+            gazetteRepository.findAllById(uncached).forEach(g -> loaded.put(g.getId(), g));
+            pipelineMetrics.add("feed.hot.cardsLoaded", uncached.size());
+        }
+        List<Gazette> cards = new ArrayList<>(ids.length);
+        for (long id : ids) {
+            Gazette card = loaded.containsKey(id) ? loaded.get(id) : gazetteRepository.findById(id).orElse(null);
+            if (card == null) {
+                return null; // Deleted since the feed was updated
+            }
+            cards.add(card);
+        }
+        return cards;
+    }
+
+    /**
+     * Re-ranks a just-saved notice in every feed (removed from all, re-added where it is SUCCESS).
+     */
+    public synchronized void offer(Gazette gazette) {
+        if (!ready || gazette == null || gazette.getId() == null) {
+            return; // Before the first build the rebuild reads it from the database
+        }
+        long id = gazette.getId();
+        removeEverywhere(id);
+        if (gazette.getStatus() == ProcessingStatus.SUCCESS) {
+            for (Ordering ordering : Ordering.values()) {
+                insert(ordering, ALL_CATEGORIES, id, ordering.primary(gazette), ordering.secondary(gazette, true));
+                if (gazette.getCategory() != null) {
+                    insert(ordering, gazette.getCategory(), id, ordering.primary(gazette), ordering.secondary(gazette, false));
+                }
+            }
+        }
+        totalsDirty = true;
+    }
+
+    public synchronized void remove(Collection<Long> ids) {
+        if (!ready) {
+            return;
+        }
+        ids.forEach(this::removeEverywhere);
+        totalsDirty = true;
+        // Still correct, but shallow feeds send more pages to the database: refill them
+        rebuildNeeded = feeds.values().stream().anyMatch(f -> !f.complete() && f.size() < capacity / 2);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGazettesDeleted(GazettesDeletedEvent event) {
+        remove(event.ids());
+    }
+
+    // New view counts only move notices within the popular feeds
+    @EventListener
+    public void onEngagementFlushed(EngagementFlushedEvent event) {
+        if (!ready || event.ids().isEmpty()) {
+            return;
+        }
+        List<Object[]> rows = gazetteRepository.findPopularityKeys(event.ids());
+        synchronized (this) {
+            for (Object[] row : rows) {
+                long id = (Long) row[0];
+                String category = (String) row[1];
+                int views = ((Number) row[2]).intValue();
+                long date = dateKey((LocalDate) row[3]);
+                rerank(feedKey(Ordering.POPULAR, ALL_CATEGORIES), id, views, date);
+                if (category != null) {
+                    rerank(feedKey(Ordering.POPULAR, category), id, views, 0);
+                }
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${gazette.feed.hot.refresh-ms:10000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!ready || rebuildNeeded || changedElsewhere()) {
+                rebuild();
+            } else if (totalsDirty) {
+                totalsDirty = false;
+                totals = countTotals();
+            }
+        } catch (RuntimeException e) {
+            log.error("Hot feed refresh failed. Feeds fall back to the database until the next run.", e);
+        }
+    }
+
+    /**
+     * Reloads every feed from the repository (at startup and after deletes left feeds shallow).
+     */
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        // Read first: a change made while loading moves the marker again and triggers another rebuild
+        List<Object> marker = changeMarker();
+        Map<String, Long> counted = countTotals();
+        Map<String, Feed> built = new HashMap<>();
+        for (Map.Entry<String, Long> category : counted.entrySet()) {
+            for (Ordering ordering : Ordering.values()) {
+                built.put(feedKey(ordering, category.getKey()), load(ordering, category.getKey(), category.getValue()));
+            }
+        }
+        feeds.clear();
+        feeds.putAll(built);
+        totals = counted;
+        totalsDirty = false;
+        rebuildNeeded = false;
+        builtFrom = marker;
+        builtAt = System.currentTimeMillis();
+        ready = true;
+        log.info("Hot feeds rebuilt: {} feeds of up to {} notices in {} ms.", built.size(), capacity,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("feeds", feeds.size());
+        stats.put("capacity", capacity);
+        stats.put("idsHeld", feeds.values().stream().mapToInt(Feed::size).sum());
+        return stats;
+    }
+
+    // Also true after this node's own writes, which the events have already applied; the rebuild is redundant
+    // then, but cheap at refresh-ms intervals
+    private boolean changedElsewhere() {
+        return System.currentTimeMillis() - builtAt >= maxAgeMillis || !changeMarker().equals(builtFrom);
+    }
+
+    private List<Object> changeMarker() {
+        List<Object[]> rows = gazetteRepository.findChangeMarker();
+        return rows.isEmpty() ? List.of() : Arrays.asList(rows.get(0));
+    }
+
+    private Feed load(Ordering ordering, String category, long total) {
+        Pageable top = PageRequest.of(0, capacity);
+        boolean all = ALL_CATEGORIES.equals(category);
+        Page<Gazette> rows = switch (ordering) {
+            case LATEST -> all ? gazetteRepository.findAllSuccessfulOrderByRecentlyProcessed(top)
+                    : gazetteRepository.findAllSuccessfulByCategoryOrderByRecentlyProcessed(category, top);
+            case POPULAR -> all ? gazetteRepository.findAllSuccessfulOrderByPopularity(top)
+                    : gazetteRepository.findAllSuccessfulByCategoryOrderByPopularity(category, top);
+            case SIGNIFICANT -> all ? gazetteRepository.findAllSuccessfulOrderBySignificance(top)
+                    : gazetteRepository.findAllSuccessfulByCategoryOrderBySignificance(category, top);
+        };
+        List<Gazette> content = rows.getContent();
+        int size = content.size();
+        long[] ids = new long[size];
+        int[] primary = new int[size];
+        long[] secondary = new long[size];
+        for (int i = 0; i < size; i++) {
+            Gazette gazette = content.get(i);
+            ids[i] = gazette.getId();
+            primary[i] = ordering.primary(gazette);
+            secondary[i] = ordering.secondary(gazette, all);
+        }
+        return new Feed(ids, primary, secondary, size < capacity || size >= total);
+    }
+
+    private Map<String, Long> countTotals() {
+        Map<String, Long> counted = new HashMap<>();
+        long all = 0;
+        for (Object[] row : gazetteRepository.countSuccessfulByCategory()) {
+            long count = ((Number) row[1]).longValue();
+            all += count;
+            if (row[0] != null) {
+                counted.put((String) row[0], count);
+            }
+        }
+        counted.put(ALL_CATEGORIES, all);
+        return counted;
+    }
+
+    private void insert(Ordering ordering, String category, long id, int primaryKey, long secondaryKey) {
+        // A category first seen after the build had no successful notices, so its new feed is complete
+        feeds.compute(feedKey(ordering, category),
+                (key, feed) -> (feed == null ? Feed.EMPTY : feed).with(id, primaryKey, secondaryKey, capacity));
+    }
+
+    private void rerank(String key, long id, int primaryKey, long secondaryKey) {
+        feeds.computeIfPresent(key, (k, feed) -> feed.without(id).with(id, primaryKey, secondaryKey, capacity));
+    }
+
+    private void removeEverywhere(long id) {
+        feeds.replaceAll((key, feed) -> feed.without(id));
+    }
+
+    private static String feedKey(Ordering ordering, String category) {
+        return ordering.name() + "|" + category;
+    }
+
+    // PostgreSQL sorts NULL first in DESC order
+    private static long dateKey(LocalDate date) {
+        return date == null ? Long.MAX_VALUE : date.toEpochDay();
+    }
+}
@@ -0,0 +1,248 @@
+package com.smartgazette.smartgazette.service;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import java.util.Arrays;
+
+/**
+ * Single-pass repair of the "almost JSON" that LLMs return, followed by one strict parse.
+ * <p>
+ * In one scan over the response it skips code fences and any prose before the first '{',
+ * quotes bare keys, drops trailing commas, escapes raw control characters inside strings,
+ * stops after the top-level object closes, and closes whatever is still open if the output
+ * was truncated. The only allocation is the output buffer.
+ */
+public final class LenientJsonParser {
+
+    private LenientJsonParser() {
+    }
+
+    /**
+     * @return the parsed object, or null if the text holds no recoverable JSON object.
+     */
+    public static JSONObject parseObject(CharSequence text) {
+        String repaired = repair(text);
+        if (repaired == null) {
+            return null;
+        }
+        try {
+            return new JSONObject(repaired);
+        } catch (JSONException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the repaired JSON text of the first top-level object, or null if there is none.
+     */
+    public static String repair(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        int length = text.length();
+        int start = 0;
+        while (start < length && text.charAt(start) != '{') {
+            start++;
+        }
+        if (start == length) {
+            return null;
+        }
+
+        StringBuilder out = new StringBuilder(length - start + 16);
+        // Open containers as a stack of '{' / '[' (nesting in LLM output is shallow)
+        char[] stack = new char[32];
+        int depth = 0;
+        boolean inString = false;
+        boolean inBareKey = false;
+
+        for (int i = start; i < length; i++) {
+            char c = text.charAt(i);
+
+            if (inString) {
+                if (c == '\\') {
+                    // A lone backslash at the very end is a cut-off escape: dropped, or it would escape the closing quote
+                    if (i + 1 < length) {
+                        out.append(c).append(text.charAt(++i));
+                    }
+                } else if (c == '"') {
+                    out.append(c);
+                    inString = false;
+                } else if (c == '\n') {
+                    out.append("\\n");
+                } else if (c == '\r') {
+                    out.append("\\r");
+                } else if (c == '\t') {
+                    out.append("\\t");
+                } else if (c < 0x20) {
+                    // Other raw control characters are dropped
+                    continue;
+                } else {
+                    out.append(c);
+                }
+                continue;
+            }
+
+            if (inBareKey) {
+                if (isBareKeyChar(c)) {
+                    out.append(c);
+                    continue;
+                }
+                out.append('"');
+                inBareKey = false;
+            }
+
+            switch (c) {
+                case '"' -> {
+                    out.append(c);
+                    inString = true;
+                }
+                case '{', '[' -> {
+                    if (depth == stack.length) {
+                        stack = Arrays.copyOf(stack, depth * 2);
+                    }
+                    stack[depth++] = c;
+                    out.append(c);
+                }
+                case '}', ']' -> {
+                    dropTrailingComma(out);
+                    if (depth > 0) {
+                        depth--;
+                        out.append(stack[depth] == '{' ? '}' : ']');
+                    }
+                    if (depth == 0) {
+                        // Top-level object closed: ignore trailing prose / closing code fence
+                        return out.toString();
+                    }
+                }
+                case '`' -> {
+                    // Stray code-fence characters outside strings are never valid JSON
+                }
+                default -> {
+                    if (depth > 0 && stack[depth - 1] == '{' && isBareKeyStart(c) && expectsKey(out)) {
+                        out.append('"').append(c);
+                        inBareKey = true;
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+
+        // --- Truncated output: close whatever is still open ---
+        if (inBareKey) {
+            out.append('"');
+        }
+        if (inString) {
+            trimPartialUnicodeEscape(out);
+            out.append('"');
+        }
+        trimDanglingMember(out);
+        while (depth > 0) {
+            depth--;
+            dropTrailingComma(out);
+            out.append(stack[depth] == '{' ? '}' : ']');
+        }
+        return out.toString();
+    }
+
+    // A unicode escape cut off before its four hex digits: drop the incomplete escape so the closed string still parses
+    private static void trimPartialUnicodeEscape(StringBuilder out) {
+        int i = out.length() - 1;
+        int digits = 0;
+        while (digits < 4 && i >= 0 && Character.digit(out.charAt(i), 16) >= 0) {
+            i--;
+            digits++;
+        }
+        if (digits == 4 || i < 1 || out.charAt(i) != 'u' || out.charAt(i - 1) != '\\') {
+            return;
+        }
+        // Only an odd run of backslashes starts an escape ("\\u" is an escaped backslash and a letter)
+        int backslashes = 0;
+        for (int j = i - 1; j >= 0 && out.charAt(j) == '\\'; j--) {
+            backslashes++;
+        }
+        if (backslashes % 2 == 1) {
+            out.setLength(i - 1);
+        }
+    }
+
+    private static boolean isBareKeyStart(char c) {
+        return Character.isLetter(c) || c == '_' || c == '$';
+    }
+
+    private static boolean isBareKeyChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '-';
+    }
+
+    // A key is expected right after '{' or ',' (ignoring whitespace)
+    private static boolean expectsKey(StringBuilder out) {
+        int i = lastNonWhitespace(out);
+        return i >= 0 && (out.charAt(i) == '{' || out.charAt(i) == ',');
+    }
+
+    private static void dropTrailingComma(StringBuilder out) {
+        int i = lastNonWhitespace(out);
+        if (i >= 0 && out.charAt(i) == ',') {
+            out.setLength(i);
+        }
+    }
+
+    // Removes a key or "key": left without a value when the output was cut off
+    private static void trimDanglingMember(StringBuilder out) {
+        int i = lastNonWhitespace(out);
+        if (i < 0) {
+            return;
+        }
+        char last = out.charAt(i);
+        if (last == ':') {
+            int keyEnd = lastNonWhitespace(out, i - 1);
+            int keyStart = (keyEnd >= 0 && out.charAt(keyEnd) == '"') ? out.lastIndexOf("\"", keyEnd - 1) : -1;
+            out.setLength(Math.max(keyStart, 0));
+        } else if (last == '"') {
+            // A string that directly follows '{' or ',' is a key without a value
+            int open = out.lastIndexOf("\"", i - 1);
+            int before = open > 0 ? lastNonWhitespace(out, open - 1) : -1;
+            if (before >= 0 && (out.charAt(before) == '{' || out.charAt(before) == ',') && isInsideObject(out, before)) {
+                out.setLength(open);
+            }
+        }
+        dropTrailingComma(out);
+    }
+
+    // True if the container open at position 'pos' is an object (cheap backward scan, strings ignored)
+    private static boolean isInsideObject(StringBuilder out, int pos) {
+        int nesting = 0;
+        boolean inString = false;
+        for (int i = pos; i >= 0; i--) {
+            char c = out.charAt(i);
+            if (c == '"' && (i == 0 || out.charAt(i - 1) != '\\')) {
+                inString = !inString;
+            }
+            if (inString) {
+                continue;
+            }
+            if (c == '}' || c == ']') {
+                nesting++;
+            } else if (c == '{' || c == '[') {
+                if (nesting == 0) {
+                    return c == '{';
+                }
+                nesting--;
+            }
+        }
+        return false;
+    }
+
+    private static int lastNonWhitespace(StringBuilder out) {
+        return lastNonWhitespace(out, out.length() - 1);
+    }
+
+    private static int lastNonWhitespace(StringBuilder out, int from) {
+        int i = from;
+        while (i >= 0 && Character.isWhitespace(out.charAt(i))) {
+            i--;
+        }
+        return i;
+    }
+}
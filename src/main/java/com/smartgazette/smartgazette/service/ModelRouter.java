@@ -0,0 +1,48 @@
+package com.smartgazette.smartgazette.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Picks the model tier for a pipeline stage and notice category from configuration:
+ * <pre>
+ * gemini.routing.&lt;stage&gt;.&lt;Category&gt;=flash|pro
+ * gemini.routing.&lt;stage&gt;.default=flash|pro
+ * </pre>
+ * Anything not configured goes to Pro, which is what every stage used before routing existed.
+ */
+@Component
+public class ModelRouter {
+
+    private static final Logger log = LoggerFactory.getLogger(ModelRouter.class);
+
+    private static final String PREFIX = "gemini.routing.";
+
+    private final Environment environment;
+    private final Map<String, GeminiClient.ModelTier> resolved = new ConcurrentHashMap<>();
+
+    public ModelRouter(Environment environment) {
+        this.environment = environment;
+    }
+
+    public GeminiClient.ModelTier route(String stage, String category) {
+        return resolved.computeIfAbsent(stage + "." + category, key -> {
+            String value = environment.getProperty(PREFIX + key);
+            if (value == null) {
+                value = environment.getProperty(PREFIX + stage + ".default", "pro");
+            }
+            try {
+                return GeminiClient.ModelTier.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                log.warn("Unknown model tier '{}' for {}{}. Using Pro.", value, PREFIX, key);
+                return GeminiClient.ModelTier.PRO;
+            }
+        });
+    }
+}
@@ -0,0 +1,76 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Groups runs of adjacent, similar notices (e.g. 80 consecutive lost-title notices under the
+ * Land Registration Act) into units that share one digest article.
+ */
+public final class NoticeGrouper {
+
+    // The governing Act is named in the first few lines of a notice
+    private static final int KIND_SCAN_LINES = 8;
+    private static final int MAX_KIND_LENGTH = 120;
+
+    private NoticeGrouper() {
+    }
+
+    /**
+     * @return the notice's governing Act heading (e.g. "THE LAND REGISTRATION ACT"), or "" if none.
+     */
+    public static String kindOf(String noticeText) {
+        int lineStart = 0;
+        for (int line = 0; line < KIND_SCAN_LINES && lineStart < noticeText.length(); line++) {
+            int lineEnd = noticeText.indexOf('\n', lineStart);
+            if (lineEnd < 0) {
+                lineEnd = noticeText.length();
+            }
+            String candidate = noticeText.substring(lineStart, lineEnd).trim();
+            if (candidate.length() <= MAX_KIND_LENGTH) {
+                String upper = candidate.toUpperCase(Locale.ROOT);
+                if (upper.startsWith("THE ") && (upper.endsWith(" ACT") || upper.contains(" ACT,") || upper.contains(" ACT ("))) {
+                    return upper;
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        return "";
+    }
+
+    /**
+     * Splits {@code notices} into processing units, keeping document order. Adjacent notices with the
+     * same non-null key form a unit when the run has at least {@code minSize} notices; runs longer than
+     * {@code maxSize} are cut into several units. Everything else becomes a unit of one.
+     */
+    public static <T> List<List<T>> groupAdjacent(List<T> notices, Function<T, String> groupKey, int minSize, int maxSize) {
+        List<List<T>> units = new ArrayList<>();
+        int i = 0;
+        while (i < notices.size()) {
+            String key = groupKey.apply(notices.get(i));
+            int runEnd = i + 1;
+            if (key != null) {
+                while (runEnd < notices.size() && Objects.equals(key, groupKey.apply(notices.get(runEnd)))) {
+                    runEnd++;
+                }
+            }
+            addRun(units, notices.subList(i, runEnd), Math.max(minSize, 2), Math.max(maxSize, 2));
+            i = runEnd;
+        }
+        return units;
+    }
+
+    private static <T> void addRun(List<List<T>> units, List<T> run, int minSize, int maxSize) {
+        for (int start = 0; start < run.size(); start += maxSize) {
+            List<T> chunk = run.subList(start, Math.min(start + maxSize, run.size()));
+            if (chunk.size() >= minSize) {
+                units.add(List.copyOf(chunk));
+            } else {
+                chunk.forEach(notice -> units.add(List.of(notice)));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Cheap keyword guess at a notice's triage category, made locally with no LLM call. Used only to
+ * start extraction speculatively; the Flash triage result is always the one that counts.
+ */
+public final class NoticePreClassifier {
+
+    // Same phrases the triage prompt uses to describe each category, plus the governing Acts
+    private static final Map<String, List<String>> KEYWORDS = new LinkedHashMap<>();
+
+    static {
+        KEYWORDS.put("Land_Property", List.of("land registration act", "title deed", "land title", "certificate of lease",
+                "provisional certificate", "land acquisition", "environmental impact", "registry index map", "replacement of lost"));
+        KEYWORDS.put("Court_Legal", List.of("probate and administration", "succession cause", "insolvency", "cause list",
+                "dissolution of marriage", "high court of kenya", "the law of succession"));
+        KEYWORDS.put("Tenders", List.of("invitation to tender", "tender no", "procurement", "disposal of assets", "bids"));
+        KEYWORDS.put("Company_Registrations", List.of("companies act", "incorporation", "struck off", "dissolution of company",
+                "deregistration"));
+        KEYWORDS.put("Licensing", List.of("licence", "license", "energy and petroleum regulatory", "broadcasting"));
+        KEYWORDS.put("Public_Service_HR", List.of("public service commission", "interdiction", "vacancies", "retirement"));
+        KEYWORDS.put("Appointments", List.of("appointment", "is appointed", "i appoint", "appoints"));
+        KEYWORDS.put("Legislation", List.of("legal notice", "regulations, 20", "bill, 20", "amendment"));
+    }
+
+    // Keywords are only looked for near the top, where the Act and notice type are named
+    private static final int SCAN_CHARS = 1500;
+
+    private NoticePreClassifier() {
+    }
+
+    /**
+     * @return the best-scoring category, or null when no keyword matched (no guess is better than a bad one).
+     */
+    public static String predict(String noticeText) {
+        String head = noticeText.substring(0, Math.min(noticeText.length(), SCAN_CHARS)).toLowerCase(Locale.ROOT);
+        String best = null;
+        int bestScore = 0;
+        for (Map.Entry<String, List<String>> category : KEYWORDS.entrySet()) {
+            int score = 0;
+            for (String keyword : category.getValue()) {
+                if (head.contains(keyword)) {
+                    score++;
+                }
+            }
+            if (score > bestScore) {
+                best = category.getKey();
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,99 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Splits gazette text into notices in one scan, returning offset ranges into the original text
+ * instead of substring copies. A notice is materialised only when the pipeline reaches it.
+ * <p>
+ * Notices start at "GAZETTE NOTICE NO. n" or "LEGAL NOTICE NO. n" at the beginning of a line.
+ * "SPECIAL ISSUE" and supplement headers ("KENYA GAZETTE SUPPLEMENT No. n", ...) on a line of their own
+ * end the previous notice but are not notices themselves, so masthead text between them and the next notice is dropped.
+ */
+public final class NoticeSegmenter {
+
+    // Group 1 = notice boundary, group 2 = section boundary. Section headers must fill their line:
+    // notice bodies cite "... Kenya Gazette Supplement No. 12 ..." inline, which is not a boundary.
+    private static final Pattern BOUNDARY = Pattern.compile(
+            "(?m)^[ \\t]*(?:((?:GAZETTE|LEGAL) NOTICE NO\\.\\s*\\d+)"
+                    + "|(SPECIAL ISSUE|(?:[A-Z]+ ){0,3}SUPPLEMENT[ \\t]+NO\\.?[ \\t]*\\d+)[ \\t]*$)",
+            Pattern.CASE_INSENSITIVE);
+
+    private static final Pattern NOTICE_NUMBER = Pattern.compile(
+            "(?:GAZETTE|LEGAL) NOTICE NO\\.\\s*(\\d+)", Pattern.CASE_INSENSITIVE);
+
+    /**
+     * A notice as a [start, end) range of the segmented text, already trimmed of surrounding whitespace.
+     */
+    public record NoticeSpan(int start, int end) {
+
+        public int length() {
+            return end - start;
+        }
+
+        public String text(CharSequence source) {
+            return source.subSequence(start, end).toString();
+        }
+    }
+
+    private NoticeSegmenter() {
+    }
+
+    /**
+     * @return the notice ranges in document order; empty if the text has no notice boundary.
+     */
+    public static List<NoticeSpan> segment(CharSequence text) {
+        List<NoticeSpan> spans = new ArrayList<>();
+        if (text == null || text.length() == 0) {
+            return spans;
+        }
+        Matcher matcher = BOUNDARY.matcher(text);
+        int noticeStart = -1;
+        while (matcher.find()) {
+            if (noticeStart >= 0) {
+                addTrimmed(spans, text, noticeStart, matcher.start());
+            }
+            // Text before the first notice, and after a section header, is masthead: not a notice
+            noticeStart = matcher.start(1) >= 0 ? matcher.start(1) : -1;
+        }
+        if (noticeStart >= 0) {
+            addTrimmed(spans, text, noticeStart, text.length());
+        }
+        return spans;
+    }
+
+    /**
+     * @return the whole text as one trimmed span (for documents without notice boundaries).
+     */
+    public static NoticeSpan whole(CharSequence text) {
+        List<NoticeSpan> spans = new ArrayList<>(1);
+        addTrimmed(spans, text, 0, text.length());
+        return spans.isEmpty() ? new NoticeSpan(0, 0) : spans.get(0);
+    }
+
+    /**
+     * @return the digits of the first "GAZETTE/LEGAL NOTICE NO. n" in the text, or null.
+     */
+    public static String findNoticeNumber(CharSequence text) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = NOTICE_NUMBER.matcher(text);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static void addTrimmed(List<NoticeSpan> spans, CharSequence text, int start, int end) {
+        while (start < end && Character.isWhitespace(text.charAt(start))) {
+            start++;
+        }
+        while (end > start && Character.isWhitespace(text.charAt(end - 1))) {
+            end--;
+        }
+        if (end > start) {
+            spans.add(new NoticeSpan(start, end));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.ProcessingStatus;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory near-duplicate index over the SimHash of every successfully processed notice.
+ * <p>
+ * The 64-bit hash is cut into 4 bands of 16 bits. Two hashes within 3 bits of each other must
+ * agree exactly on at least one band, so a lookup only compares against notices sharing a band.
+ */
+@Component
+public class NoticeSimilarityIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(NoticeSimilarityIndex.class);
+
+    private static final int BANDS = 4;
+    private static final int BAND_BITS = 64 / BANDS;
+
+    /**
+     * A notice in the index: its id, SimHash and triaged category.
+     */
+    public record Entry(long id, long simhash, String category) { }
+
+    /**
+     * A lookup hit and its Hamming distance from the query.
+     */
+    public record Match(Entry entry, int distance) { }
+
+    private final GazetteRepository gazetteRepository;
+    private final PipelineMetrics pipelineMetrics;
+    private final int maxDistance;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    // (band index, band value) -> ids of notices with that band
+    private final Map<Integer, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    public NoticeSimilarityIndex(GazetteRepository gazetteRepository,
+                                 PipelineMetrics pipelineMetrics,
+                                 @Value("${gazette.neardup.max-distance:3}") int maxDistance) {
+        this.gazetteRepository = gazetteRepository;
+        this.pipelineMetrics = pipelineMetrics;
+        // The banding only guarantees recall up to BANDS - 1 differing bits
+        this.maxDistance = Math.min(maxDistance, BANDS - 1);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.nanoTime();
+        List<Object[]> rows = gazetteRepository.findSimilarityEntries();
+        for (Object[] row : rows) {
+            add(new Entry((Long) row[0], (Long) row[1], (String) row[2]));
+        }
+        log.info("Near-duplicate index rebuilt with {} notices in {} ms.", entries.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    public void add(Gazette gazette) {
+        if (gazette.getId() != null && gazette.getContentSimhash() != null && gazette.getStatus() == ProcessingStatus.SUCCESS) {
+            add(new Entry(gazette.getId(), gazette.getContentSimhash(), gazette.getCategory()));
+        }
+    }
+
+    public void remove(Long id) {
+        Entry entry = id == null ? null : entries.remove(id);
+        if (entry == null) {
+            return;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            Set<Long> ids = postings.get(bandKey(band, entry.simhash()));
+            if (ids != null) {
+                ids.remove(id);
+            }
+        }
+    }
+
+    /**
+     * @return the closest indexed notice within the configured distance, if any.
+     */
+    public Optional<Match> findNearDuplicate(long simhash) {
+        long start = System.nanoTime();
+        Match best = null;
+        for (int band = 0; band < BANDS && (best == null || best.distance() > 0); band++) {
+            Set<Long> ids = postings.get(bandKey(band, simhash));
+            if (ids == null) {
+                continue;
+            }
+            for (Long id : ids) {
+                Entry candidate = entries.get(id);
+                if (candidate == null) {
+                    continue;
+                }
+                int distance = SimHash.distance(simhash, candidate.simhash());
+                if (distance <= maxDistance && (best == null || distance < best.distance())) {
+                    best = new Match(candidate, distance);
+                }
+            }
+        }
+        pipelineMetrics.record("neardup.lookup", System.nanoTime() - start, best != null);
+        return Optional.ofNullable(best);
+    }
+
+    public int maxDistance() {
+        return maxDistance;
+    }
+
+    public Map<String, Object> getStats() {
+        long postingIds = postings.values().stream().mapToLong(Set::size).sum();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("indexedNotices", entries.size());
+        stats.put("bandBuckets", postings.size());
+        stats.put("postingEntries", postingIds);
+        // Rough heap estimate: an entry (~64 B) per notice plus a boxed id in a set (~48 B) per posting
+        stats.put("approxBytes", entries.size() * 64L + postingIds * 48L);
+        stats.put("maxDistance", maxDistance);
+        return stats;
+    }
+
+    private void add(Entry entry) {
+        Entry previous = entries.put(entry.id(), entry);
+        if (previous != null && previous.simhash() != entry.simhash()) {
+            for (int band = 0; band < BANDS; band++) {
+                Set<Long> ids = postings.get(bandKey(band, previous.simhash()));
+                if (ids != null) {
+                    ids.remove(entry.id());
+                }
+            }
+        }
+        for (int band = 0; band < BANDS; band++) {
+            postings.computeIfAbsent(bandKey(band, entry.simhash()), k -> ConcurrentHashMap.newKeySet()).add(entry.id());
+        }
+    }
+
+    private static int bandKey(int band, long simhash) {
+        int value = (int) ((simhash >>> (band * BAND_BITS)) & 0xFFFF);
+        return (band << BAND_BITS) | value;
+    }
+}
@@ -0,0 +1,255 @@
+package com.smartgazette.smartgazette.service;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.common.PDRectangle;
+import org.apache.pdfbox.rendering.ImageType;
+import org.apache.pdfbox.rendering.PDFRenderer;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders PDF pages to images for Vision OCR. Pages are rendered in grayscale at a DPI picked from the
+ * page's text density, encoded as JPEG/PNG/WebP, and cached on disk under storage/page-cache/ keyed by
+ * the PDF's SHA-256, so retries and re-runs of the same gazette never render a page twice.
+ */
+@Service
+public class PageImageRenderer {
+
+    private static final Logger log = LoggerFactory.getLogger(PageImageRenderer.class);
+
+    private static final String CACHE_DIR = "storage/page-cache/";
+    private static final String FALLBACK_FORMAT = "jpeg";
+
+    // Text-layer density (chars per square inch) at or below which the minimum DPI is enough, and at
+    // or above which small two-column print needs the maximum
+    private static final double SPARSE_DENSITY = 15;
+    private static final double DENSE_DENSITY = 60;
+    // Fewer characters than this means there is no usable text layer (a scan): render at full DPI
+    private static final int SCANNED_PAGE_CHARS = 20;
+    private static final int DPI_STEP = 25;
+
+    private final PipelineMetrics pipelineMetrics;
+    private final String format;
+    private final float quality;
+    private final int minDpi;
+    private final int maxDpi;
+    private final boolean adaptiveDpi;
+
+    /**
+     * An encoded page image; {@code fromCache} is true when no rendering was done.
+     */
+    public record RenderedPage(byte[] bytes, String mimeType, int dpi, String format, boolean fromCache) { }
+
+    public PageImageRenderer(PipelineMetrics pipelineMetrics,
+                             @Value("${gazette.ocr.image.format:jpeg}") String format,
+                             @Value("${gazette.ocr.image.quality:0.85}") float quality,
+                             @Value("${gazette.ocr.dpi.min:200}") int minDpi,
+                             @Value("${gazette.ocr.dpi.max:300}") int maxDpi,
+                             @Value("${gazette.ocr.dpi.adaptive:true}") boolean adaptiveDpi) {
+        this.pipelineMetrics = pipelineMetrics;
+        this.format = resolveFormat(format);
+        this.quality = quality;
+        this.minDpi = Math.min(minDpi, maxDpi);
+        this.maxDpi = maxDpi;
+        this.adaptiveDpi = adaptiveDpi;
+    }
+
+    /**
+     * Renders a page with the configured format, quality and (adaptive) DPI.
+     * @param pdfSha256 cache key; null disables the cache
+     */
+    public RenderedPage renderForOcr(PDDocument document, int pageIndex, String pdfSha256) throws IOException {
+        int dpi = adaptiveDpi ? chooseDpi(document, pageIndex) : maxDpi;
+        return render(document, pageIndex, pdfSha256, dpi, format, quality);
+    }
+
+    /**
+     * Renders a page with explicit options (used by the OCR benchmark).
+     */
+    public RenderedPage render(PDDocument document, int pageIndex, String pdfSha256, int dpi, String requestedFormat,
+                               float requestedQuality) throws IOException {
+        String imageFormat = resolveFormat(requestedFormat);
+        Path cached = pdfSha256 == null ? null : cachePath(pdfSha256, pageIndex, dpi, imageFormat, requestedQuality);
+        if (cached != null && Files.exists(cached)) {
+            pipelineMetrics.increment("ocr.render.cacheHits");
+            return new RenderedPage(Files.readAllBytes(cached), mimeTypeOf(imageFormat), dpi, imageFormat, true);
+        }
+
+        long start = System.nanoTime();
+        BufferedImage image = new PDFRenderer(document).renderImageWithDPI(pageIndex, dpi, ImageType.GRAY);
+        byte[] bytes = encode(image, imageFormat, requestedQuality);
+        long elapsed = System.nanoTime() - start;
+
+        pipelineMetrics.record("ocr.render", elapsed, true);
+        pipelineMetrics.add("ocr.render.bytes", bytes.length);
+        pipelineMetrics.increment("ocr.render.cacheMisses");
+        log.info("Rendered page {} at {} DPI as {} ({} KB) in {} ms.", pageIndex + 1, dpi, imageFormat,
+                bytes.length / 1024, TimeUnit.NANOSECONDS.toMillis(elapsed));
+
+        if (cached != null) {
+            writeCache(cached, bytes);
+        }
+        return new RenderedPage(bytes, mimeTypeOf(imageFormat), dpi, imageFormat, false);
+    }
+
+    /**
+     * Picks a DPI from the page's text-layer density: sparse pages (covers, short notices) render at the
+     * minimum, dense two-column pages and scans without a text layer at the maximum.
+     */
+    public int chooseDpi(PDDocument document, int pageIndex) throws IOException {
+        PDFTextStripper stripper = new PDFTextStripper();
+        stripper.setStartPage(pageIndex + 1);
+        stripper.setEndPage(pageIndex + 1);
+        int chars = stripper.getText(document).replaceAll("\\s+", "").length();
+        if (chars < SCANNED_PAGE_CHARS) {
+            return maxDpi;
+        }
+        PDRectangle box = document.getPage(pageIndex).getMediaBox();
+        double squareInches = (box.getWidth() / 72.0) * (box.getHeight() / 72.0);
+        return dpiForDensity(chars / Math.max(squareInches, 1.0), minDpi, maxDpi);
+    }
+
+    /**
+     * Removes every cached page image of a PDF.
+     */
+    public void evict(String pdfSha256) {
+        Path dir = Paths.get(CACHE_DIR);
+        if (pdfSha256 == null || !Files.isDirectory(dir)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, pdfSha256 + "-p*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            log.warn("Could not evict cached page images for {}: {}", pdfSha256, e.getMessage());
+        }
+    }
+
+    /**
+     * Word-level F1 of OCR output against reference text (case and punctuation ignored), used to compare
+     * render settings; 1.0 means the same bag of words.
+     */
+    static double wordF1(String reference, String ocrText) {
+        Map<String, Integer> expected = wordCounts(reference);
+        Map<String, Integer> actual = wordCounts(ocrText);
+        int expectedTotal = expected.values().stream().mapToInt(Integer::intValue).sum();
+        int actualTotal = actual.values().stream().mapToInt(Integer::intValue).sum();
+        if (expectedTotal == 0 || actualTotal == 0) {
+            return expectedTotal == actualTotal ? 1.0 : 0.0;
+        }
+        int matched = 0;
+        for (Map.Entry<String, Integer> word : expected.entrySet()) {
+            matched += Math.min(word.getValue(), actual.getOrDefault(word.getKey(), 0));
+        }
+        double precision = (double) matched / actualTotal;
+        double recall = (double) matched / expectedTotal;
+        return matched == 0 ? 0.0 : 2 * precision * recall / (precision + recall);
+    }
+
+    private static Map<String, Integer> wordCounts(String text) {
+        Map<String, Integer> counts = new HashMap<>();
+        for (String word : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                counts.merge(word, 1, Integer::sum);
+            }
+        }
+        return counts;
+    }
+
+    // Linear between the sparse and dense thresholds, rounded to a DPI_STEP
+    static int dpiForDensity(double charsPerSquareInch, int minDpi, int maxDpi) {
+        double t = (charsPerSquareInch - SPARSE_DENSITY) / (DENSE_DENSITY - SPARSE_DENSITY);
+        t = Math.max(0, Math.min(1, t));
+        int dpi = (int) Math.round((minDpi + t * (maxDpi - minDpi)) / DPI_STEP) * DPI_STEP;
+        return Math.max(minDpi, Math.min(maxDpi, dpi));
+    }
+
+    /**
+     * @return the format name if ImageIO can write it (WebP needs a plugin on the classpath), else JPEG.
+     */
+    static String resolveFormat(String requested) {
+        String name = requested == null ? FALLBACK_FORMAT : requested.trim().toLowerCase(Locale.ROOT);
+        if ("jpg".equals(name)) {
+            name = "jpeg";
+        }
+        if (!ImageIO.getImageWritersByFormatName(name).hasNext()) {
+            log.warn("No ImageIO writer for image format '{}'. Falling back to {}.", requested, FALLBACK_FORMAT);
+            return FALLBACK_FORMAT;
+        }
+        return name;
+    }
+
+    static byte[] encode(BufferedImage image, String format, float quality) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByFormatName(format);
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + format);
+        }
+        ImageWriter writer = writers.next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        if (isLossy(format) && param.canWriteCompressed()) {
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            if (param.getCompressionTypes() != null && param.getCompressionType() == null) {
+                param.setCompressionType(param.getCompressionTypes()[0]);
+            }
+            param.setCompressionQuality(Math.max(0f, Math.min(1f, quality)));
+        }
+        try (ByteArrayOutputStream baos = new ByteArrayOutputStream();
+             ImageOutputStream out = ImageIO.createImageOutputStream(baos)) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+            out.flush();
+            return baos.toByteArray();
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static boolean isLossy(String format) {
+        return "jpeg".equals(format) || "webp".equals(format);
+    }
+
+    private static String mimeTypeOf(String format) {
+        return "image/" + format;
+    }
+
+    // e.g. storage/page-cache/<sha>-p1-250dpi-q85.jpeg (lossless formats carry no quality)
+    private static Path cachePath(String sha256, int pageIndex, int dpi, String format, float quality) {
+        String qualityTag = isLossy(format) ? "-q" + Math.round(quality * 100) : "";
+        return Paths.get(CACHE_DIR, sha256 + "-p" + (pageIndex + 1) + "-" + dpi + "dpi" + qualityTag + "." + format);
+    }
+
+    // Written to a temp file and renamed so a concurrent reader never sees a partial image
+    private void writeCache(Path target, byte[] bytes) {
+        try {
+            Files.createDirectories(target.getParent());
+            Path tmp = Files.createTempFile(target.getParent(), ".render-", ".part");
+            Files.write(tmp, bytes);
+            Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            log.warn("Could not cache rendered page {}: {}", target.getFileName(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams gazette PDFs straight to disk. Bytes go to a ".part" file while their SHA-256 is computed,
+ * and only a complete, non-duplicate file is atomically renamed into storage/gazettes/.
+ */
+@Service
+public class PdfStorageService {
+
+    private static final Logger log = LoggerFactory.getLogger(PdfStorageService.class);
+
+    private static final String STORAGE_DIR = "storage/gazettes/";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int MAX_DOWNLOAD_ATTEMPTS = 5;
+    private static final int MAX_REDIRECTS = 5;
+
+    private final GazetteRepository gazetteRepository;
+
+    /**
+     * Result of storing a PDF. When {@code duplicate} is true the bytes were already ingested,
+     * nothing was kept on disk and {@code file} is null.
+     */
+    public record StoredPdf(File file, String sha256, boolean duplicate) { }
+
+    public PdfStorageService(GazetteRepository gazetteRepository) {
+        this.gazetteRepository = gazetteRepository;
+    }
+
+    /**
+     * Downloads a PDF into {@code destination}, resuming with an HTTP Range request if the connection drops.
+     * Redirects are followed across http/https, which HttpURLConnection will not do on its own.
+     * @return the stored PDF, or null if the server did not return a PDF.
+     */
+    public StoredPdf download(String pdfUrl, String referrer, File destination) throws IOException {
+        Path target = destination.toPath();
+        Path part = partFileFor(target);
+        Files.createDirectories(part.getParent());
+
+        for (int attempt = 1; attempt <= MAX_DOWNLOAD_ATTEMPTS; attempt++) {
+            long resumeFrom = Files.exists(part) ? Files.size(part) : 0;
+            HttpURLConnection conn = null;
+            try {
+                conn = openFollowingRedirects(pdfUrl, referrer, resumeFrom);
+                int status = conn.getResponseCode();
+                String contentType = conn.getContentType();
+                if (status >= 400) {
+                    throw new IOException("HTTP " + status + " for " + pdfUrl);
+                }
+                if (contentType == null || !contentType.contains("application/pdf")) {
+                    log.error("Downloaded file is NOT a PDF! Content-Type: {}. Halting.", contentType);
+                    Files.deleteIfExists(part);
+                    return null;
+                }
+
+                // 206 = server honoured the Range header; anything else means start over
+                boolean append = resumeFrom > 0 && status == HttpURLConnection.HTTP_PARTIAL;
+                if (resumeFrom > 0) {
+                    log.info("Resuming download at byte {} (server {}).", resumeFrom, append ? "supports ranges" : "restarted from 0");
+                }
+                // On resume only the bytes already on disk are re-read into the digest; new bytes are hashed as they stream
+                MessageDigest digest = append ? digestOf(part) : newDigest();
+                try (InputStream in = conn.getInputStream();
+                     OutputStream out = Files.newOutputStream(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                             append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING)) {
+                    copyAndDigest(in, out, digest);
+                }
+
+                String sha256 = HexFormat.of().formatHex(digest.digest());
+                log.info("PDF downloaded successfully ({} bytes, sha256 {})", Files.size(part), sha256);
+                return commit(part, target, sha256);
+            } catch (IOException e) {
+                log.warn("PDF download attempt {}/{} failed: {}", attempt, MAX_DOWNLOAD_ATTEMPTS, e.getMessage());
+                if (attempt == MAX_DOWNLOAD_ATTEMPTS) {
+                    throw e;
+                }
+                sleepBeforeRetry(attempt);
+            } finally {
+                if (conn != null) {
+                    conn.disconnect();
+                }
+            }
+        }
+        return null;
+    }
+
+    // Follows Location headers by hand (any scheme change included), up to MAX_REDIRECTS hops
+    private HttpURLConnection openFollowingRedirects(String pdfUrl, String referrer, long resumeFrom) throws IOException {
+        URL url = new URL(pdfUrl);
+        for (int hop = 0; hop <= MAX_REDIRECTS; hop++) {
+            HttpURLConnection conn = (HttpURLConnection) url.openConnection();
+            conn.setInstanceFollowRedirects(false);
+            conn.setConnectTimeout(60000);
+            conn.setReadTimeout(120000);
+            conn.setRequestProperty("User-Agent", "Mozilla/5.0 (Windows NT 10.0; Win64; x64)");
+            if (referrer != null) {
+                conn.setRequestProperty("Referer", referrer);
+            }
+            if (resumeFrom > 0) {
+                conn.setRequestProperty("Range", "bytes=" + resumeFrom + "-");
+            }
+
+            int status = conn.getResponseCode();
+            if (status < 300 || status >= 400 || status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+                return conn;
+            }
+            String location = conn.getHeaderField("Location");
+            conn.disconnect();
+            if (location == null || location.isBlank()) {
+                throw new IOException("HTTP " + status + " without a Location header for " + url);
+            }
+            URL next = new URL(url, location);
+            if (!"http".equals(next.getProtocol()) && !"https".equals(next.getProtocol())) {
+                throw new IOException("Refusing redirect to " + next);
+            }
+            log.debug("PDF download redirected ({}) to {}", status, next);
+            url = next;
+        }
+        throw new IOException("More than " + MAX_REDIRECTS + " redirects for " + pdfUrl);
+    }
+
+    /**
+     * Streams an admin upload into storage, hashing it on the way in.
+     */
+    public StoredPdf storeUpload(InputStream upload, String originalFilename) throws IOException {
+        String safeName = (originalFilename == null || originalFilename.isBlank())
+                ? "upload.pdf"
+                : originalFilename.replaceAll("[^a-zA-Z0-9._-]", "_");
+        Path part = Files.createTempFile(ensureStorageDir(), "upload-", ".part");
+
+        MessageDigest digest = newDigest();
+        try (InputStream in = upload; OutputStream out = Files.newOutputStream(part, StandardOpenOption.TRUNCATE_EXISTING)) {
+            copyAndDigest(in, out, digest);
+        } catch (IOException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        String fileName = "Upload_" + sha256.substring(0, 12) + "_" + (safeName.endsWith(".pdf") ? safeName : safeName + ".pdf");
+        return commit(part, ensureStorageDir().resolve(fileName), sha256);
+    }
+
+    /**
+     * True if a PDF with this hash has already been turned into notices.
+     */
+    public boolean isAlreadyIngested(String sha256) {
+        return sha256 != null && gazetteRepository.existsByPdfSha256(sha256);
+    }
+
+    public String sha256Of(File file) throws IOException {
+        return HexFormat.of().formatHex(digestOf(file.toPath()).digest());
+    }
+
+    private MessageDigest digestOf(Path path) throws IOException {
+        MessageDigest digest = newDigest();
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return digest;
+    }
+
+    private void copyAndDigest(InputStream in, OutputStream out, MessageDigest digest) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+            out.write(buffer, 0, read);
+        }
+    }
+
+    private StoredPdf commit(Path part, Path target, String sha256) throws IOException {
+        if (isAlreadyIngested(sha256)) {
+            log.info("PDF {} (sha256 {}) was already ingested. Discarding the download.", target.getFileName(), sha256);
+            Files.deleteIfExists(part);
+            return new StoredPdf(null, sha256, true);
+        }
+        Files.move(part, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        log.info("Saved PDF to permanent storage: {}", target.toAbsolutePath());
+        return new StoredPdf(target.toAbsolutePath().toFile(), sha256, false);
+    }
+
+    private Path ensureStorageDir() throws IOException {
+        return Files.createDirectories(Paths.get(STORAGE_DIR));
+    }
+
+    // Kept next to the target so the final rename never crosses a filesystem
+    private Path partFileFor(Path target) {
+        return target.resolveSibling("." + target.getFileName() + ".part");
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private void sleepBeforeRetry(int attempt) throws IOException {
+        try {
+            TimeUnit.SECONDS.sleep(2L * attempt);
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Download interrupted", ie);
+        }
+    }
+}
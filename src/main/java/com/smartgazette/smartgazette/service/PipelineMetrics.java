@@ -0,0 +1,70 @@
+package com.smartgazette.smartgazette.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory timers and counters for the ingestion pipeline (which path a notice took, how long it
+ * took, how often it succeeded). Reported on the admin metrics endpoint; reset on restart.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    public void record(String name, long nanos, boolean success) {
+        timers.computeIfAbsent(name, n -> new Timer()).record(nanos, success);
+    }
+
+    public void increment(String name) {
+        add(name, 1);
+    }
+
+    public void add(String name, long delta) {
+        counters.computeIfAbsent(name, n -> new AtomicLong()).addAndGet(delta);
+    }
+
+    public long count(String name) {
+        AtomicLong counter = counters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new TreeMap<>();
+        timers.forEach((name, timer) -> stats.put(name, timer.snapshot()));
+        counters.forEach((name, counter) -> stats.put(name, counter.get()));
+        return stats;
+    }
+
+    private static final class Timer {
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong successes = new AtomicLong();
+        private final AtomicLong totalNanos = new AtomicLong();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(long nanos, boolean success) {
+            count.incrementAndGet();
+            totalNanos.addAndGet(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+            if (success) {
+                successes.incrementAndGet();
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            long n = count.get();
+            Map<String, Object> s = new LinkedHashMap<>();
+            s.put("count", n);
+            s.put("successRate", n == 0 ? 0.0 : Math.round(successes.get() * 1000.0 / n) / 1000.0);
+            s.put("avgMs", n == 0 ? 0 : totalNanos.get() / n / 1_000_000);
+            s.put("maxMs", maxNanos.get() / 1_000_000);
+            return s;
+        }
+    }
+}
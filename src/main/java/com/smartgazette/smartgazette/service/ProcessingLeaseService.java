@@ -0,0 +1,92 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.repository.ProcessingLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@Service
+public class ProcessingLeaseService {
+
+    private static final Logger log = LoggerFactory.getLogger(ProcessingLeaseService.class);
+
+    private static final Pattern LAST_NUMBER = Pattern.compile("(\\d+)(?!.*\\d)");
+
+    private final ProcessingLeaseRepository leaseRepository;
+    private final String instanceId;
+
+    public ProcessingLeaseService(ProcessingLeaseRepository leaseRepository,
+                                  @Value("${smartgazette.instance-id:}") String instanceId) {
+        this.leaseRepository = leaseRepository;
+        this.instanceId = (instanceId == null || instanceId.isBlank()) ? defaultInstanceId() : instanceId;
+        log.info("Processing leases will be held as instance '{}'", this.instanceId);
+    }
+
+    /**
+     * Tries to take the named lease for this instance.
+     * @return true if this instance now holds the lease (fresh, renewed, or taken over after expiry).
+     */
+    public boolean tryAcquire(String leaseKey, Duration ttl) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime expiresAt = now.plus(ttl);
+
+        // 1. Renew our own lease, or steal an expired one
+        if (leaseRepository.takeOverLease(leaseKey, instanceId, now, expiresAt) == 1) {
+            log.debug("Lease '{}' acquired (takeover/renew) until {}", leaseKey, expiresAt);
+            return true;
+        }
+
+        // 2. No row yet (or someone else holds a live lease) - the primary key decides
+        try {
+            leaseRepository.insertLease(leaseKey, instanceId, now, expiresAt);
+            log.debug("Lease '{}' acquired (new) until {}", leaseKey, expiresAt);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.info("Lease '{}' is held by another instance. Skipping.", leaseKey);
+            return false;
+        }
+    }
+
+    public void release(String leaseKey) {
+        if (leaseRepository.releaseLease(leaseKey, instanceId) == 0) {
+            log.warn("Lease '{}' was not held by this instance on release (it may have expired).", leaseKey);
+        }
+    }
+
+    /**
+     * Lease key for ingesting a single gazette issue. The scraper sees numbers like "Vol. CXXVII-No. 225"
+     * while header extraction yields "No. 225", so only the trailing issue number is used.
+     */
+    public static String gazetteLeaseKey(String gazetteNumber, LocalDate gazetteDate) {
+        String issue = gazetteNumber == null ? "" : gazetteNumber.trim();
+        Matcher m = LAST_NUMBER.matcher(issue);
+        if (m.find()) {
+            issue = m.group(1);
+        }
+        return "gazette:" + issue + ":" + gazetteDate;
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private static String defaultInstanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown-host";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
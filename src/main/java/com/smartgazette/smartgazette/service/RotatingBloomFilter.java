@@ -0,0 +1,81 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.Arrays;
+
+/**
+ * Two generations of Bloom filter over 64-bit hashes: keys are added to the current one, lookups check
+ * both, and {@link #rotate()} drops the older. A key is remembered for one to two rotation periods in a
+ * fixed amount of memory. There are no false negatives inside that window; a new key is mistaken for
+ * a seen one at about the configured rate once a generation holds the expected number of keys.
+ */
+public final class RotatingBloomFilter {
+
+    private final int bits;
+    private final int hashes;
+    private long[] current;
+    private long[] previous;
+    private long added; // keys in the current generation
+
+    public RotatingBloomFilter(long expectedKeys, double falsePositiveRate) {
+        if (expectedKeys < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Bloom filter needs expectedKeys >= 1 and 0 < falsePositiveRate < 1");
+        }
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expectedKeys * Math.log(falsePositiveRate) / (ln2 * ln2));
+        this.bits = (int) Math.min(Math.max(64, optimalBits), Integer.MAX_VALUE - 64);
+        this.hashes = (int) Math.max(1, Math.round((double) bits / expectedKeys * ln2));
+        this.current = new long[(bits + 63) / 64];
+        this.previous = new long[current.length];
+    }
+
+    /**
+     * Records the key.
+     * @return false when it was (probably) already recorded inside the window
+     */
+    public synchronized boolean add(long hash) {
+        if (contains(current, hash) || contains(previous, hash)) {
+            return false;
+        }
+        // Double hashing (Kirsch-Mitzenmacher): k probes from the two 32-bit halves
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+            current[bit >>> 6] |= 1L << bit;
+        }
+        added++;
+        return true;
+    }
+
+    public synchronized void rotate() {
+        long[] recycled = previous;
+        Arrays.fill(recycled, 0L);
+        previous = current;
+        current = recycled;
+        added = 0;
+    }
+
+    public int bits() {
+        return bits;
+    }
+
+    public int hashes() {
+        return hashes;
+    }
+
+    public synchronized long added() {
+        return added;
+    }
+
+    private boolean contains(long[] filter, long hash) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 0; i < hashes; i++) {
+            int bit = ((h1 + i * h2) & Integer.MAX_VALUE) % bits;
+            if ((filter[bit >>> 6] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
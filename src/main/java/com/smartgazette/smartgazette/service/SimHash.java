@@ -0,0 +1,88 @@
+package com.smartgazette.smartgazette.service;
+
+/**
+ * 64-bit SimHash over word 3-shingles. Digit runs are folded to one token so that templated
+ * notices differing only in plot, case or ID numbers land within a few bits of each other.
+ */
+public final class SimHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long DIGITS_TOKEN = 0x9e3779b97f4a7c15L;
+
+    private SimHash() {
+    }
+
+    public static long of(CharSequence text) {
+        int[] weights = new int[64];
+        long t1 = 0, t2 = 0;
+        int tokens = 0;
+
+        int length = text == null ? 0 : text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                i++;
+                continue;
+            }
+            // Read one token: a run of letters (lower-cased) or a run of digits (folded to one value)
+            long token;
+            if (Character.isDigit(c)) {
+                while (i < length && Character.isDigit(text.charAt(i))) {
+                    i++;
+                }
+                token = DIGITS_TOKEN;
+            } else {
+                token = FNV_OFFSET;
+                while (i < length && Character.isLetter(text.charAt(i))) {
+                    token = (token ^ Character.toLowerCase(text.charAt(i))) * FNV_PRIME;
+                    i++;
+                }
+            }
+
+            tokens++;
+            if (tokens >= 3) {
+                accumulate(weights, mix(t1 ^ Long.rotateLeft(t2, 21) ^ Long.rotateLeft(token, 42)));
+            }
+            t1 = t2;
+            t2 = token;
+        }
+
+        // Too short for a 3-shingle: fall back to the tokens themselves
+        if (tokens == 1) {
+            accumulate(weights, mix(t2));
+        } else if (tokens == 2) {
+            accumulate(weights, mix(t1));
+            accumulate(weights, mix(t2));
+        }
+
+        long hash = 0;
+        for (int bit = 0; bit < 64; bit++) {
+            if (weights[bit] > 0) {
+                hash |= 1L << bit;
+            }
+        }
+        return hash;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    private static void accumulate(int[] weights, long shingleHash) {
+        for (int bit = 0; bit < 64; bit++) {
+            weights[bit] += ((shingleHash >>> bit) & 1L) != 0 ? 1 : -1;
+        }
+    }
+
+    // MurmurHash3 fmix64 finaliser: spreads the shingle hash across all 64 bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,235 @@
+package com.smartgazette.smartgazette.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Cleans extracted PDF text before it is segmented and sent to the models: drops running page
+ * headers/footers and page numbers, joins words hyphenated across line ends and collapses layout
+ * whitespace. Also fits text into a prompt token budget without cutting mid-sentence.
+ */
+public final class TextCompactor {
+
+    /**
+     * Page separator expected between pages of the input (set as the PDFTextStripper page end).
+     */
+    public static final String PAGE_BREAK = "\f";
+
+    // Running headers/footers sit within the first/last few lines of a page
+    private static final int EDGE_LINES = 3;
+    private static final int MIN_PAGES_FOR_HEADERS = 3;
+    private static final int MAX_RUNNING_LINE_LENGTH = 120;
+    private static final Pattern PAGE_NUMBER = Pattern.compile("(?i)(?:page\\s+)?\\d{1,4}(?:\\s+of\\s+\\d{1,4})?");
+    private static final String TRUNCATION_MARKER = "\n[...]\n";
+
+    /**
+     * The compacted text and what compaction removed.
+     */
+    public record Result(String text, int charsBefore, int charsAfter, int runningLinesRemoved) {
+
+        public int tokensSaved() {
+            return estimateTokens(charsBefore) - estimateTokens(charsAfter);
+        }
+    }
+
+    private TextCompactor() {
+    }
+
+    public static Result compactDocument(String text) {
+        if (text == null || text.isEmpty()) {
+            return new Result("", 0, 0, 0);
+        }
+        String[] pages = text.split(PAGE_BREAK, -1);
+        Set<String> runningLines = findRunningLines(pages);
+
+        StringBuilder kept = new StringBuilder(text.length());
+        int removed = 0;
+        for (String page : pages) {
+            String[] lines = page.split("\n", -1);
+            int[] edges = edgeWindow(lines);
+            for (int i = 0; i < lines.length; i++) {
+                boolean atEdge = i < edges[0] || i > edges[1];
+                if (atEdge && isRunningLine(lines[i], runningLines)) {
+                    removed++;
+                    continue;
+                }
+                kept.append(lines[i]).append('\n');
+            }
+        }
+        String compacted = normalizeWhitespace(kept);
+        return new Result(compacted, text.length(), compacted.length(), removed);
+    }
+
+    /**
+     * Rough token estimate (about 4 characters per token for English text).
+     */
+    public static int estimateTokens(int chars) {
+        return (chars + 3) / 4;
+    }
+
+    /**
+     * Returns {@code text} unchanged if it fits {@code maxTokens}; otherwise keeps the head (where the
+     * notice type and Act are named) and the tail (signatory, dates), each cut at a line or sentence end.
+     */
+    public static String fitToBudget(String text, int maxTokens) {
+        int maxChars = maxTokens * 4;
+        if (text == null || text.length() <= maxChars) {
+            return text;
+        }
+        int available = Math.max(0, maxChars - TRUNCATION_MARKER.length());
+        int headChars = available * 3 / 4;
+        int tailChars = available - headChars;
+
+        int headEnd = lastBreakBefore(text, headChars, headChars * 4 / 5);
+        int tailStart = firstBreakAfter(text, text.length() - tailChars, text.length() - tailChars / 5);
+        return text.substring(0, headEnd).stripTrailing() + TRUNCATION_MARKER + text.substring(tailStart).stripLeading();
+    }
+
+    // Lines that recur at a page edge on at least half the pages (digits ignored, so "1234 THE KENYA GAZETTE" matches every page)
+    private static Set<String> findRunningLines(String[] pages) {
+        Set<String> running = new HashSet<>();
+        if (pages.length < MIN_PAGES_FOR_HEADERS) {
+            return running;
+        }
+        Map<String, Integer> pagesWithLine = new HashMap<>();
+        for (String page : pages) {
+            String[] lines = page.split("\n", -1);
+            int[] edges = edgeWindow(lines);
+            Set<String> seenOnPage = new HashSet<>();
+            for (int i = 0; i < lines.length; i++) {
+                if ((i < edges[0] || i > edges[1]) && !lines[i].isBlank() && lines[i].length() <= MAX_RUNNING_LINE_LENGTH) {
+                    seenOnPage.add(runningKey(lines[i]));
+                }
+            }
+            seenOnPage.forEach(key -> pagesWithLine.merge(key, 1, Integer::sum));
+        }
+        int threshold = Math.max(MIN_PAGES_FOR_HEADERS, (pages.length + 1) / 2);
+        pagesWithLine.forEach((key, count) -> {
+            if (count >= threshold && looksLikeRunningHeader(key)) {
+                running.add(key);
+            }
+        });
+        return running;
+    }
+
+    // Running heads carry a page number/date or the gazette name; notice headings, Act titles and
+    // "Dated the ..." signature lines (often identical across a run of notices) never count
+    private static boolean looksLikeRunningHeader(String key) {
+        if (key.startsWith("GAZETTE NOTICE NO") || key.startsWith("LEGAL NOTICE NO") || key.startsWith("DATED ")
+                || key.contains(" ACT")) {
+            return false;
+        }
+        return key.contains("#") || key.contains("GAZETTE");
+    }
+
+    private static boolean isRunningLine(String line, Set<String> runningLines) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty()) {
+            return false;
+        }
+        return PAGE_NUMBER.matcher(trimmed).matches() || runningLines.contains(runningKey(trimmed));
+    }
+
+    // [first body line, last body line]: lines before/after are the top/bottom edge (non-blank lines counted)
+    private static int[] edgeWindow(String[] lines) {
+        List<Integer> nonBlank = new ArrayList<>();
+        for (int i = 0; i < lines.length; i++) {
+            if (!lines[i].isBlank()) {
+                nonBlank.add(i);
+            }
+        }
+        if (nonBlank.size() <= EDGE_LINES * 2) {
+            return new int[] {lines.length, -1}; // Whole page counts as edge
+        }
+        return new int[] {nonBlank.get(EDGE_LINES), nonBlank.get(nonBlank.size() - EDGE_LINES - 1)};
+    }
+
+    private static String runningKey(String line) {
+        return line.trim().replaceAll("\\d+", "#").replaceAll("\\s+", " ").toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * One pass: joins "regis-\ntration", collapses runs of spaces/tabs, drops indentation and
+     * trailing spaces, and keeps at most one blank line in a row.
+     */
+    static String normalizeWhitespace(CharSequence text) {
+        StringBuilder out = new StringBuilder(text.length());
+        int newlines = 0;
+        boolean pendingSpace = false;
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c == '\r') {
+                continue;
+            }
+            if (c == '-' && out.length() > 0 && Character.isLowerCase(out.charAt(out.length() - 1))) {
+                int next = skipHorizontalSpace(text, i + 1);
+                if (next < length && text.charAt(next) == '\n') {
+                    int wordStart = skipHorizontalSpace(text, next + 1);
+                    if (wordStart < length && Character.isLowerCase(text.charAt(wordStart))) {
+                        i = wordStart - 1; // Word continues on the next line
+                        continue;
+                    }
+                }
+            }
+            if (c == '\n') {
+                pendingSpace = false;
+                if (out.length() > 0 && newlines < 2) {
+                    out.append('\n');
+                }
+                newlines++;
+                continue;
+            }
+            if (c == ' ' || c == '\t' || c == '\u00A0') {
+                pendingSpace = newlines == 0 && out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            newlines = 0;
+            out.append(c);
+        }
+        int end = out.length();
+        while (end > 0 && Character.isWhitespace(out.charAt(end - 1))) {
+            end--;
+        }
+        out.setLength(end);
+        return out.toString();
+    }
+
+    private static int skipHorizontalSpace(CharSequence text, int i) {
+        while (i < text.length() && (text.charAt(i) == ' ' || text.charAt(i) == '\t' || text.charAt(i) == '\r')) {
+            i++;
+        }
+        return i;
+    }
+
+    private static int lastBreakBefore(String text, int limit, int floor) {
+        for (int i = limit; i > floor; i--) {
+            char c = text.charAt(i - 1);
+            if (c == '\n' || (c == ' ' && i >= 2 && text.charAt(i - 2) == '.')) {
+                return i;
+            }
+        }
+        return limit;
+    }
+
+    private static int firstBreakAfter(String text, int start, int ceiling) {
+        for (int i = start; i < ceiling; i++) {
+            char c = text.charAt(i);
+            if (c == '\n' || (c == ' ' && i >= 1 && text.charAt(i - 1) == '.')) {
+                return i + 1;
+            }
+        }
+        return start;
+    }
+}
@@ -0,0 +1,532 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.ProcessingStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The "trending" feed: every successful notice carries a score that decays exponentially with a fixed
+ * half-life. Views and thumbs add to it; the notice's significance rating is a one-off event at its
+ * publication time, so a significant notice starts high and fades like any other.
+ * <p>
+ * Scores are kept as log(score) + lambda * t against a fixed epoch. Decay multiplies every score by the
+ * same factor, so this key never changes with time and ranks notices exactly as their current scores
+ * do: an event re-ranks one notice (O(log n) in a skip list), nothing is ever rescaled, and a page of
+ * the top K is a walk from the head of the list.
+ * <p>
+ * Every node sees only its own events, so what goes to gazette_trending is this node's change since its
+ * last write, added to the stored score under a row lock; the merged score is then adopted locally.
+ * Rows written by other nodes are read back after every write, and the whole board is reloaded now and
+ * then to drop notices deleted or failed elsewhere. Events between the last write and a crash are lost.
+ */
+@Service
+public class TrendingService {
+
+    private static final Logger log = LoggerFactory.getLogger(TrendingService.class);
+
+    private static final String ALL_CATEGORIES = "";
+    // Time origin of the log keys; any fixed instant works, a recent one keeps lambda * t small
+    private static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    // Other nodes' clocks may run behind: rows are re-read this far back (adopting one twice is harmless)
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(2);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final HotFeedService hotFeedService;
+    private final PipelineMetrics pipelineMetrics;
+    private final boolean enabled;
+    private final double halfLifeHours;
+    private final double lambda; // per hour
+    private final double viewWeight;
+    private final double thumbUpWeight;
+    private final double thumbDownWeight;
+    private final double significanceWeight;
+    private final long reloadMillis;
+
+    private final Board board = new Board();
+    // This node's unwritten changes. Updated inside the board's compute on the same id, so a notice's
+    // key is always its stored score plus its pending delta.
+    private final Map<Long, Delta> pending = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+    private volatile Instant syncedAt = Instant.EPOCH;
+    private volatile long loadedAt;
+
+    /**
+     * Unwritten change of one notice as log keys: event weight added and taken away, and its significance
+     * seed, which counts only if no node has written a row for the notice yet.
+     */
+    record Delta(double seed, double added, double removed) {
+
+        static final Delta NONE = new Delta(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+
+        static Delta seeded(double seed) {
+            return new Delta(seed, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY);
+        }
+
+        static Delta event(double key, boolean negative) {
+            return negative ? new Delta(Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, key)
+                    : new Delta(Double.NEGATIVE_INFINITY, key, Double.NEGATIVE_INFINITY);
+        }
+
+        Delta plus(Delta other) {
+            return new Delta(Math.max(seed, other.seed), logAdd(added, other.added), logAdd(removed, other.removed));
+        }
+
+        double applyTo(double key) {
+            return logSubtract(logAdd(key, added), removed);
+        }
+    }
+
+    /**
+     * Notices ranked by log key, overall and per category. Each change replaces the notice's entry
+     * inside a compute on its id, so concurrent events on one notice are applied in turn.
+     */
+    static final class Board {
+
+        record Entry(long id, String category, double key) {}
+
+        private static final Comparator<Entry> RANK = Comparator.comparingDouble(Entry::key).reversed()
+                .thenComparing(Comparator.comparingLong(Entry::id).reversed());
+
+        private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+        private final Map<String, NavigableSet<Entry>> ranked = new ConcurrentHashMap<>();
+        // ConcurrentSkipListSet.size() walks the list
+        private final Map<String, AtomicInteger> sizes = new ConcurrentHashMap<>();
+
+        void put(long id, String category, double key) {
+            put(id, category, () -> key);
+        }
+
+        // The key is computed under the entry's lock, like adjust
+        void put(long id, String category, DoubleSupplier key) {
+            entries.compute(id, (k, old) -> {
+                unlink(old);
+                return link(new Entry(id, category, key.getAsDouble()));
+            });
+        }
+
+        // Re-keys a notice already on the board; false if it is not
+        boolean adjust(long id, DoubleUnaryOperator change) {
+            return entries.computeIfPresent(id, (k, old) -> {
+                unlink(old);
+                return link(new Entry(id, old.category(), change.applyAsDouble(old.key())));
+            }) != null;
+        }
+
+        void remove(long id) {
+            entries.computeIfPresent(id, (k, old) -> {
+                unlink(old);
+                return null;
+            });
+        }
+
+        Entry get(long id) {
+            return entries.get(id);
+        }
+
+        /**
+         * @param category null for all categories
+         */
+        long[] top(String category, int offset, int limit) {
+            NavigableSet<Entry> set = ranked.get(category == null ? ALL_CATEGORIES : category);
+            if (set == null || limit <= 0) {
+                return new long[0];
+            }
+            long[] ids = new long[limit];
+            int count = 0;
+            Iterator<Entry> it = set.iterator();
+            for (int skipped = 0; skipped < offset && it.hasNext(); skipped++) {
+                it.next();
+            }
+            while (count < limit && it.hasNext()) {
+                ids[count++] = it.next().id();
+            }
+            return count == limit ? ids : Arrays.copyOf(ids, count);
+        }
+
+        int size(String category) {
+            AtomicInteger size = sizes.get(category == null ? ALL_CATEGORIES : category);
+            return size == null ? 0 : size.get();
+        }
+
+        Set<Long> ids() {
+            return Collections.unmodifiableSet(entries.keySet());
+        }
+
+        private Entry link(Entry entry) {
+            for (String key : keys(entry)) {
+                ranked.computeIfAbsent(key, k -> new ConcurrentSkipListSet<>(RANK)).add(entry);
+                sizes.computeIfAbsent(key, k -> new AtomicInteger()).incrementAndGet();
+            }
+            return entry;
+        }
+
+        private void unlink(Entry entry) {
+            if (entry == null) {
+                return;
+            }
+            for (String key : keys(entry)) {
+                if (ranked.get(key).remove(entry)) {
+                    sizes.get(key).decrementAndGet();
+                }
+            }
+        }
+
+        private static List<String> keys(Entry entry) {
+            return entry.category() == null ? List.of(ALL_CATEGORIES) : List.of(ALL_CATEGORIES, entry.category());
+        }
+    }
+
+    public TrendingService(JdbcTemplate jdbcTemplate,
+                           TransactionTemplate transactionTemplate,
+                           HotFeedService hotFeedService,
+                           PipelineMetrics pipelineMetrics,
+                           @Value("${gazette.trending.enabled:true}") boolean enabled,
+                           @Value("${gazette.trending.half-life-hours:24}") double halfLifeHours,
+                           @Value("${gazette.trending.weight.view:1.0}") double viewWeight,
+                           @Value("${gazette.trending.weight.thumb-up:5.0}") double thumbUpWeight,
+                           @Value("${gazette.trending.weight.thumb-down:3.0}") double thumbDownWeight,
+                           @Value("${gazette.trending.weight.significance:2.0}") double significanceWeight,
+                           @Value("${gazette.trending.reload-ms:3600000}") long reloadMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.hotFeedService = hotFeedService;
+        this.pipelineMetrics = pipelineMetrics;
+        this.enabled = enabled;
+        this.halfLifeHours = halfLifeHours;
+        this.lambda = Math.log(2) / halfLifeHours;
+        this.viewWeight = viewWeight;
+        this.thumbUpWeight = thumbUpWeight;
+        this.thumbDownWeight = thumbDownWeight;
+        this.significanceWeight = significanceWeight;
+        this.reloadMillis = reloadMillis;
+    }
+
+    // --- Score arithmetic in log space ---
+
+    // Log key of an event of this weight at this instant
+    static double eventKey(double weight, Instant at, double lambda) {
+        return Math.log(weight) + lambda * hoursSinceEpoch(at);
+    }
+
+    // log(e^a + e^b) without overflow
+    static double logAdd(double a, double b) {
+        if (a == Double.NEGATIVE_INFINITY) {
+            return b;
+        }
+        if (b == Double.NEGATIVE_INFINITY) {
+            return a;
+        }
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(-Math.abs(a - b)));
+    }
+
+    // log(e^a - e^b); a score taken below zero stays at zero (-infinity)
+    static double logSubtract(double a, double b) {
+        if (b >= a) {
+            return Double.NEGATIVE_INFINITY;
+        }
+        return a + Math.log1p(-Math.exp(b - a));
+    }
+
+    static double scoreAt(double key, Instant at, double lambda) {
+        return Math.exp(key - lambda * hoursSinceEpoch(at));
+    }
+
+    private static double hoursSinceEpoch(Instant at) {
+        return Duration.between(EPOCH, at).toMillis() / 3_600_000.0;
+    }
+
+    // --- Events ---
+
+    public void recordView(Long id) {
+        addEvent(id, viewWeight, false);
+    }
+
+    public void recordThumbUp(Long id) {
+        addEvent(id, thumbUpWeight, false);
+    }
+
+    public void recordThumbDown(Long id) {
+        addEvent(id, thumbDownWeight, true);
+    }
+
+    private void addEvent(Long id, double weight, boolean negative) {
+        if (!ready || id == null || weight <= 0) {
+            return;
+        }
+        double event = eventKey(weight, Instant.now(), lambda);
+        board.adjust(id, key -> {
+            pending.merge(id, Delta.event(event, negative), Delta::plus);
+            return negative ? logSubtract(key, event) : logAdd(key, event);
+        });
+    }
+
+    /**
+     * Puts a just-saved notice on the board (seeded from its significance) or takes it off when it is
+     * not SUCCESS. A notice already on the board keeps its score; only its category is refreshed.
+     */
+    public void offer(Gazette gazette) {
+        if (!ready || gazette == null || gazette.getId() == null) {
+            return; // The initial load reads it from the database
+        }
+        long id = gazette.getId();
+        if (gazette.getStatus() != ProcessingStatus.SUCCESS) {
+            board.remove(id);
+            return;
+        }
+        Board.Entry current = board.get(id);
+        if (current != null) {
+            board.put(id, gazette.getCategory(), current.key());
+            return;
+        }
+        seed(id, gazette.getCategory(), seedKey(gazette.getSignificanceRating(),
+                gazette.getSystemPublishedAt() == null ? null : Timestamp.valueOf(gazette.getSystemPublishedAt()).toInstant()));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGazettesDeleted(GazettesDeletedEvent event) {
+        // Their gazette_trending rows are deleted by the foreign key cascade
+        event.ids().forEach(id -> {
+            board.remove(id);
+            pending.remove(id);
+        });
+    }
+
+    // A notice without a stored score starts from its seed, which is written with its first delta
+    private void seed(long id, String category, double seedKey) {
+        board.put(id, category, () -> {
+            pending.merge(id, Delta.seeded(seedKey), Delta::plus);
+            return seedKey;
+        });
+    }
+
+    // Significance as an event at publication time; every notice gets at least weight 1
+    private double seedKey(int significanceRating, Instant publishedAt) {
+        double weight = 1 + significanceWeight * Math.max(0, significanceRating);
+        return eventKey(weight, publishedAt == null ? Instant.now() : publishedAt, lambda);
+    }
+
+    // --- Feed ---
+
+    /**
+     * A trending page from memory, or empty until the scores are loaded (or when a card was deleted meanwhile).
+     * @param category null for the home page feed
+     */
+    public Optional<Page<Gazette>> page(String category, int pageNum, int pageSize) {
+        if (!ready || pageNum < 1 || pageSize < 1) {
+            return Optional.empty();
+        }
+        Pageable pageable = PageRequest.of(pageNum - 1, pageSize);
+        long[] ids = board.top(category, (pageNum - 1) * pageSize, pageSize);
+        List<Gazette> cards = ids.length == 0 ? List.of() : hotFeedService.loadCards(ids);
+        if (cards == null) {
+            return Optional.empty();
+        }
+        pipelineMetrics.increment("trending.pages");
+        return Optional.of(new PageImpl<>(cards, pageable, board.size(category)));
+    }
+
+    // --- Persistence ---
+
+    @Scheduled(fixedDelayString = "${gazette.trending.persist-ms:60000}")
+    public void maintain() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (ready) {
+                persist();
+            }
+            if (!ready || System.currentTimeMillis() - loadedAt >= reloadMillis) {
+                load();
+            } else {
+                sync();
+            }
+        } catch (RuntimeException e) {
+            log.error("Trending score {} failed. Retrying on the next run.", ready ? "sync" : "load", e);
+        }
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        if (ready) {
+            persist();
+        }
+    }
+
+    /**
+     * (Re)builds the board from gazette_trending, decayed to now, keeping this node's unwritten changes.
+     * Successful notices without a row are seeded from their significance; notices no longer successful
+     * (or deleted by another node) are dropped.
+     */
+    public synchronized void load() {
+        long start = System.nanoTime();
+        Instant startedAt = Instant.now();
+        Set<Long> seen = new HashSet<>();
+        jdbcTemplate.query("SELECT t.gazette_id, g.category, t.score, t.scored_at FROM gazette_trending t "
+                + "JOIN gazette g ON g.id = t.gazette_id WHERE g.status = 'SUCCESS'", rs -> {
+            adopt(rs.getLong(1), rs.getString(2), storedKey(rs.getDouble(3), rs.getTimestamp(4)));
+            seen.add(rs.getLong(1));
+        });
+        int stored = seen.size();
+        jdbcTemplate.query("SELECT g.id, g.category, g.significance_rating, g.system_published_at FROM gazette g "
+                + "WHERE g.status = 'SUCCESS' AND NOT EXISTS (SELECT 1 FROM gazette_trending t WHERE t.gazette_id = g.id)", rs -> {
+            long id = rs.getLong(1);
+            seen.add(id);
+            if (board.get(id) == null) {
+                Timestamp published = rs.getTimestamp(4);
+                seed(id, rs.getString(2), seedKey(rs.getInt(3), published == null ? null : published.toInstant()));
+            }
+        });
+        // Offered since the queries ran: still pending, so kept
+        List<Long> gone = board.ids().stream().filter(id -> !seen.contains(id) && !pending.containsKey(id)).toList();
+        gone.forEach(board::remove);
+        syncedAt = startedAt;
+        loadedAt = System.currentTimeMillis();
+        ready = true;
+        log.info("Trending scores loaded: {} stored, {} without a row yet, in {} ms.", stored,
+                seen.size() - stored, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * Adopts the rows written (by any node) since the last sync, which carries other nodes' events here.
+     */
+    public synchronized void sync() {
+        Instant startedAt = Instant.now();
+        int[] adopted = {0};
+        jdbcTemplate.query("SELECT t.gazette_id, g.category, t.score, t.scored_at FROM gazette_trending t "
+                + "JOIN gazette g ON g.id = t.gazette_id WHERE g.status = 'SUCCESS' AND t.scored_at >= ?", rs -> {
+            adopt(rs.getLong(1), rs.getString(2), storedKey(rs.getDouble(3), rs.getTimestamp(4)));
+            adopted[0]++;
+        }, Timestamp.from(syncedAt.minus(SYNC_OVERLAP)));
+        syncedAt = startedAt;
+        pipelineMetrics.add("trending.rowsSynced", adopted[0]);
+    }
+
+    /**
+     * Adds each pending delta to its stored score under the row lock, one transaction per notice.
+     */
+    public synchronized void persist() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        int written = 0;
+        boolean success = true;
+        for (Long id : new ArrayList<>(pending.keySet())) {
+            Delta delta = pending.remove(id);
+            if (delta == null) {
+                continue;
+            }
+            try {
+                double merged = transactionTemplate.execute(status -> mergeIntoRow(id, delta, now));
+                board.adjust(id, key -> {
+                    Delta since = pending.get(id);
+                    return since == null ? merged : since.applyTo(merged);
+                });
+                written++;
+            } catch (DataAccessException e) {
+                if (e instanceof DataIntegrityViolationException && !noticeExists(id)) {
+                    // Deleted before the delete event reached this node
+                    board.remove(id);
+                    pending.remove(id);
+                    continue;
+                }
+                // A concurrent first insert by another node, or a transient failure: retried next run
+                log.warn("Failed to write the trending score of notice #{}: {}", id, e.getMessage());
+                if (board.get(id) != null) {
+                    pending.merge(id, delta, Delta::plus);
+                }
+                success = false;
+            }
+        }
+        pipelineMetrics.record("trending.persist", System.nanoTime() - start, success);
+        pipelineMetrics.add("trending.rowsWritten", written);
+    }
+
+    private double mergeIntoRow(long id, Delta delta, Instant now) {
+        List<Double> stored = jdbcTemplate.query(
+                "SELECT score, scored_at FROM gazette_trending WHERE gazette_id = ? FOR UPDATE",
+                (rs, row) -> storedKey(rs.getDouble(1), rs.getTimestamp(2)), id);
+        Timestamp scoredAt = Timestamp.from(now);
+        if (stored.isEmpty()) {
+            double key = delta.applyTo(delta.seed());
+            jdbcTemplate.update("INSERT INTO gazette_trending (score, scored_at, gazette_id) VALUES (?, ?, ?)",
+                    scoreAt(key, now, lambda), scoredAt, id);
+            return key;
+        }
+        double key = delta.applyTo(stored.get(0));
+        jdbcTemplate.update("UPDATE gazette_trending SET score = ?, scored_at = ? WHERE gazette_id = ?",
+                scoreAt(key, now, lambda), scoredAt, id);
+        return key;
+    }
+
+    // The stored score plus this node's unwritten change
+    private void adopt(long id, String category, double storedKey) {
+        board.put(id, category, () -> {
+            Delta since = pending.get(id);
+            return since == null ? storedKey : since.applyTo(storedKey);
+        });
+    }
+
+    private double storedKey(double score, Timestamp scoredAt) {
+        return score <= 0 ? Double.NEGATIVE_INFINITY : eventKey(score, scoredAt.toInstant(), lambda);
+    }
+
+    private boolean noticeExists(long id) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM gazette WHERE id = ?", Integer.class, id);
+        return count != null && count > 0;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("notices", board.size(null));
+        stats.put("unsaved", pending.size());
+        stats.put("halfLifeHours", halfLifeHours);
+        long[] top = board.top(null, 0, 1);
+        Board.Entry leader = top.length == 0 ? null : board.get(top[0]);
+        stats.put("topScore", leader == null ? 0.0 : scoreAt(leader.key(), Instant.now(), lambda));
+        return stats;
+    }
+}
@@ -0,0 +1,298 @@
+package com.smartgazette.smartgazette.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+
+/**
+ * Tells repeat page loads and bots apart from new readers, without storing who read what.
+ * <p>
+ * A reader is a 64-bit hash of client address and User-Agent. Each notice has one HyperLogLog sketch
+ * per day; a view counts only when it grows that day's estimate, so viewCount becomes the sum of daily
+ * unique readers. Sketches are merged into gazette_reader_sketch periodically (register-wise max under
+ * a row lock), and the merged sketch is adopted locally, so readers already counted by another node
+ * are not counted again after the merge. A day's sketch is seeded from its stored row when first touched
+ * on this node, so a restart does not count that day's readers again. Votes are let through once per reader and notice by a
+ * rotating Bloom filter. Self-declared bots (by User-Agent) are counted as neither.
+ */
+@Service
+public class UniqueReaderService {
+
+    private static final Logger log = LoggerFactory.getLogger(UniqueReaderService.class);
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PipelineMetrics pipelineMetrics;
+    private final int precision;
+    private final Pattern botPattern;
+    private final RotatingBloomFilter votes;
+
+    private final Map<SketchKey, DaySketch> sketches = new ConcurrentHashMap<>();
+
+    record SketchKey(long gazetteId, LocalDate day) {}
+
+    private static final class DaySketch {
+        final HyperLogLog sketch;
+        long counted; // readers already added to viewCount for this notice and day
+        boolean dirty;
+
+        DaySketch(HyperLogLog sketch) {
+            this.sketch = sketch;
+        }
+    }
+
+    public UniqueReaderService(JdbcTemplate jdbcTemplate,
+                               TransactionTemplate transactionTemplate,
+                               PipelineMetrics pipelineMetrics,
+                               @Value("${gazette.readers.precision:10}") int precision,
+                               @Value("${gazette.readers.bot-pattern:(?i)bot|crawl|spider|slurp|curl|wget|python|httpclient|headless}") String botPattern,
+                               @Value("${gazette.readers.vote-expected:100000}") long expectedVotes,
+                               @Value("${gazette.readers.vote-false-positive-rate:0.001}") double voteFalsePositiveRate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.pipelineMetrics = pipelineMetrics;
+        this.precision = precision;
+        this.botPattern = Pattern.compile(botPattern);
+        this.votes = new RotatingBloomFilter(expectedVotes, voteFalsePositiveRate);
+    }
+
+    /**
+     * Registers a page view.
+     * @return how many readers to add to the notice's view count: 0 for a repeat or a bot, usually 1 otherwise
+     */
+    public int recordView(long gazetteId, String clientAddress, String userAgent) {
+        Long reader = readerHash(clientAddress, userAgent);
+        if (reader == null) {
+            pipelineMetrics.increment("readers.botViews");
+            return 0;
+        }
+        DaySketch day = daySketch(new SketchKey(gazetteId, LocalDate.now()));
+        synchronized (day) {
+            if (!day.sketch.offer(reader)) {
+                pipelineMetrics.increment("readers.repeatViews");
+                return 0;
+            }
+            day.dirty = true;
+            // The estimate can lag a register change by one; the reader is then counted with the next one
+            int added = (int) Math.max(0, day.sketch.estimate() - day.counted);
+            day.counted += added;
+            return added;
+        }
+    }
+
+    // Loaded outside computeIfAbsent, which would hold the map's bin lock during the query
+    private DaySketch daySketch(SketchKey key) {
+        DaySketch day = sketches.get(key);
+        if (day != null) {
+            return day;
+        }
+        DaySketch loaded = loadDay(key);
+        day = sketches.putIfAbsent(key, loaded);
+        return day != null ? day : loaded;
+    }
+
+    // The stored sketch with its estimate already counted, or an empty one
+    private DaySketch loadDay(SketchKey key) {
+        try {
+            List<byte[]> stored = jdbcTemplate.query(
+                    "SELECT sketch FROM gazette_reader_sketch WHERE gazette_id = ? AND read_date = ?",
+                    (rs, row) -> rs.getBytes(1), key.gazetteId(), Date.valueOf(key.day()));
+            if (!stored.isEmpty()) {
+                DaySketch day = new DaySketch(HyperLogLog.fromBytes(stored.get(0)));
+                day.counted = day.sketch.estimate();
+                pipelineMetrics.increment("readers.sketchesLoaded");
+                return day;
+            }
+        } catch (DataAccessException | IllegalArgumentException e) {
+            // Counted again at worst; the merge on the next persist restores the stored readers
+            log.warn("Failed to load reader sketch of notice #{} for {}: {}", key.gazetteId(), key.day(), e.getMessage());
+        }
+        return new DaySketch(new HyperLogLog(precision));
+    }
+
+    /**
+     * @return false for a bot or for a second vote (up or down) by the same reader on the same notice
+     */
+    public boolean allowVote(long gazetteId, String clientAddress, String userAgent) {
+        Long reader = readerHash(clientAddress, userAgent);
+        if (reader == null || !votes.add(mix(reader ^ (gazetteId * GOLDEN_GAMMA)))) {
+            pipelineMetrics.increment("readers.votesSuppressed");
+            return false;
+        }
+        return true;
+    }
+
+    // Remembered votes older than one to two periods are forgotten
+    @Scheduled(fixedDelayString = "${gazette.readers.vote-rotate-ms:43200000}",
+            initialDelayString = "${gazette.readers.vote-rotate-ms:43200000}")
+    public void rotateVotes() {
+        votes.rotate();
+    }
+
+    /**
+     * Distinct readers of a notice over the last {@code days} days, overall and per day.
+     */
+    public Map<String, Object> uniqueReaders(long gazetteId, int days) {
+        LocalDate from = LocalDate.now().minusDays(Math.max(1, days) - 1L);
+        Map<LocalDate, HyperLogLog> daily = new TreeMap<>();
+        jdbcTemplate.query("SELECT read_date, sketch FROM gazette_reader_sketch WHERE gazette_id = ? AND read_date >= ?",
+                rs -> {
+                    daily.put(rs.getDate(1).toLocalDate(), HyperLogLog.fromBytes(rs.getBytes(2)));
+                }, gazetteId, Date.valueOf(from));
+        sketches.forEach((key, day) -> {
+            if (key.gazetteId() == gazetteId && !key.day().isBefore(from)) {
+                daily.computeIfAbsent(key.day(), d -> new HyperLogLog(day.sketch.precision())).merge(day.sketch);
+            }
+        });
+
+        HyperLogLog total = new HyperLogLog(precision);
+        Map<String, Long> perDay = new LinkedHashMap<>();
+        daily.forEach((date, sketch) -> {
+            total.merge(sketch);
+            perDay.put(date.toString(), sketch.estimate());
+        });
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("days", days);
+        result.put("uniqueReaders", total.estimate());
+        result.put("daily", perDay);
+        return result;
+    }
+
+    // --- Persistence ---
+
+    @Scheduled(fixedDelayString = "${gazette.readers.persist-ms:300000}")
+    public void persist() {
+        long start = System.nanoTime();
+        int written = 0;
+        boolean success = true;
+        LocalDate today = LocalDate.now();
+        for (Map.Entry<SketchKey, DaySketch> entry : sketches.entrySet()) {
+            SketchKey key = entry.getKey();
+            DaySketch day = entry.getValue();
+            HyperLogLog snapshot;
+            synchronized (day) {
+                if (!day.dirty) {
+                    continue;
+                }
+                day.dirty = false;
+                snapshot = new HyperLogLog(day.sketch.precision()).merge(day.sketch);
+            }
+            try {
+                HyperLogLog merged = transactionTemplate.execute(status -> mergeIntoRow(key, snapshot));
+                synchronized (day) {
+                    day.sketch.merge(merged);
+                    day.counted = Math.max(day.counted, day.sketch.estimate());
+                }
+                written++;
+            } catch (DataAccessException | IllegalArgumentException e) {
+                if (e instanceof DataIntegrityViolationException && !noticeExists(key.gazetteId())) {
+                    // Deleted before the delete event reached this node: its readers go with it
+                    sketches.remove(key);
+                    pipelineMetrics.increment("readers.orphanSketchesDropped");
+                    continue;
+                }
+                // A concurrent first insert by another node, or a transient failure: retried next run
+                log.warn("Failed to save reader sketch of notice #{} for {}: {}", key.gazetteId(), key.day(), e.getMessage());
+                synchronized (day) {
+                    day.dirty = true;
+                }
+                success = false;
+            }
+        }
+        // Past days are complete once saved
+        sketches.entrySet().removeIf(e -> e.getKey().day().isBefore(today) && !e.getValue().dirty);
+        if (written > 0 || !success) {
+            pipelineMetrics.record("readers.persist", System.nanoTime() - start, success);
+            pipelineMetrics.add("readers.sketchesWritten", written);
+        }
+    }
+
+    @PreDestroy
+    public void persistOnShutdown() {
+        persist();
+    }
+
+    private HyperLogLog mergeIntoRow(SketchKey key, HyperLogLog local) {
+        Date day = Date.valueOf(key.day());
+        List<byte[]> stored = jdbcTemplate.query(
+                "SELECT sketch FROM gazette_reader_sketch WHERE gazette_id = ? AND read_date = ? FOR UPDATE",
+                (rs, row) -> rs.getBytes(1), key.gazetteId(), day);
+        if (stored.isEmpty()) {
+            jdbcTemplate.update("INSERT INTO gazette_reader_sketch (gazette_id, read_date, sketch) VALUES (?, ?, ?)",
+                    key.gazetteId(), day, local.toBytes());
+            return local;
+        }
+        HyperLogLog merged = HyperLogLog.fromBytes(stored.get(0)).merge(local);
+        jdbcTemplate.update("UPDATE gazette_reader_sketch SET sketch = ? WHERE gazette_id = ? AND read_date = ?",
+                merged.toBytes(), key.gazetteId(), day);
+        return merged;
+    }
+
+    private boolean noticeExists(long gazetteId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM gazette WHERE id = ?", Integer.class, gazetteId);
+        return count != null && count > 0;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onGazettesDeleted(GazettesDeletedEvent event) {
+        // Stored sketches go with the notice (foreign key cascade)
+        sketches.keySet().removeIf(key -> event.ids().contains(key.gazetteId()));
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("precision", precision);
+        stats.put("sketchesInMemory", sketches.size());
+        stats.put("voteFilterBits", votes.bits());
+        stats.put("voteFilterHashes", votes.hashes());
+        stats.put("votesInCurrentWindow", votes.added());
+        return stats;
+    }
+
+    // --- Reader identity ---
+
+    // null for a missing or self-declared bot User-Agent
+    Long readerHash(String clientAddress, String userAgent) {
+        if (userAgent == null || userAgent.isBlank() || botPattern.matcher(userAgent).find()) {
+            return null;
+        }
+        long hash = FNV_OFFSET;
+        for (byte b : (clientAddress + '\n' + userAgent).getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    // MurmurHash3 fmix64 finaliser: HyperLogLog and the Bloom filter both need uniformly spread bits
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
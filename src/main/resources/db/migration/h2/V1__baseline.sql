@@ -0,0 +1,29 @@
+-- Baseline schema for H2 (tests and local runs); mirrors postgresql/V1__baseline.sql. TEXT as Hibernate
+-- generated it (H2 stores it as varchar, not clob), so old and new databases end up alike.
+
+CREATE TABLE IF NOT EXISTS gazette (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title               varchar(255),
+    category            varchar(255),
+    link                varchar(255),
+    notice_number       varchar(255),
+    signatory           varchar(255),
+    source_order        integer,
+    gazette_volume      varchar(255),
+    gazette_number      varchar(255),
+    gazette_date        date,
+    content             TEXT,
+    summary             TEXT,
+    x_summary           varchar(280),
+    article             TEXT,
+    actionable_info     TEXT,
+    published_date      date,
+    system_published_at timestamp(6),
+    last_updated_at     timestamp(6),
+    status              varchar(255),
+    original_pdf_path   varchar(255),
+    thumbs_up           integer DEFAULT 0 NOT NULL,
+    thumbs_down         integer DEFAULT 0 NOT NULL,
+    view_count          integer DEFAULT 0 NOT NULL,
+    significance_rating integer DEFAULT 0 NOT NULL
+);
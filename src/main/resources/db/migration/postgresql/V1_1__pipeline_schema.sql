@@ -0,0 +1,87 @@
+-- Everything the ingestion pipeline added on top of the V1 baseline: batches, bodies, leases and crawl
+-- checkpoints, the new gazette columns and their constraints. Written with IF NOT EXISTS throughout so it
+-- also completes databases that ddl-auto=update had already taken part of the way.
+
+CREATE TABLE IF NOT EXISTS gazette_batch (
+    id                bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    original_pdf_path varchar(255) NOT NULL,
+    pdf_sha256        varchar(64),
+    gazette_volume    varchar(255),
+    gazette_number    varchar(255),
+    gazette_date      date,
+    page_count        integer,
+    notice_count      integer DEFAULT 0 NOT NULL,
+    failed_count      integer DEFAULT 0 NOT NULL,
+    started_at        timestamp(6),
+    finished_at       timestamp(6),
+    ocr_millis        bigint,
+    processing_millis bigint,
+    created_at        timestamp(6),
+    CONSTRAINT uk_gazette_batch_path UNIQUE (original_pdf_path)
+);
+
+CREATE TABLE IF NOT EXISTS gazette_body (
+    id                 bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    content_compressed bytea,
+    article            text,
+    actionable_info    text,
+    extracted_data     text
+);
+-- Plain-text content, compressed into content_compressed (and nulled) by GazetteBodyMigration at startup
+ALTER TABLE gazette_body ADD COLUMN IF NOT EXISTS content text;
+ALTER TABLE gazette_body ADD COLUMN IF NOT EXISTS content_compressed bytea;
+
+CREATE TABLE IF NOT EXISTS processing_lease (
+    lease_key   varchar(191) PRIMARY KEY,
+    owner       varchar(255) NOT NULL,
+    acquired_at timestamp(6) NOT NULL,
+    expires_at  timestamp(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS crawl_checkpoint (
+    crawl_key        varchar(64) PRIMARY KEY,
+    completed        boolean NOT NULL,
+    issues_found     integer NOT NULL,
+    issues_enqueued  integer NOT NULL,
+    issues_processed integer NOT NULL,
+    updated_at       timestamp(6)
+);
+
+ALTER TABLE gazette ADD COLUMN IF NOT EXISTS body_id bigint;
+ALTER TABLE gazette ADD COLUMN IF NOT EXISTS processing_stage varchar(255);
+ALTER TABLE gazette ADD COLUMN IF NOT EXISTS batch_id bigint;
+ALTER TABLE gazette ADD COLUMN IF NOT EXISTS pdf_sha256 varchar(64);
+ALTER TABLE gazette ADD COLUMN IF NOT EXISTS content_simhash bigint;
+
+-- Move the TEXT columns still on 'gazette' into one gazette_body row per notice, then drop them.
+-- extracted_data only existed on 'gazette' for part of the series; adding it first gives one shape to copy.
+ALTER TABLE gazette ADD COLUMN IF NOT EXISTS extracted_data text;
+ALTER TABLE gazette_body ADD COLUMN legacy_gazette_id bigint;
+INSERT INTO gazette_body (content, article, actionable_info, extracted_data, legacy_gazette_id)
+    SELECT content, article, actionable_info, extracted_data, id FROM gazette WHERE body_id IS NULL;
+CREATE INDEX idx_gazette_body_legacy_gazette_id ON gazette_body (legacy_gazette_id);
+UPDATE gazette SET body_id = (SELECT b.id FROM gazette_body b WHERE b.legacy_gazette_id = gazette.id)
+    WHERE body_id IS NULL;
+DROP INDEX idx_gazette_body_legacy_gazette_id;
+ALTER TABLE gazette_body DROP COLUMN legacy_gazette_id;
+ALTER TABLE gazette DROP COLUMN IF EXISTS content;
+ALTER TABLE gazette DROP COLUMN IF EXISTS article;
+ALTER TABLE gazette DROP COLUMN IF EXISTS actionable_info;
+ALTER TABLE gazette DROP COLUMN IF EXISTS extracted_data;
+
+-- PostgreSQL has no ADD CONSTRAINT IF NOT EXISTS
+DO $$
+BEGIN
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'gazette'::regclass AND conname = 'uk_gazette_number_date_order') THEN
+        ALTER TABLE gazette ADD CONSTRAINT uk_gazette_number_date_order UNIQUE (gazette_number, gazette_date, source_order);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'gazette'::regclass AND conname = 'uk_gazette_body') THEN
+        ALTER TABLE gazette ADD CONSTRAINT uk_gazette_body UNIQUE (body_id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'gazette'::regclass AND conname = 'fk_gazette_body') THEN
+        ALTER TABLE gazette ADD CONSTRAINT fk_gazette_body FOREIGN KEY (body_id) REFERENCES gazette_body (id);
+    END IF;
+    IF NOT EXISTS (SELECT 1 FROM pg_constraint WHERE conrelid = 'gazette'::regclass AND conname = 'fk_gazette_batch') THEN
+        ALTER TABLE gazette ADD CONSTRAINT fk_gazette_batch FOREIGN KEY (batch_id) REFERENCES gazette_batch (id);
+    END IF;
+END $$;
@@ -0,0 +1,30 @@
+-- Baseline: the schema as Hibernate's ddl-auto=update created it before Flyway took over, when notice
+-- TEXT columns still lived on 'gazette'. IF NOT EXISTS, so this is a no-op on those databases (Flyway
+-- baselines them at version 0); V1_1 then brings old and new databases alike to the current schema.
+
+CREATE TABLE IF NOT EXISTS gazette (
+    id                  bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title               varchar(255),
+    category            varchar(255),
+    link                varchar(255),
+    notice_number       varchar(255),
+    signatory           varchar(255),
+    source_order        integer,
+    gazette_volume      varchar(255),
+    gazette_number      varchar(255),
+    gazette_date        date,
+    content             text,
+    summary             text,
+    x_summary           varchar(280),
+    article             text,
+    actionable_info     text,
+    published_date      date,
+    system_published_at timestamp(6),
+    last_updated_at     timestamp(6),
+    status              varchar(255),
+    original_pdf_path   varchar(255),
+    thumbs_up           integer DEFAULT 0 NOT NULL,
+    thumbs_down         integer DEFAULT 0 NOT NULL,
+    view_count          integer DEFAULT 0 NOT NULL,
+    significance_rating integer DEFAULT 0 NOT NULL
+);
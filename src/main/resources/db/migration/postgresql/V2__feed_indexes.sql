@@ -0,0 +1,48 @@
+-- Indexes matched to the GazetteRepository feed queries. The public feeds only ever read
+-- status = 'SUCCESS', so those are partial indexes: smaller, and they skip FAILED rows entirely.
+-- Each one follows its query's ORDER BY so a page is an index range scan with no sort.
+
+-- findAllSuccessfulWithCorrectSorting / findAllSuccessfulByCategory
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_latest
+    ON gazette (gazette_date DESC, source_order, id) WHERE status = 'SUCCESS';
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_category_latest
+    ON gazette (category, gazette_date DESC, source_order, id) WHERE status = 'SUCCESS';
+
+-- findAllSuccessfulOrderByRecentlyProcessed / findAllSuccessfulByCategoryOrderByRecentlyProcessed
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_recent
+    ON gazette (id DESC) WHERE status = 'SUCCESS';
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_category_recent
+    ON gazette (category, id DESC) WHERE status = 'SUCCESS';
+
+-- findAllSuccessfulOrderByPopularity / findAllSuccessfulByCategoryOrderByPopularity
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_popular
+    ON gazette (view_count DESC, gazette_date DESC, id DESC) WHERE status = 'SUCCESS';
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_category_popular
+    ON gazette (category, view_count DESC, id DESC) WHERE status = 'SUCCESS';
+
+-- findAllSuccessfulOrderBySignificance / findAllSuccessfulByCategoryOrderBySignificance
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_significant
+    ON gazette (significance_rating DESC, id DESC) WHERE status = 'SUCCESS';
+CREATE INDEX IF NOT EXISTS idx_gazette_feed_category_significant
+    ON gazette (category, significance_rating DESC, id DESC) WHERE status = 'SUCCESS';
+
+-- findAllFailedWithCorrectSorting (retry queue)
+CREATE INDEX IF NOT EXISTS idx_gazette_failed
+    ON gazette (gazette_date DESC, source_order, id) WHERE status = 'FAILED';
+
+-- Checksum dedup (existsByPdfSha256) and per-PDF export/delete (original_pdf_path)
+CREATE INDEX IF NOT EXISTS idx_gazette_pdf_sha256 ON gazette (pdf_sha256);
+CREATE INDEX IF NOT EXISTS idx_gazette_original_pdf_path ON gazette (original_pdf_path);
+
+-- Admin content grid (GazetteGridRepository): every sort ends in id for the keyset cursor
+CREATE INDEX IF NOT EXISTS idx_gazette_status_id ON gazette (status, id);
+CREATE INDEX IF NOT EXISTS idx_gazette_category_id ON gazette (category, id);
+CREATE INDEX IF NOT EXISTS idx_gazette_date_id ON gazette (gazette_date DESC NULLS LAST, id);
+CREATE INDEX IF NOT EXISTS idx_gazette_views_id ON gazette (view_count DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_gazette_significance_id ON gazette (significance_rating DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_gazette_batch_id ON gazette (batch_id);
+
+CREATE INDEX IF NOT EXISTS idx_gazette_batch_sha256 ON gazette_batch (pdf_sha256);
+CREATE INDEX IF NOT EXISTS idx_gazette_batch_date_number ON gazette_batch (gazette_date, gazette_number);
+
+ANALYZE gazette;
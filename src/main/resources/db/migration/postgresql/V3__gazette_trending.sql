@@ -0,0 +1,9 @@
+-- Trending scores (TrendingService). The score decays continuously, so each row stores its value at
+-- scored_at and the service decays it forward on load. Rows go with their notice.
+CREATE TABLE IF NOT EXISTS gazette_trending (
+    gazette_id bigint NOT NULL,
+    score      double precision NOT NULL,
+    scored_at  timestamp(6) NOT NULL,
+    CONSTRAINT pk_gazette_trending PRIMARY KEY (gazette_id),
+    CONSTRAINT fk_gazette_trending_gazette FOREIGN KEY (gazette_id) REFERENCES gazette (id) ON DELETE CASCADE
+);
@@ -0,0 +1,9 @@
+-- Unique readers per notice and day (UniqueReaderService): a serialized HyperLogLog sketch, merged
+-- register-wise by every node that saw readers that day. Rows go with their notice.
+CREATE TABLE IF NOT EXISTS gazette_reader_sketch (
+    gazette_id bigint NOT NULL,
+    read_date  date NOT NULL,
+    sketch     bytea NOT NULL,
+    CONSTRAINT pk_gazette_reader_sketch PRIMARY KEY (gazette_id, read_date),
+    CONSTRAINT fk_gazette_reader_sketch_gazette FOREIGN KEY (gazette_id) REFERENCES gazette (id) ON DELETE CASCADE
+);
@@ -0,0 +1,68 @@
+package com.smartgazette.smartgazette.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedTextConverterTests {
+
+    private static final String PROBATE_NOTICE = """
+            GAZETTE NOTICE NO. 2104
+            THE LAW OF SUCCESSION ACT
+            (Cap. 160)
+            IN THE HIGH COURT OF KENYA AT NAIROBI
+            SUCCESSION CAUSE NO. 412 OF 2025
+            TAKE NOTICE that, applications having been made in this court in
+            by the persons mentioned in the respective causes, as
+            executors or administrators, of the estates of the persons
+            deceased, and the court will proceed to issue the grants as prayed,
+            unless cause to the contrary be shown within thirty (30) days
+            from the date of publication of this notice.
+            Estate of John Kamau Njoroge, late of Kiambu, who died at Kiambu on 3rd March, 2024.
+            Dated the 7th February, 2025.
+            Deputy Registrar, High Court of Kenya, Nairobi.
+            """;
+
+    private final CompressedTextConverter converter = new CompressedTextConverter();
+
+    @Test
+    void roundTripsTextIncludingNullEmptyAndNonAscii() {
+        for (String text : new String[] {PROBATE_NOTICE, "", "Ksh. 1,000", "Muranga – Thika “road” ü", PROBATE_NOTICE.repeat(50)}) {
+            assertEquals(text, converter.convertToEntityAttribute(converter.convertToDatabaseColumn(text)));
+        }
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+
+    @Test
+    void dictionaryBeatsPlainDeflateOnShortNotices() {
+        byte[] stored = converter.convertToDatabaseColumn(PROBATE_NOTICE);
+        int plain = plainDeflateSize(PROBATE_NOTICE.getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(CompressedTextConverter.FORMAT_DEFLATE_DICT_V1, stored[0]);
+        assertTrue(stored.length < plain, stored.length + " vs " + plain);
+        assertTrue(stored.length * 3 < PROBATE_NOTICE.length(), "ratio below 3x: " + stored.length);
+    }
+
+    @Test
+    void storesTinyTextUncompressed() {
+        byte[] stored = converter.convertToDatabaseColumn("N/A");
+        assertEquals(CompressedTextConverter.FORMAT_RAW, stored[0]);
+        assertEquals(4, stored.length);
+    }
+
+    private static int plainDeflateSize(byte[] input) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        deflater.setInput(input);
+        deflater.finish();
+        byte[] buffer = new byte[input.length + 64];
+        int size = deflater.deflate(buffer);
+        deflater.end();
+        return size;
+    }
+}
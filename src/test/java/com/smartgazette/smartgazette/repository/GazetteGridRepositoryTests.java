@@ -0,0 +1,101 @@
+package com.smartgazette.smartgazette.repository;
+
+import com.smartgazette.smartgazette.model.GazetteGridCursor;
+import com.smartgazette.smartgazette.model.GazetteGridFilter;
+import com.smartgazette.smartgazette.model.GazetteGridRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Keyset paging over sort keys with many ties: every row must show up exactly once, in the sort's order.
+// The schema comes from the Flyway H2 migrations; validate would trip over H2 reporting TEXT as CLOB.
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GazetteGridRepositoryTests {
+
+    private static final int ROWS = 41;
+    private static final int PAGE_SIZE = 4;
+    private static final LocalDate[] DATES = {LocalDate.of(2025, 2, 21), LocalDate.of(2025, 3, 7), null, LocalDate.of(2025, 1, 10)};
+
+    @Autowired
+    private GazetteRepository gazetteRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("DELETE FROM gazette");
+        for (int i = 0; i < ROWS; i++) {
+            LocalDate date = DATES[i % DATES.length];
+            // Views and ratings take only three values, so page boundaries keep landing inside a tie
+            jdbcTemplate.update("INSERT INTO gazette (title, category, status, view_count, significance_rating,"
+                            + " gazette_date, gazette_number, source_order) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    "Notice " + i, "Tenders", "SUCCESS", (i % 3) * 5, 1 + i % 3,
+                    date == null ? null : Date.valueOf(date), "No. " + (i % DATES.length), i);
+        }
+    }
+
+    @Test
+    void latestPagesCoverEveryRowOnce() {
+        assertPagesMatchOrder("latest", Comparator.comparing(GazetteGridRow::id).reversed());
+    }
+
+    @Test
+    void popularPagesCoverEveryRowOnceAcrossTies() {
+        assertPagesMatchOrder("popular", Comparator.comparingInt(GazetteGridRow::viewCount).reversed()
+                .thenComparing(Comparator.comparing(GazetteGridRow::id).reversed()));
+    }
+
+    @Test
+    void significantPagesCoverEveryRowOnceAcrossTies() {
+        assertPagesMatchOrder("significant", Comparator.comparingInt(GazetteGridRow::significanceRating).reversed()
+                .thenComparing(Comparator.comparing(GazetteGridRow::id).reversed()));
+    }
+
+    // Mixed directions: gazette date descending with undated rows last, then ID ascending
+    @Test
+    void oldestPagesCoverEveryRowOnceAcrossTiesAndUndatedRows() {
+        assertPagesMatchOrder("oldest", Comparator.comparing(GazetteGridRow::gazetteDate,
+                        Comparator.nullsLast(Comparator.<LocalDate>reverseOrder()))
+                .thenComparing(GazetteGridRow::id));
+    }
+
+    private void assertPagesMatchOrder(String sort, Comparator<GazetteGridRow> expectedOrder) {
+        GazetteGridFilter filter = new GazetteGridFilter(null, null, null, null, null, sort);
+        List<GazetteGridRow> paged = new ArrayList<>();
+        GazetteGridCursor cursor = null;
+        for (int page = 0; page <= ROWS; page++) {
+            List<GazetteGridRow> rows = gazetteRepository.findGridPage(filter, cursor, PAGE_SIZE);
+            if (rows.isEmpty()) {
+                break;
+            }
+            paged.addAll(rows);
+            // Round-trip the cursor through its URL token, as the grid does
+            cursor = GazetteGridCursor.decode(GazetteGridCursor.after(sort, rows.get(rows.size() - 1)).encode());
+        }
+
+        List<Long> ids = paged.stream().map(GazetteGridRow::id).toList();
+        assertEquals(ROWS, ids.size(), sort + ": rows skipped or repeated");
+        assertEquals(ROWS, new HashSet<>(ids).size(), sort + ": a row was repeated");
+        List<GazetteGridRow> expected = new ArrayList<>(paged);
+        expected.sort(expectedOrder);
+        assertEquals(expected.stream().map(GazetteGridRow::id).toList(), ids, sort + ": pages out of order");
+        assertTrue(gazetteRepository.findGridPage(filter, cursor, PAGE_SIZE).isEmpty());
+    }
+}
@@ -0,0 +1,152 @@
+package com.smartgazette.smartgazette.repository;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Runs the Flyway migrations and checks that the feed and lookup queries of GazetteRepository are planned
+ * on the indexes written for them. H2 always runs; PostgreSQL runs when SMARTGAZETTE_TEST_POSTGRES_URL
+ * (plus _USER/_PASSWORD) points at a database the test may create a throwaway schema in.
+ */
+class GazetteQueryPlanTests {
+
+    private static final String[] CATEGORIES = {"Tenders", "Land_Property", "Court_Legal", "Appointments", "Licensing"};
+
+    // SQL equivalents of the repository queries, keyed by the index each one should use
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("idx_gazette_feed_latest",
+                "SELECT id FROM gazette WHERE status = 'SUCCESS' ORDER BY gazette_date DESC, source_order, id LIMIT 20");
+        QUERIES.put("idx_gazette_feed_recent",
+                "SELECT id FROM gazette WHERE status = 'SUCCESS' ORDER BY id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_feed_popular",
+                "SELECT id FROM gazette WHERE status = 'SUCCESS' ORDER BY view_count DESC, gazette_date DESC, id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_feed_significant",
+                "SELECT id FROM gazette WHERE status = 'SUCCESS' ORDER BY significance_rating DESC, id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_failed",
+                "SELECT id FROM gazette WHERE status = 'FAILED' ORDER BY gazette_date DESC, source_order, id");
+        QUERIES.put("idx_gazette_feed_category_latest",
+                "SELECT id FROM gazette WHERE category = 'Tenders' AND status = 'SUCCESS' ORDER BY gazette_date DESC, source_order, id LIMIT 20");
+        QUERIES.put("idx_gazette_feed_category_recent",
+                "SELECT id FROM gazette WHERE category = 'Tenders' AND status = 'SUCCESS' ORDER BY id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_feed_category_popular",
+                "SELECT id FROM gazette WHERE category = 'Tenders' AND status = 'SUCCESS' ORDER BY view_count DESC, id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_feed_category_significant",
+                "SELECT id FROM gazette WHERE category = 'Tenders' AND status = 'SUCCESS' ORDER BY significance_rating DESC, id DESC LIMIT 20");
+        // Admin grid (GazetteGridRepositoryImpl), first page of each non-default sort
+        QUERIES.put("idx_gazette_views_id",
+                "SELECT id FROM gazette ORDER BY view_count DESC, id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_significance_id",
+                "SELECT id FROM gazette ORDER BY significance_rating DESC, id DESC LIMIT 20");
+        QUERIES.put("idx_gazette_date_id",
+                "SELECT id FROM gazette ORDER BY gazette_date DESC NULLS LAST, id LIMIT 20");
+        QUERIES.put("idx_gazette_pdf_sha256",
+                "SELECT id FROM gazette WHERE pdf_sha256 = 'abc123' LIMIT 1");
+        QUERIES.put("idx_gazette_original_pdf_path",
+                "SELECT id FROM gazette WHERE original_pdf_path = 'storage/pdfs/gazette-7.pdf'");
+    }
+
+    // H2 indexes lead with status instead of being partial, so one index covers both statuses
+    private static final Map<String, String> H2_SHARED_INDEXES = Map.of("idx_gazette_failed", "idx_gazette_feed_latest");
+
+    @Test
+    void feedQueriesUseTheirIndexesOnH2() throws SQLException {
+        String url = "jdbc:h2:mem:plan-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").locations("classpath:db/migration/h2").load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            seed(connection);
+            execute(connection, "ANALYZE");
+            assertPlansUseIndexes(connection, H2_SHARED_INDEXES);
+        }
+    }
+
+    @Test
+    void feedQueriesUseTheirIndexesOnPostgres() throws SQLException {
+        String url = System.getenv("SMARTGAZETTE_TEST_POSTGRES_URL");
+        assumeTrue(url != null && !url.isBlank(), "SMARTGAZETTE_TEST_POSTGRES_URL not set");
+        String user = System.getenv().getOrDefault("SMARTGAZETTE_TEST_POSTGRES_USER", "postgres");
+        String password = System.getenv().getOrDefault("SMARTGAZETTE_TEST_POSTGRES_PASSWORD", "");
+        String schema = "plan_test_" + UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+
+        Flyway.configure().dataSource(url, user, password).schemas(schema)
+                .locations("classpath:db/migration/postgresql").load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            execute(connection, "SET search_path TO " + schema);
+            try {
+                seed(connection);
+                execute(connection, "ANALYZE gazette");
+                // Tiny tables are cheaper to scan; this checks the indexes fit the queries, not the row counts
+                execute(connection, "SET enable_seqscan = off");
+                assertPlansUseIndexes(connection, Map.of());
+            } finally {
+                execute(connection, "DROP SCHEMA " + schema + " CASCADE");
+            }
+        }
+    }
+
+    private static void assertPlansUseIndexes(Connection connection, Map<String, String> sharedIndexes) throws SQLException {
+        for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+            String index = sharedIndexes.getOrDefault(query.getKey(), query.getKey());
+            String plan = explain(connection, query.getValue());
+            assertTrue(plan.contains(index), index + " not used by: " + query.getValue() + "\n" + plan);
+        }
+    }
+
+    private static String explain(Connection connection, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN " + sql)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // Two thousand notices across a few categories and PDFs, one in ten FAILED
+    private static void seed(Connection connection) throws SQLException {
+        String insert = "INSERT INTO gazette (title, category, status, gazette_number, gazette_date, source_order, "
+                + "original_pdf_path, pdf_sha256, view_count, significance_rating, thumbs_up, thumbs_down) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0, 0)";
+        try (PreparedStatement statement = connection.prepareStatement(insert)) {
+            for (int i = 0; i < 2000; i++) {
+                int issue = i / 50;
+                statement.setString(1, "Notice " + i);
+                statement.setString(2, CATEGORIES[i % CATEGORIES.length]);
+                statement.setString(3, i % 10 == 0 ? "FAILED" : "SUCCESS");
+                statement.setString(4, "No. " + issue);
+                statement.setObject(5, LocalDate.of(2024, 1, 1).plusDays(issue * 7L));
+                statement.setInt(6, i % 50);
+                statement.setString(7, "storage/pdfs/gazette-" + issue + ".pdf");
+                statement.setString(8, "sha-" + issue);
+                statement.setInt(9, (i * 37) % 500);
+                statement.setInt(10, i % 6);
+                statement.addBatch();
+            }
+            statement.executeBatch();
+        }
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
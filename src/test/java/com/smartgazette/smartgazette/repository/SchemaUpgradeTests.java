@@ -0,0 +1,165 @@
+package com.smartgazette.smartgazette.repository;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.configuration.FluentConfiguration;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Upgrades a database that Hibernate's ddl-auto=update created before Flyway (the original single
+ * 'gazette' table with its TEXT columns) the way production does: baseline at 0, then migrate. The
+ * result must have the same tables and columns as a freshly migrated database, the notice text must
+ * have moved into gazette_body, and the constraints must be in force. PostgreSQL runs when
+ * SMARTGAZETTE_TEST_POSTGRES_URL is set (see GazetteQueryPlanTests).
+ */
+class SchemaUpgradeTests {
+
+    private static final List<String> TABLES = List.of("gazette", "gazette_body", "gazette_batch", "processing_lease",
+            "crawl_checkpoint", "gazette_trending", "gazette_reader_sketch");
+
+    // What ddl-auto=update generated for the baseline Gazette entity (Hibernate 6.2 schema export, per dialect)
+    private static final String PRE_FLYWAY_GAZETTE_H2 = """
+            create table gazette (id bigint generated by default as identity, actionable_info TEXT, article TEXT, category varchar(255),
+                content TEXT, gazette_date date, gazette_number varchar(255), gazette_volume varchar(255),
+                last_updated_at timestamp(6), link varchar(255), notice_number varchar(255),
+                original_pdf_path varchar(255), published_date date, signatory varchar(255),
+                significance_rating integer default 0 not null, source_order integer,
+                status varchar(255) check (status in ('SUCCESS','FAILED')), summary TEXT,
+                system_published_at timestamp(6), thumbs_down integer default 0 not null,
+                thumbs_up integer default 0 not null, title varchar(255), view_count integer default 0 not null,
+                x_summary varchar(280), primary key (id))""";
+
+    private static final String PRE_FLYWAY_GAZETTE_POSTGRES = """
+            create table gazette (id bigserial not null, actionable_info TEXT, article TEXT, category varchar(255),
+                content TEXT, gazette_date date, gazette_number varchar(255), gazette_volume varchar(255),
+                last_updated_at timestamp(6), link varchar(255), notice_number varchar(255),
+                original_pdf_path varchar(255), published_date date, signatory varchar(255),
+                significance_rating integer default 0 not null, source_order integer,
+                status varchar(255) check (status in ('SUCCESS','FAILED')), summary TEXT,
+                system_published_at timestamp(6), thumbs_down integer default 0 not null,
+                thumbs_up integer default 0 not null, title varchar(255), view_count integer default 0 not null,
+                x_summary varchar(280), primary key (id))""";
+
+    @Test
+    void preFlywayDatabaseUpgradesToTheCurrentSchemaOnH2() throws SQLException {
+        String upgradedUrl = "jdbc:h2:mem:upgrade-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        String freshUrl = "jdbc:h2:mem:fresh-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+        try (Connection upgraded = DriverManager.getConnection(upgradedUrl, "sa", "");
+             Connection fresh = DriverManager.getConnection(freshUrl, "sa", "")) {
+            seedPreFlyway(upgraded, PRE_FLYWAY_GAZETTE_H2);
+            migrate(Flyway.configure().dataSource(upgradedUrl, "sa", ""), "h2");
+            migrate(Flyway.configure().dataSource(freshUrl, "sa", ""), "h2");
+
+            assertEquals(columns(fresh, null), columns(upgraded, null));
+            assertUpgradedData(upgraded);
+        }
+    }
+
+    @Test
+    void preFlywayDatabaseUpgradesToTheCurrentSchemaOnPostgres() throws SQLException {
+        String url = System.getenv("SMARTGAZETTE_TEST_POSTGRES_URL");
+        assumeTrue(url != null && !url.isBlank(), "SMARTGAZETTE_TEST_POSTGRES_URL not set");
+        String user = System.getenv().getOrDefault("SMARTGAZETTE_TEST_POSTGRES_USER", "postgres");
+        String password = System.getenv().getOrDefault("SMARTGAZETTE_TEST_POSTGRES_PASSWORD", "");
+        String suffix = UUID.randomUUID().toString().replace("-", "").substring(0, 12);
+        String upgradedSchema = "upgrade_test_" + suffix;
+        String freshSchema = "fresh_test_" + suffix;
+
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            try {
+                execute(connection, "CREATE SCHEMA " + upgradedSchema);
+                execute(connection, "SET search_path TO " + upgradedSchema);
+                seedPreFlyway(connection, PRE_FLYWAY_GAZETTE_POSTGRES);
+                migrate(Flyway.configure().dataSource(url, user, password).schemas(upgradedSchema), "postgresql");
+                migrate(Flyway.configure().dataSource(url, user, password).schemas(freshSchema), "postgresql");
+
+                assertEquals(columns(connection, freshSchema), columns(connection, upgradedSchema));
+                execute(connection, "SET search_path TO " + upgradedSchema);
+                assertUpgradedData(connection);
+            } finally {
+                execute(connection, "DROP SCHEMA IF EXISTS " + upgradedSchema + " CASCADE");
+                execute(connection, "DROP SCHEMA IF EXISTS " + freshSchema + " CASCADE");
+            }
+        }
+    }
+
+    private static void seedPreFlyway(Connection connection, String createGazette) throws SQLException {
+        execute(connection, createGazette);
+        execute(connection, "INSERT INTO gazette (title, status, gazette_number, gazette_date, source_order, content, article, actionable_info)"
+                + " VALUES ('Probate notice', 'SUCCESS', 'No. 36', DATE '2025-02-21', 1, 'TAKE NOTICE that ...', 'An estate ...', 'Object within 30 days')");
+        execute(connection, "INSERT INTO gazette (title, status, gazette_number, gazette_date, source_order, content)"
+                + " VALUES ('Failed notice', 'FAILED', 'No. 36', DATE '2025-02-21', 2, 'GAZETTE NOTICE NO. 2102 ...')");
+    }
+
+    // Same settings as application.properties: a non-empty database without history is baselined at 0
+    private static void migrate(FluentConfiguration flyway, String vendor) {
+        flyway.locations("classpath:db/migration/" + vendor).baselineOnMigrate(true).baselineVersion("0").load().migrate();
+    }
+
+    private static void assertUpgradedData(Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT g.title, b.content, b.article, b.actionable_info, b.content_compressed"
+                     + " FROM gazette g JOIN gazette_body b ON b.id = g.body_id ORDER BY g.source_order")) {
+            List<String> moved = new ArrayList<>();
+            while (rows.next()) {
+                assertNull(rows.getBytes(5)); // compressed at startup by GazetteBodyMigration
+                moved.add(rows.getString(1) + "|" + rows.getString(2) + "|" + rows.getString(3) + "|" + rows.getString(4));
+            }
+            assertEquals(List.of("Probate notice|TAKE NOTICE that ...|An estate ...|Object within 30 days",
+                    "Failed notice|GAZETTE NOTICE NO. 2102 ...|null|null"), moved);
+        }
+
+        // uk_gazette_number_date_order, fk_gazette_body and fk_gazette_batch are in force
+        assertThrows(SQLException.class, () -> execute(connection,
+                "INSERT INTO gazette (title, gazette_number, gazette_date, source_order) VALUES ('Again', 'No. 36', DATE '2025-02-21', 1)"));
+        assertThrows(SQLException.class, () -> execute(connection,
+                "INSERT INTO gazette (title, source_order, body_id) VALUES ('No body', 3, 999999)"));
+        assertThrows(SQLException.class, () -> execute(connection,
+                "INSERT INTO gazette (title, source_order, batch_id) VALUES ('No batch', 4, 999999)"));
+        // New columns take writes
+        execute(connection, "UPDATE gazette SET processing_stage = 'GENERATED', pdf_sha256 = 'abc', content_simhash = 42");
+    }
+
+    // table -> "column type" for every migrated table, compared by name only (catalogs and schemas differ)
+    private static Map<String, TreeSet<String>> columns(Connection connection, String schema) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, TreeSet<String>> tables = new TreeMap<>();
+        for (String table : TABLES) {
+            TreeSet<String> found = new TreeSet<>();
+            for (String name : new String[] {table, table.toUpperCase(Locale.ROOT)}) {
+                try (ResultSet rows = metaData.getColumns(null, schema, name, null)) {
+                    while (rows.next()) {
+                        found.add(rows.getString("COLUMN_NAME").toLowerCase(Locale.ROOT) + " "
+                                + rows.getString("TYPE_NAME").toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+            tables.put(table, found);
+        }
+        return tables;
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.ProcessingStatus;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EngagementCounterServiceTests {
+
+    @Autowired
+    private GazetteRepository gazetteRepository;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private EngagementCounterService counters;
+
+    @BeforeEach
+    void setUp() {
+        gazetteRepository.deleteAll();
+        counters = new EngagementCounterService(jdbcTemplate, entityManagerFactory, new PipelineMetrics(), event -> { });
+    }
+
+    @Test
+    void flushAddsBufferedCountsInOneUpdate() {
+        Long id = saveNotice("Appointment of board members");
+        counters.recordView(id);
+        counters.recordView(id);
+        counters.recordView(id);
+        counters.recordThumbUp(id);
+        counters.recordThumbDown(id);
+
+        assertEquals(0, countsOf(id).get("VIEW_COUNT"));
+        counters.flush();
+        counters.flush(); // Nothing pending: no double counting
+
+        Map<String, Object> counts = countsOf(id);
+        assertEquals(3, counts.get("VIEW_COUNT"));
+        assertEquals(1, counts.get("THUMBS_UP"));
+        assertEquals(1, counts.get("THUMBS_DOWN"));
+        assertEquals(3, gazetteRepository.findById(id).orElseThrow().getViewCount());
+    }
+
+    @Test
+    void flushDropsDrainedEntries() {
+        Long id = saveNotice("Change of name");
+        counters.recordView(id);
+        counters.recordThumbUp(id + 1000); // no such notice: the UPDATE matches nothing
+        assertEquals(2, counters.pendingNotices());
+
+        counters.flush();
+        assertEquals(0, counters.pendingNotices());
+
+        counters.recordView(id);
+        counters.flush();
+        assertEquals(2, countsOf(id).get("VIEW_COUNT"));
+        assertEquals(0, counters.pendingNotices());
+    }
+
+    @Test
+    void savingAnEditedNoticeKeepsFlushedCounts() {
+        Long id = saveNotice("Tender for road works");
+        Gazette stale = gazetteRepository.findById(id).orElseThrow();
+        counters.recordView(id);
+        counters.flush();
+
+        stale.setTitle("Tender for road works (corrected)");
+        gazetteRepository.save(stale);
+
+        assertEquals(1, countsOf(id).get("VIEW_COUNT"));
+    }
+
+    private Long saveNotice(String title) {
+        Gazette gazette = new Gazette();
+        gazette.setTitle(title);
+        gazette.setStatus(ProcessingStatus.SUCCESS);
+        return gazetteRepository.save(gazette).getId();
+    }
+
+    private Map<String, Object> countsOf(Long id) {
+        return jdbcTemplate.queryForMap("SELECT view_count, thumbs_up, thumbs_down FROM gazette WHERE id = ?", id);
+    }
+}
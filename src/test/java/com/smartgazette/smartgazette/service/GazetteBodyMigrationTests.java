@@ -0,0 +1,75 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// The schema comes from the Flyway H2 migrations; validate would trip over H2 reporting TEXT as CLOB.
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GazetteBodyMigrationTests {
+
+    private static final String CONTENT = "GAZETTE NOTICE NO. 1234 THE PROBATE AND ADMINISTRATION ACT";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    @Autowired
+    private GazetteRepository gazetteRepository;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        jdbcTemplate.update("DELETE FROM gazette");
+        jdbcTemplate.update("DELETE FROM gazette_body");
+        // As Flyway V1_1 leaves a legacy notice: plain content only
+        jdbcTemplate.update("INSERT INTO gazette_body (id, content) VALUES (1, ?)", CONTENT);
+        jdbcTemplate.update("INSERT INTO gazette (id, title, status, source_order, body_id) VALUES (1, 'Probate notice', 'SUCCESS', 1, 1)");
+        // Rows were rewritten through JDBC, behind the second-level cache
+        new CacheStatisticsService(entityManagerFactory).evictAll();
+    }
+
+    @Test
+    void contentIsReadFromThePlainColumnUntilCompressed() {
+        assertEquals(CONTENT, content());
+
+        new GazetteBodyMigration(jdbcTemplate, transactionTemplate, new CacheStatisticsService(entityManagerFactory))
+                .compressPlainContent();
+
+        assertNull(jdbcTemplate.queryForObject("SELECT content FROM gazette_body WHERE id = 1", String.class));
+        assertNotNull(jdbcTemplate.queryForObject("SELECT content_compressed FROM gazette_body WHERE id = 1", byte[].class));
+        assertEquals(CONTENT, content());
+    }
+
+    @Test
+    void writingTheContentClearsThePlainColumn() {
+        transactionTemplate.executeWithoutResult(status ->
+                gazetteRepository.findById(1L).orElseThrow().setContent("Corrected text"));
+
+        assertNull(jdbcTemplate.queryForObject("SELECT content FROM gazette_body WHERE id = 1", String.class));
+        assertEquals("Corrected text", content());
+    }
+
+    private String content() {
+        return transactionTemplate.execute(status -> gazetteRepository.findById(1L).map(Gazette::getContent).orElseThrow());
+    }
+}
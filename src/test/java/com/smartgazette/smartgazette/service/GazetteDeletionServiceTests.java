@@ -0,0 +1,142 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+// Deletes run in their own transactions here, so the AFTER_COMMIT cleanup fires (or not) as in production.
+// The schema comes from the Flyway H2 migrations; validate would trip over H2 reporting TEXT as CLOB.
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Import({GazetteDeletionService.class, GazetteBatchService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class GazetteDeletionServiceTests {
+
+    private static final String SHA = "ab12cd34";
+
+    @Autowired
+    private GazetteDeletionService deletionService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @SpyBean
+    private GazetteBatchService batchService;
+
+    @MockBean
+    private NoticeSimilarityIndex similarityIndex;
+
+    @MockBean
+    private PageImageRenderer pageImageRenderer;
+
+    @TempDir
+    Path storage;
+
+    @BeforeEach
+    void clean() {
+        jdbcTemplate.update("DELETE FROM gazette");
+        jdbcTemplate.update("DELETE FROM gazette_body");
+        jdbcTemplate.update("DELETE FROM gazette_batch");
+        clearInvocations(batchService, similarityIndex, pageImageRenderer);
+    }
+
+    @Test
+    void deletesMoreIdsThanOneChunkWithTheirBodies() {
+        int count = GazetteDeletionService.DELETE_CHUNK_SIZE + 5;
+        List<Long> ids = seed(count, "storage/pdfs/gazette-1.pdf");
+        // Duplicates are deleted (and counted) once
+        List<Long> requested = new ArrayList<>(ids);
+        requested.add(ids.get(0));
+
+        assertEquals(count, deletionService.deleteByIds(requested));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<Long>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(batchService, times(2)).noticesDeleted(chunks.capture());
+        assertEquals(GazetteDeletionService.DELETE_CHUNK_SIZE, chunks.getAllValues().get(0).size());
+        assertEquals(5, chunks.getAllValues().get(1).size());
+        assertEquals(0, countRows("gazette"));
+        assertEquals(0, countRows("gazette_body"));
+        verify(similarityIndex, times(count)).remove(anyLong());
+    }
+
+    @Test
+    void rolledBackDeleteLeavesRowsAndIndexAlone() {
+        List<Long> ids = seed(10, "storage/pdfs/gazette-2.pdf");
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            deletionService.deleteByIds(ids);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(10, countRows("gazette"));
+        assertEquals(10, countRows("gazette_body"));
+        verify(similarityIndex, never()).remove(any());
+    }
+
+    @Test
+    void batchPdfAndPageCacheGoOnlyAfterCommit() throws Exception {
+        Path pdf = Files.writeString(storage.resolve("gazette-3.pdf"), "%PDF-1.4");
+        seed(3, pdf.toString());
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            deletionService.deleteBatch(pdf.toString());
+            status.setRollbackOnly();
+        });
+        assertTrue(Files.exists(pdf));
+        assertEquals(3, countRows("gazette"));
+        verify(pageImageRenderer, never()).evict(any());
+
+        assertEquals(3, deletionService.deleteBatch(pdf.toString()));
+        assertFalse(Files.exists(pdf));
+        assertEquals(0, countRows("gazette"));
+        assertEquals(0, countRows("gazette_body"));
+        verify(pageImageRenderer).evict(SHA);
+        verify(similarityIndex, times(3)).remove(anyLong());
+    }
+
+    private List<Long> seed(int count, String originalPdfPath) {
+        List<Long> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long bodyId = 100_000L + i;
+            jdbcTemplate.update("INSERT INTO gazette_body (id, article) VALUES (?, ?)", bodyId, "Article " + i);
+            jdbcTemplate.update("INSERT INTO gazette (id, title, status, source_order, body_id, original_pdf_path, pdf_sha256)"
+                    + " VALUES (?, ?, 'SUCCESS', ?, ?, ?, ?)", 1L + i, "Notice " + i, i, bodyId, originalPdfPath, SHA);
+            ids.add(1L + i);
+        }
+        return ids;
+    }
+
+    private int countRows(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
@@ -0,0 +1,146 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.CrawlCheckpoint;
+import com.smartgazette.smartgazette.repository.CrawlCheckpointRepository;
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+// Serves saved Kenya Law listing pages from a local HTTP server so the crawler runs without the network.
+class GazetteScrapingServiceTests {
+
+    private HttpServer server;
+    private GazetteScrapingService scrapingService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/gazettes/2019", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String fixture = (query != null && query.contains("page=2")) ? "gazettes-2019-page-2.html" : "gazettes-2019.html";
+            try (InputStream in = getClass().getResourceAsStream("/fixtures/kenyalaw/" + fixture)) {
+                sendHtml(exchange, in.readAllBytes());
+            }
+        });
+        // Every issue page links its PDF; the download itself is answered by the mocked PdfStorageService
+        server.createContext("/akn", exchange -> sendHtml(exchange,
+                "<html><body><a href=\"/files/gazette.pdf\">Download PDF</a></body></html>".getBytes(StandardCharsets.UTF_8)));
+        server.start();
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/gazettes/";
+        scrapingService = new GazetteScrapingService(null, null, null, null, null, baseUrl, 1, 0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    private static void sendHtml(HttpExchange exchange, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @Test
+    void enumeratesEveryIssueAcrossListingPages() throws Exception {
+        List<GazetteScrapingService.GazetteIssueLink> links = scrapingService.enumerateGazetteLinks(2019);
+
+        assertEquals(3, links.size());
+        assertEquals("Vol. CXXI-No. 178", links.get(0).gazetteNumber());
+        assertEquals(LocalDate.of(2019, 12, 27), links.get(1).gazetteDate());
+        assertEquals(LocalDate.of(2019, 1, 4), links.get(2).gazetteDate());
+        assertEquals("gazette:1:2019-01-04", links.get(2).issueKey());
+    }
+
+    @Test
+    void yearWithAFailedIssueStaysIncomplete(@TempDir Path tempDir) throws Exception {
+        // Three issues listed, the pipeline fails on one of them
+        CrawlCheckpoint checkpoint = crawl2019(tempDir, true, true, false);
+        assertFalse(checkpoint.isCompleted());
+        assertEquals(2, checkpoint.getIssuesProcessed());
+        assertEquals(3, checkpoint.getIssuesEnqueued());
+    }
+
+    @Test
+    void yearIsCompletedOnlyWhenEveryIssueIsIngested(@TempDir Path tempDir) throws Exception {
+        CrawlCheckpoint checkpoint = crawl2019(tempDir, true, true, true);
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(3, checkpoint.getIssuesProcessed());
+    }
+
+    @Test
+    void issueWithNothingToIngestIsReleased() throws Exception {
+        ProcessingLeaseService leaseService = mock(ProcessingLeaseService.class);
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(true);
+        CrawlCheckpointRepository checkpointRepository = mock(CrawlCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(CrawlCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        // The server answers with something other than a PDF
+        PdfStorageService pdfStorageService = mock(PdfStorageService.class);
+        when(pdfStorageService.download(anyString(), anyString(), any(File.class))).thenReturn(null);
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/gazettes/";
+        GazetteScrapingService crawler = new GazetteScrapingService(mock(GazetteService.class), mock(GazetteRepository.class),
+                leaseService, checkpointRepository, pdfStorageService, baseUrl, 2, 0);
+        crawler.crawlHistoricalGazettes(2019, 2019);
+
+        // Not held for the lease TTL: the next crawl, here or elsewhere, can take it straight away
+        verify(leaseService).release("gazette:1:2019-01-04");
+        verify(leaseService, times(3)).release(startsWith("gazette:"));
+    }
+
+    private CrawlCheckpoint crawl2019(Path tempDir, Boolean first, Boolean... rest) throws Exception {
+        GazetteService gazetteService = mock(GazetteService.class);
+        when(gazetteService.processPdf(any(File.class), anyString())).thenReturn(first, rest);
+        ProcessingLeaseService leaseService = mock(ProcessingLeaseService.class);
+        when(leaseService.tryAcquire(anyString(), any())).thenReturn(true);
+        CrawlCheckpointRepository checkpointRepository = mock(CrawlCheckpointRepository.class);
+        when(checkpointRepository.findById(anyString())).thenReturn(Optional.empty());
+        when(checkpointRepository.save(any(CrawlCheckpoint.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        PdfStorageService pdfStorageService = mock(PdfStorageService.class);
+        File pdf = Files.createTempFile(tempDir, "gazette", ".pdf").toFile();
+        when(pdfStorageService.download(anyString(), anyString(), any(File.class)))
+                .thenReturn(new PdfStorageService.StoredPdf(pdf, "sha", false));
+
+        String baseUrl = "http://localhost:" + server.getAddress().getPort() + "/gazettes/";
+        GazetteScrapingService crawler = new GazetteScrapingService(gazetteService, mock(GazetteRepository.class),
+                leaseService, checkpointRepository, pdfStorageService, baseUrl, 2, 0);
+        crawler.crawlHistoricalGazettes(2019, 2019);
+
+        ArgumentCaptor<CrawlCheckpoint> saved = ArgumentCaptor.forClass(CrawlCheckpoint.class);
+        verify(checkpointRepository, atLeastOnce()).save(saved.capture());
+        return saved.getValue();
+    }
+}
@@ -0,0 +1,68 @@
+package com.smartgazette.smartgazette.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.vertexai.api.Schema;
+import com.google.cloud.vertexai.api.Type;
+import com.networknt.schema.JsonSchema;
+import com.networknt.schema.JsonSchemaFactory;
+import com.networknt.schema.SpecVersion;
+import org.junit.jupiter.api.Test;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GeminiClientTests {
+
+    @Test
+    void categorySchemaBecomesArrayOfItemsResponseSchema() throws Exception {
+        JsonNode tree;
+        try (InputStream in = getClass().getResourceAsStream("/schemas/field/land_property.json")) {
+            tree = new ObjectMapper().readTree(in);
+        }
+
+        Schema schema = GeminiClient.toResponseSchema(tree);
+
+        assertEquals(Type.OBJECT, schema.getType());
+        Schema items = schema.getPropertiesOrThrow("items");
+        assertEquals(Type.ARRAY, items.getType());
+        // $ref to #/definitions/item is inlined
+        Schema item = items.getItems();
+        assertEquals(Type.OBJECT, item.getType());
+        assertEquals(Type.ARRAY, item.getPropertiesOrThrow("parties").getType());
+        assertTrue(item.getPropertiesOrThrow("objection_period").getDescription().contains("objections"));
+    }
+
+    @Test
+    void onlyOptionalScalarsAreNullableInBothSchemas() throws Exception {
+        ObjectMapper mapper = new ObjectMapper();
+        JsonNode tree = mapper.readTree("""
+                {"type": "object",
+                 "properties": {"items": {"oneOf": [{"$ref": "#/definitions/item"},
+                                                    {"type": "array", "items": {"$ref": "#/definitions/item"}}]}},
+                 "definitions": {"item": {"type": "object", "required": ["court_name"],
+                   "properties": {"court_name": {"type": "string"},
+                                  "filing_deadline": {"type": "string"},
+                                  "parties": {"type": "array", "items": {"type": "string"}}}}}}
+                """);
+
+        Schema item = GeminiClient.toResponseSchema(tree).getPropertiesOrThrow("items").getItems();
+        assertFalse(item.getPropertiesOrThrow("court_name").getNullable());
+        assertTrue(item.getPropertiesOrThrow("filing_deadline").getNullable());
+        assertFalse(item.getPropertiesOrThrow("parties").getItems().getNullable());
+        assertEquals(List.of("court_name"), item.getRequiredList());
+
+        JsonSchema validator = JsonSchemaFactory.getInstance(SpecVersion.VersionFlag.V7)
+                .getSchema(ExtractionSchemaRegistry.withNullableOptionals(tree));
+        assertTrue(validator.validate(mapper.readTree(
+                "{\"items\": {\"court_name\": \"High Court\", \"filing_deadline\": null}}")).isEmpty());
+        assertFalse(validator.validate(mapper.readTree(
+                "{\"items\": {\"court_name\": null}}")).isEmpty());
+        assertFalse(validator.validate(mapper.readTree(
+                "{\"items\": {\"court_name\": \"High Court\", \"parties\": [null]}}")).isEmpty());
+    }
+}
@@ -0,0 +1,111 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotFeedServiceTests {
+
+    @Test
+    void keepsTopEntriesRankedAndTruncatesAtCapacity() {
+        HotFeedService.Feed feed = HotFeedService.Feed.EMPTY;
+        // (views, id): ties on views fall back to the higher id
+        feed = feed.with(1, 5, 0, 3);
+        feed = feed.with(2, 9, 0, 3);
+        feed = feed.with(3, 5, 0, 3);
+        assertArrayEquals(new long[] {2, 3, 1}, feed.ids());
+        assertTrue(feed.complete());
+
+        feed = feed.with(4, 7, 0, 3);
+        assertArrayEquals(new long[] {2, 4, 3}, feed.ids());
+        assertFalse(feed.complete());
+
+        // Below the window of an incomplete feed: unknown rank, so not added
+        assertSame(feed, feed.with(5, 1, 0, 3));
+    }
+
+    @Test
+    void reRankingMovesAnEntryAndRemovalKeepsTheRestInOrder() {
+        HotFeedService.Feed feed = HotFeedService.Feed.EMPTY
+                .with(10, 3, 0, 5)
+                .with(11, 2, 0, 5)
+                .with(12, 1, 0, 5);
+
+        feed = feed.without(12).with(12, 4, 0, 5);
+        assertArrayEquals(new long[] {12, 10, 11}, feed.ids());
+        assertArrayEquals(new int[] {4, 3, 2}, feed.primary());
+
+        feed = feed.without(10);
+        assertArrayEquals(new long[] {12, 11}, feed.ids());
+        assertTrue(feed.complete());
+        assertSame(feed, feed.without(99));
+    }
+
+    @Test
+    void droppingFromAFullFeedMakesItIncomplete() {
+        HotFeedService.Feed feed = HotFeedService.Feed.EMPTY
+                .with(1, 5, 0, 3)
+                .with(2, 9, 0, 3)
+                .with(3, 5, 0, 3);
+        assertTrue(feed.complete());
+
+        // Ranks below a full window: left out, so the feed no longer holds every notice
+        feed = feed.with(4, 1, 0, 3);
+        assertArrayEquals(new long[] {2, 3, 1}, feed.ids());
+        assertFalse(feed.complete());
+
+        // After a removal there is room, but 4 is missing and would rank above 5: 5 must not be appended
+        feed = feed.without(2).with(5, 0, 0, 3);
+        assertArrayEquals(new long[] {3, 1}, feed.ids());
+        assertFalse(feed.complete());
+    }
+
+    @Test
+    void secondaryKeyBreaksTiesBeforeId() {
+        HotFeedService.Feed feed = HotFeedService.Feed.EMPTY
+                .with(1, 5, 20_000, 10)
+                .with(2, 5, 19_000, 10)
+                .with(3, 5, 20_500, 10);
+        assertArrayEquals(new long[] {3, 1, 2}, feed.ids());
+    }
+
+    @Test
+    void rebuildsWhenAnotherNodeChangesTheTableOrTheFeedsAgeOut() {
+        GazetteRepository repository = mock(GazetteRepository.class);
+        when(repository.countSuccessfulByCategory()).thenReturn(List.of());
+        when(repository.findAllSuccessfulOrderByRecentlyProcessed(any())).thenReturn(Page.empty());
+        when(repository.findAllSuccessfulOrderByPopularity(any())).thenReturn(Page.empty());
+        when(repository.findAllSuccessfulOrderBySignificance(any())).thenReturn(Page.empty());
+        List<Object[]> unchanged = List.<Object[]>of(new Object[] {7L, null, 7L});
+        when(repository.findChangeMarker()).thenReturn(unchanged);
+
+        HotFeedService fresh = new HotFeedService(repository, mock(EntityManagerFactory.class), new PipelineMetrics(),
+                true, 10, 60_000);
+        fresh.maintain(); // First build
+        fresh.maintain(); // Nothing changed
+        verify(repository, times(1)).countSuccessfulByCategory();
+
+        when(repository.findChangeMarker()).thenReturn(List.<Object[]>of(new Object[] {8L, null, 8L}));
+        fresh.maintain();
+        verify(repository, times(2)).countSuccessfulByCategory();
+
+        HotFeedService expiring = new HotFeedService(repository, mock(EntityManagerFactory.class), new PipelineMetrics(),
+                true, 10, 0);
+        expiring.maintain();
+        expiring.maintain(); // Same marker, but older than max-age
+        verify(repository, times(4)).countSuccessfulByCategory();
+    }
+}
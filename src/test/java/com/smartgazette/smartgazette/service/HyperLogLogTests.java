@@ -0,0 +1,72 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTests {
+
+    @Test
+    void estimatesWithinAFewPercentAndIgnoresRepeats() {
+        SplittableRandom random = new SplittableRandom(42);
+        for (int distinct : new int[] {10, 1_000, 100_000}) {
+            HyperLogLog sketch = new HyperLogLog(HyperLogLog.DEFAULT_PRECISION);
+            long[] hashes = new long[distinct];
+            for (int i = 0; i < distinct; i++) {
+                hashes[i] = random.nextLong();
+                sketch.offer(hashes[i]);
+            }
+            for (long hash : hashes) {
+                assertFalse(sketch.offer(hash), "a repeat never grows the sketch");
+            }
+            // About 3.2% standard error at p = 10; 10% is three sigma
+            assertEquals(distinct, sketch.estimate(), Math.max(1, distinct * 0.1), "distinct=" + distinct);
+        }
+    }
+
+    @Test
+    void mergeCountsTheUnionOnce() {
+        SplittableRandom random = new SplittableRandom(7);
+        HyperLogLog a = new HyperLogLog(10);
+        HyperLogLog b = new HyperLogLog(10);
+        for (int i = 0; i < 5_000; i++) {
+            long hash = random.nextLong();
+            a.offer(hash);
+            if (i % 2 == 0) {
+                b.offer(hash); // half of b overlaps a
+            }
+        }
+        for (int i = 0; i < 2_500; i++) {
+            b.offer(random.nextLong());
+        }
+        assertEquals(7_500, a.merge(b).estimate(), 750);
+        assertThrows(IllegalArgumentException.class, () -> a.merge(new HyperLogLog(12)));
+    }
+
+    @Test
+    void roundTripsSparseAndDenseEncodings() {
+        SplittableRandom random = new SplittableRandom(3);
+        HyperLogLog small = new HyperLogLog(10);
+        for (int i = 0; i < 20; i++) {
+            small.offer(random.nextLong());
+        }
+        byte[] sparse = small.toBytes();
+        assertTrue(sparse.length <= 4 + 3 * 20, "a few readers take a few bytes");
+        assertEquals(small.estimate(), HyperLogLog.fromBytes(sparse).estimate());
+
+        HyperLogLog large = new HyperLogLog(10);
+        for (int i = 0; i < 50_000; i++) {
+            large.offer(random.nextLong());
+        }
+        byte[] dense = large.toBytes();
+        assertEquals(2 + 1024, dense.length);
+        assertEquals(large.estimate(), HyperLogLog.fromBytes(dense).estimate());
+
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[] {10, 1, 0, 5}));
+    }
+}
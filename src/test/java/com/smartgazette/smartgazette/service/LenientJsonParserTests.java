@@ -0,0 +1,64 @@
+package com.smartgazette.smartgazette.service;
+
+import org.json.JSONObject;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+// Hand-written fixtures in the malformed shapes the old regex clean-up chain was written for. They are
+// not captured model responses, and the old and new paths are not benchmarked against each other here.
+class LenientJsonParserTests {
+
+    @Test
+    void stripsCodeFencesAndTrailingProse() {
+        JSONObject json = LenientJsonParser.parseObject("```json\n{\"category\": \"Land_Property\"}\n```\nHope this helps!");
+        assertNotNull(json);
+        assertEquals("Land_Property", json.getString("category"));
+    }
+
+    @Test
+    void quotesBareKeysAndDropsTrailingCommas() {
+        JSONObject json = LenientJsonParser.parseObject("{title: \"Notice\", items: [1, 2,],}");
+        assertNotNull(json);
+        assertEquals("Notice", json.getString("title"));
+        assertEquals(2, json.getJSONArray("items").length());
+    }
+
+    @Test
+    void escapesRawNewlinesInsideStrings() {
+        JSONObject json = LenientJsonParser.parseObject("{\"article\": \"line one\nline two\"}");
+        assertNotNull(json);
+        assertEquals("line one\nline two", json.getString("article"));
+    }
+
+    @Test
+    void closesTruncatedOutput() {
+        JSONObject json = LenientJsonParser.parseObject("{\"title\": \"Notice\", \"items\": [{\"plot\": \"LR 12\"}, {\"plo");
+        assertNotNull(json);
+        assertEquals(2, json.getJSONArray("items").length());
+        assertEquals("LR 12", json.getJSONArray("items").getJSONObject(0).getString("plot"));
+
+        JSONObject dangling = LenientJsonParser.parseObject("{\"title\": \"Notice\", \"summary\":");
+        assertNotNull(dangling);
+        assertEquals(1, dangling.length());
+    }
+
+    @Test
+    void dropsAnEscapeCutOffAtTheEnd() {
+        JSONObject json = LenientJsonParser.parseObject("{\"title\": \"Notice\", \"path\": \"C:\\\\gazettes\\");
+        assertNotNull(json);
+        assertEquals("C:\\gazettes", json.getString("path"));
+
+        JSONObject unicode = LenientJsonParser.parseObject("{\"title\": \"Caf\\u00e");
+        assertNotNull(unicode);
+        assertEquals("Caf", unicode.getString("title"));
+    }
+
+    @Test
+    void returnsNullWithoutAnObject() {
+        assertNull(LenientJsonParser.parseObject("I could not process this notice."));
+        assertNull(LenientJsonParser.parseObject(null));
+    }
+}
@@ -0,0 +1,37 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NoticeGrouperTests {
+
+    @Test
+    void groupsAdjacentRunsAndCapsTheirSize() {
+        // L = groupable land notice, T = groupable tender, null = never grouped
+        List<String> keys = List.of("L", "L", "L", "L", "L", "x", "L", "T", "T", "L");
+        List<Integer> notices = List.of(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+
+        List<List<Integer>> units = NoticeGrouper.groupAdjacent(notices,
+                i -> "x".equals(keys.get(i)) ? null : keys.get(i), 2, 3);
+
+        assertEquals(List.of(
+                List.of(0, 1, 2), List.of(3, 4),   // run of 5 capped at 3
+                List.of(5),                        // ungroupable
+                List.of(6),                        // run of 1
+                List.of(7, 8),
+                List.of(9)), units);
+    }
+
+    @Test
+    void kindIsTheGoverningActHeading() {
+        assertEquals("THE LAND REGISTRATION ACT", NoticeGrouper.kindOf("""
+                GAZETTE NOTICE NO. 2101
+                The Land Registration Act
+                (No. 3 of 2012)
+                ISSUE OF A NEW LAND TITLE DEED"""));
+        assertEquals("", NoticeGrouper.kindOf("GAZETTE NOTICE NO. 9\nINVITATION TO TENDER"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class NoticePreClassifierTests {
+
+    @Test
+    void predictsFromTheGoverningActAndNoticeType() {
+        assertEquals("Land_Property", NoticePreClassifier.predict("""
+                GAZETTE NOTICE NO. 2101
+                THE LAND REGISTRATION ACT
+                ISSUE OF A PROVISIONAL CERTIFICATE
+                WHEREAS the title deed of the land known as LR 209/1234 is lost ..."""));
+        assertEquals("Court_Legal", NoticePreClassifier.predict("""
+                GAZETTE NOTICE NO. 2102
+                THE LAW OF SUCCESSION ACT
+                IN THE HIGH COURT OF KENYA AT NAIROBI
+                SUCCESSION CAUSE NO. 45 OF 2025"""));
+    }
+
+    @Test
+    void highestScoreWinsOverASingleStrayKeyword() {
+        // "appointment" alone would say Appointments; three Tenders phrases outweigh it
+        assertEquals("Tenders", NoticePreClassifier.predict("""
+                INVITATION TO TENDER
+                TENDER NO. KRA/2025/17 for procurement of office furniture.
+                Bids to be opened by appointment at the head office."""));
+    }
+
+    @Test
+    void noKeywordMeansNoGuess() {
+        assertNull(NoticePreClassifier.predict("GAZETTE NOTICE NO. 2103\nCORRIGENDUM\nIn Gazette Notice No. 1999 of 2025, amend the date."));
+    }
+
+    @Test
+    void onlyTheHeadOfTheNoticeIsScanned() {
+        String text = "GAZETTE NOTICE NO. 2104\n" + "x".repeat(2000) + "\nTHE COMPANIES ACT";
+        assertNull(NoticePreClassifier.predict(text));
+    }
+}
@@ -0,0 +1,70 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoticeSegmenterTests {
+
+    private static final String GAZETTE = """
+            THE KENYA GAZETTE
+            Published by Authority of the Republic of Kenya
+            Vol. CXXVII-No. 36  NAIROBI, 21st February, 2025
+
+            GAZETTE NOTICE NO. 2101
+            THE LAND REGISTRATION ACT
+            Plot LR 209/1234 ...
+
+            GAZETTE NOTICE NO. 2102
+            THE PROBATE AND ADMINISTRATION ACT
+            SPECIAL ISSUE
+            Kenya Gazette Supplement No. 12
+
+            LEGAL NOTICE NO. 45
+            THE PUBLIC FINANCE MANAGEMENT ACT
+            """;
+
+    @Test
+    void splitsOnNoticeBoundariesAndDropsMastheads() {
+        List<NoticeSegmenter.NoticeSpan> spans = NoticeSegmenter.segment(GAZETTE);
+
+        assertEquals(3, spans.size());
+        assertTrue(spans.get(0).text(GAZETTE).startsWith("GAZETTE NOTICE NO. 2101"));
+        assertTrue(spans.get(0).text(GAZETTE).endsWith("Plot LR 209/1234 ..."));
+        // The special issue header closes notice 2102 and is not carried into it
+        assertTrue(spans.get(1).text(GAZETTE).endsWith("THE PROBATE AND ADMINISTRATION ACT"));
+        assertTrue(spans.get(2).text(GAZETTE).startsWith("LEGAL NOTICE NO. 45"));
+    }
+
+    @Test
+    void inlineSupplementCitationsDoNotSplitANotice() {
+        String text = """
+                GAZETTE NOTICE NO. 2103
+                THE COUNTY GOVERNMENTS ACT
+                NOTICE IS GIVEN THAT THE REGULATIONS
+                KENYA GAZETTE SUPPLEMENT NO. 12 OF 2025 WERE REVOKED, AS PUBLISHED IN THE
+                SPECIAL ISSUE OF 3RD MARCH, 2025.
+                """;
+        List<NoticeSegmenter.NoticeSpan> spans = NoticeSegmenter.segment(text);
+
+        assertEquals(1, spans.size());
+        assertTrue(spans.get(0).text(text).endsWith("SPECIAL ISSUE OF 3RD MARCH, 2025."));
+    }
+
+    @Test
+    void noBoundaryMeansNoSpans() {
+        String text = "  A single notice without a number.  ";
+        assertTrue(NoticeSegmenter.segment(text).isEmpty());
+        assertEquals("A single notice without a number.", NoticeSegmenter.whole(text).text(text));
+    }
+
+    @Test
+    void findsNoticeNumberDigits() {
+        assertEquals("2102", NoticeSegmenter.findNoticeNumber("see Gazette Notice No. 2102 of 2025"));
+        assertNull(NoticeSegmenter.findNoticeNumber("no number here"));
+    }
+}
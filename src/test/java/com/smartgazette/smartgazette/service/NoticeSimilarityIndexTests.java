@@ -0,0 +1,65 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.model.Gazette;
+import com.smartgazette.smartgazette.model.ProcessingStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class NoticeSimilarityIndexTests {
+
+    private static final String LOST_TITLE = """
+            GAZETTE NOTICE NO. %d
+            THE LAND REGISTRATION ACT
+            ISSUE OF A NEW LAND TITLE DEED
+            WHEREAS Jane Wanjiru, of P.O. Box %d, Nairobi, is registered as proprietor of all that piece of land
+            known as Nairobi/Block %d/%d, and whereas sufficient evidence has been adduced to show that the land
+            title deed issued thereof has been lost, notice is given that after the expiration of sixty (60) days
+            from the date hereof, I shall issue a new land title deed provided that no objection has been received.
+            """;
+
+    @Test
+    void templatedNoticesDifferingOnlyInNumbersCollide() {
+        long a = SimHash.of(LOST_TITLE.formatted(2101, 4411, 72, 1203));
+        long b = SimHash.of(LOST_TITLE.formatted(2102, 90, 105, 77));
+        long unrelated = SimHash.of("THE PUBLIC PROCUREMENT AND ASSET DISPOSAL ACT invitation to tender for supply of motor vehicles");
+
+        assertEquals(0, SimHash.distance(a, b));
+        assertTrue(SimHash.distance(a, unrelated) > 3);
+    }
+
+    @Test
+    void findsNearDuplicateAmongManyNotices() {
+        NoticeSimilarityIndex index = new NoticeSimilarityIndex(null, new PipelineMetrics(), 3);
+        Random random = new Random(42);
+        for (long id = 1; id <= 20_000; id++) {
+            index.add(indexed(id, random.nextLong(), "Miscellaneous"));
+        }
+        long template = SimHash.of(LOST_TITLE.formatted(2101, 4411, 72, 1203));
+        index.add(indexed(99_999L, template, "Land_Property"));
+
+        // Three flipped bits, one in each of three different bands
+        long query = template ^ (1L << 3) ^ (1L << 20) ^ (1L << 40);
+        NoticeSimilarityIndex.Match match = index.findNearDuplicate(query).orElseThrow();
+
+        assertEquals(99_999L, match.entry().id());
+        assertEquals("Land_Property", match.entry().category());
+        assertEquals(3, match.distance());
+        assertEquals(20_001, index.getStats().get("indexedNotices"));
+
+        index.remove(99_999L);
+        assertTrue(index.findNearDuplicate(query).isEmpty());
+    }
+
+    private static Gazette indexed(long id, long simhash, String category) {
+        Gazette gazette = new Gazette();
+        gazette.setId(id);
+        gazette.setContentSimhash(simhash);
+        gazette.setCategory(category);
+        gazette.setStatus(ProcessingStatus.SUCCESS);
+        return gazette;
+    }
+}
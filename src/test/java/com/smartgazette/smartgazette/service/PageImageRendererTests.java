@@ -0,0 +1,48 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PageImageRendererTests {
+
+    @Test
+    void dpiScalesWithTextDensity() {
+        assertEquals(200, PageImageRenderer.dpiForDensity(5, 200, 300));   // cover page
+        assertEquals(250, PageImageRenderer.dpiForDensity(37.5, 200, 300));
+        assertEquals(300, PageImageRenderer.dpiForDensity(90, 200, 300));  // dense two-column notices
+    }
+
+    @Test
+    void unsupportedFormatFallsBackToJpeg() {
+        assertEquals("jpeg", PageImageRenderer.resolveFormat("jpg"));
+        assertEquals("png", PageImageRenderer.resolveFormat("PNG"));
+        assertEquals("jpeg", PageImageRenderer.resolveFormat("no-such-format"));
+    }
+
+    @Test
+    void lowerJpegQualityGivesSmallerPayload() throws Exception {
+        BufferedImage page = new BufferedImage(400, 400, BufferedImage.TYPE_BYTE_GRAY);
+        for (int y = 0; y < 400; y++) {
+            for (int x = 0; x < 400; x++) {
+                int shade = ((x * 31 + y * 17) ^ (x * y)) & 0xFF;
+                page.getRaster().setSample(x, y, 0, shade);
+            }
+        }
+        byte[] low = PageImageRenderer.encode(page, "jpeg", 0.3f);
+        byte[] high = PageImageRenderer.encode(page, "jpeg", 0.95f);
+        assertTrue(low.length < high.length);
+    }
+
+    @Test
+    void wordF1ComparesBagsOfWords() {
+        String reference = "GAZETTE NOTICE NO. 2101 The Land Registration Act";
+        assertEquals(1.0, PageImageRenderer.wordF1(reference, "gazette notice no 2101\nTHE LAND REGISTRATION ACT"));
+        assertEquals(0.0, PageImageRenderer.wordF1(reference, "unrelated words"));
+        double partial = PageImageRenderer.wordF1(reference, "GAZETTE NOTICE NO. 2101");
+        assertTrue(partial > 0.5 && partial < 1.0);
+    }
+}
@@ -0,0 +1,84 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.repository.GazetteRepository;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+// Redirect chains served from a local HTTP server; HttpURLConnection alone would stop at the first hop
+class PdfStorageServiceTests {
+
+    private static final byte[] PDF = "%PDF-1.4 gazette bytes".getBytes(StandardCharsets.US_ASCII);
+
+    private HttpServer server;
+    private String base;
+    private final PdfStorageService storage = new PdfStorageService(mock(GazetteRepository.class));
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        base = "http://localhost:" + server.getAddress().getPort();
+        server.createContext("/relative", exchange -> redirect(exchange, 302, "/absolute"));
+        server.createContext("/absolute", exchange -> redirect(exchange, 301, base + "/files/gazette.pdf"));
+        server.createContext("/to-html", exchange -> redirect(exchange, 307, "/login"));
+        server.createContext("/files/gazette.pdf", exchange -> send(exchange, "application/pdf", PDF));
+        server.createContext("/login", exchange -> send(exchange, "text/html",
+                "<html>Please sign in</html>".getBytes(StandardCharsets.UTF_8)));
+        server.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void followsRedirectsToThePdf(@TempDir Path dir) throws Exception {
+        File destination = dir.resolve("gazette.pdf").toFile();
+        PdfStorageService.StoredPdf stored = storage.download(base + "/relative", null, destination);
+
+        assertFalse(stored.duplicate());
+        assertArrayEquals(PDF, Files.readAllBytes(stored.file().toPath()));
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(PDF)), stored.sha256());
+    }
+
+    @Test
+    void rejectsARedirectThatEndsOnAnHtmlPage(@TempDir Path dir) throws Exception {
+        File destination = dir.resolve("gazette.pdf").toFile();
+        assertNull(storage.download(base + "/to-html", null, destination));
+        assertFalse(destination.exists());
+    }
+
+    private static void redirect(HttpExchange exchange, int status, String location) throws IOException {
+        exchange.getResponseHeaders().add("Location", location);
+        exchange.sendResponseHeaders(status, -1);
+        exchange.close();
+    }
+
+    private static void send(HttpExchange exchange, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", contentType);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
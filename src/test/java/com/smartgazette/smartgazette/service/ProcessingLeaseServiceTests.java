@@ -0,0 +1,128 @@
+package com.smartgazette.smartgazette.service;
+
+import com.smartgazette.smartgazette.repository.ProcessingLeaseRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Two lease services with different instance ids over one H2 database stand in for two app nodes.
+// The schema comes from the Flyway H2 migrations; validate would trip over H2 reporting TEXT as CLOB.
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProcessingLeaseServiceTests {
+
+    @Autowired
+    private ProcessingLeaseRepository leaseRepository;
+
+    private ProcessingLeaseService nodeA;
+    private ProcessingLeaseService nodeB;
+
+    @BeforeEach
+    void setUp() {
+        leaseRepository.deleteAll();
+        nodeA = new ProcessingLeaseService(leaseRepository, "node-a");
+        nodeB = new ProcessingLeaseService(leaseRepository, "node-b");
+    }
+
+    @Test
+    void onlyOneNodeHoldsALiveLease() {
+        assertTrue(nodeA.tryAcquire("scraper:daily", Duration.ofMinutes(5)));
+        assertFalse(nodeB.tryAcquire("scraper:daily", Duration.ofMinutes(5)));
+        // Renewal by the holder still succeeds
+        assertTrue(nodeA.tryAcquire("scraper:daily", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void releasedLeaseCanBeTakenByAnotherNode() {
+        assertTrue(nodeA.tryAcquire("scraper:daily", Duration.ofMinutes(5)));
+        nodeA.release("scraper:daily");
+        assertTrue(nodeB.tryAcquire("scraper:daily", Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void expiredLeaseIsTakenOver() throws InterruptedException {
+        assertTrue(nodeA.tryAcquire("gazette:225:2025-11-07", Duration.ofMillis(1)));
+        Thread.sleep(20);
+        assertTrue(nodeB.tryAcquire("gazette:225:2025-11-07", Duration.ofMinutes(5)));
+        assertFalse(nodeA.tryAcquire("gazette:225:2025-11-07", Duration.ofMinutes(5)));
+    }
+
+    // Both nodes race for the same fresh lease from their own threads (own connections), many times over
+    @Test
+    void concurrentNodesNeverBothWinAFreshLease() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 50; round++) {
+                String key = "gazette:" + round + ":2025-11-07";
+                CyclicBarrier start = new CyclicBarrier(2);
+                Future<Boolean> a = pool.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return nodeA.tryAcquire(key, Duration.ofMinutes(5));
+                });
+                Future<Boolean> b = pool.submit(() -> {
+                    start.await(5, TimeUnit.SECONDS);
+                    return nodeB.tryAcquire(key, Duration.ofMinutes(5));
+                });
+                int winners = (a.get(10, TimeUnit.SECONDS) ? 1 : 0) + (b.get(10, TimeUnit.SECONDS) ? 1 : 0);
+                assertEquals(1, winners, "round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // Same race over an expired lease held by a third node: exactly one takes it over
+    @Test
+    void concurrentNodesNeverBothTakeOverAnExpiredLease() throws Exception {
+        ProcessingLeaseService nodeC = new ProcessingLeaseService(leaseRepository, "node-c");
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            for (int round = 0; round < 20; round++) {
+                String key = "scraper:expired:" + round;
+                assertTrue(nodeC.tryAcquire(key, Duration.ofMillis(1)));
+                Thread.sleep(5);
+                CyclicBarrier start = new CyclicBarrier(2);
+                List<Future<Boolean>> racers = List.of(
+                        pool.submit(() -> {
+                            start.await(5, TimeUnit.SECONDS);
+                            return nodeA.tryAcquire(key, Duration.ofMinutes(5));
+                        }),
+                        pool.submit(() -> {
+                            start.await(5, TimeUnit.SECONDS);
+                            return nodeB.tryAcquire(key, Duration.ofMinutes(5));
+                        }));
+                int winners = 0;
+                for (Future<Boolean> racer : racers) {
+                    winners += racer.get(10, TimeUnit.SECONDS) ? 1 : 0;
+                }
+                assertEquals(1, winners, "round " + round);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void gazetteLeaseKeyIgnoresVolumePrefix() {
+        LocalDate date = LocalDate.of(2025, 11, 7);
+        assertEquals(ProcessingLeaseService.gazetteLeaseKey("No. 225", date),
+                ProcessingLeaseService.gazetteLeaseKey("Vol. CXXVII-No. 225", date));
+    }
+}
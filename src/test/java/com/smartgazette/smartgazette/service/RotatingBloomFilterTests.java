@@ -0,0 +1,41 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RotatingBloomFilterTests {
+
+    @Test
+    void remembersKeysForOneToTwoRotations() {
+        RotatingBloomFilter filter = new RotatingBloomFilter(1_000, 0.001);
+        assertTrue(filter.add(12345L));
+        assertFalse(filter.add(12345L));
+
+        filter.rotate();
+        assertFalse(filter.add(12345L), "still inside the window after one rotation");
+
+        filter.rotate();
+        assertTrue(filter.add(12345L), "forgotten after two");
+    }
+
+    @Test
+    void falsePositivesStayNearTheConfiguredRate() {
+        SplittableRandom random = new SplittableRandom(11);
+        RotatingBloomFilter filter = new RotatingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add(random.nextLong());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 1_000; i++) {
+            if (!filter.add(random.nextLong())) {
+                falsePositives++;
+            }
+        }
+        // Each probe is added too, so the filter ends 10% over capacity: allow up to 3%
+        assertTrue(falsePositives < 30, "false positives: " + falsePositives);
+    }
+}
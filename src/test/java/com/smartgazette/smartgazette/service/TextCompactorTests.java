@@ -0,0 +1,56 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextCompactorTests {
+
+    @Test
+    void stripsRunningHeadersAndPageNumbersButKeepsNotices() {
+        StringBuilder pdfText = new StringBuilder();
+        for (int page = 1; page <= 4; page++) {
+            pdfText.append("21st February, 2025        THE KENYA GAZETTE        ").append(600 + page).append('\n')
+                    .append("GAZETTE NOTICE NO. ").append(2100 + page).append('\n')
+                    .append("THE LAND REGISTRATION ACT\n")
+                    .append("WHEREAS the land title deed of the said    land has been\n")
+                    .append("lost, notice is given that after sixty (60) days a new deed\n")
+                    .append("shall be issued to the regis-\n")
+                    .append("tered proprietor.\n\n\n\n")
+                    .append("Dated the 7th February, 2025.\n")
+                    .append("J. MWANGI, Land Registrar.\n")
+                    .append(page).append('\n')
+                    .append(TextCompactor.PAGE_BREAK);
+        }
+
+        TextCompactor.Result result = TextCompactor.compactDocument(pdfText.toString());
+        String text = result.text();
+
+        assertFalse(text.contains("THE KENYA GAZETTE"));
+        assertEquals(4, NoticeSegmenter.segment(text).size());
+        assertTrue(text.contains("THE LAND REGISTRATION ACT"));
+        assertTrue(text.contains("registered proprietor"));
+        assertTrue(text.contains("of the said land has been"));
+        assertFalse(text.contains("\n\n\n"));
+        assertEquals(8, result.runningLinesRemoved());
+        assertTrue(result.tokensSaved() > 0);
+    }
+
+    @Test
+    void fitsTextToBudgetKeepingHeadAndTail() {
+        String head = "GAZETTE NOTICE NO. 2101\nTHE PROBATE AND ADMINISTRATION ACT\n";
+        String body = "Item of the schedule that goes on and on.\n".repeat(200);
+        String tail = "Dated the 7th February, 2025.\nREGISTRAR, HIGH COURT.";
+        String text = head + body + tail;
+
+        String fitted = TextCompactor.fitToBudget(text, 250);
+
+        assertTrue(fitted.length() <= 250 * 4);
+        assertTrue(fitted.startsWith(head));
+        assertTrue(fitted.endsWith(tail));
+        assertTrue(fitted.contains("[...]"));
+        assertEquals(text, TextCompactor.fitToBudget(text, 100_000));
+    }
+}
@@ -0,0 +1,82 @@
+package com.smartgazette.smartgazette.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// The schema comes from the Flyway H2 migrations; validate would trip over H2 reporting TEXT as CLOB.
+@DataJpaTest(properties = {"spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.hibernate.ddl-auto=none"})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class UniqueReaderServiceTests {
+
+    private static final String BROWSER = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) Firefox/128.0";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private PipelineMetrics metrics;
+    private UniqueReaderService readers;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM gazette_reader_sketch");
+        jdbcTemplate.update("DELETE FROM gazette");
+        metrics = new PipelineMetrics();
+        readers = new UniqueReaderService(jdbcTemplate, new TransactionTemplate(transactionManager), metrics,
+                10, "(?i)bot|crawl", 1000, 0.001);
+    }
+
+    @Test
+    void persistSavesTheSketchOfAnExistingNotice() {
+        jdbcTemplate.update("INSERT INTO gazette (id, title, status, source_order) VALUES (1, 'Probate notice', 'SUCCESS', 1)");
+        assertEquals(1, readers.recordView(1, "10.0.0.1", BROWSER));
+        assertEquals(0, readers.recordView(1, "10.0.0.1", BROWSER));
+
+        readers.persist();
+
+        assertEquals(1, countRows());
+        assertEquals(1, readers.getStats().get("sketchesInMemory"));
+    }
+
+    @Test
+    void persistDropsTheSketchOfADeletedNotice() {
+        readers.recordView(42, "10.0.0.1", BROWSER);
+
+        readers.persist();
+        readers.persist(); // Not retried: the foreign key will never be satisfied
+
+        assertEquals(0, countRows());
+        assertEquals(0, readers.getStats().get("sketchesInMemory"));
+        assertEquals(1, metrics.count("readers.orphanSketchesDropped"));
+    }
+
+    @Test
+    void aRestartedNodeDoesNotCountTodaysReadersAgain() {
+        jdbcTemplate.update("INSERT INTO gazette (id, title, status, source_order) VALUES (1, 'Probate notice', 'SUCCESS', 1)");
+        assertEquals(1, readers.recordView(1, "10.0.0.1", BROWSER));
+        assertEquals(1, readers.recordView(1, "10.0.0.2", BROWSER));
+        readers.persist();
+
+        UniqueReaderService restarted = new UniqueReaderService(jdbcTemplate, new TransactionTemplate(transactionManager),
+                metrics, 10, "(?i)bot|crawl", 1000, 0.001);
+        assertEquals(0, restarted.recordView(1, "10.0.0.1", BROWSER));
+        assertEquals(0, restarted.recordView(1, "10.0.0.2", BROWSER));
+        assertEquals(1, restarted.recordView(1, "10.0.0.3", BROWSER));
+        assertEquals(1, metrics.count("readers.sketchesLoaded"));
+    }
+
+    private int countRows() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM gazette_reader_sketch", Integer.class);
+    }
+}